@@ -0,0 +1,72 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.client.LightweightGuiDescription;
+import com.withertech.mine_gui.impl.FocusHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link FocusHandler#cycleFocus(com.withertech.mine_gui.GuiDescription, boolean)}
+ * through trees of focusable widgets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FocusBenchmark
+{
+	@Param({"2", "4", "6"})
+	public int depth;
+
+	@Param({"4", "8"})
+	public int breadth;
+
+	private LightweightGuiDescription description;
+
+	@Setup
+	public void setup()
+	{
+		description = new LightweightGuiDescription();
+		description.setRootPanel(WidgetTrees.plainTree(depth, breadth, true));
+		description.getRootPanel().validate(description);
+	}
+
+	@Benchmark
+	public Object cycleForwards()
+	{
+		FocusHandler.cycleFocus(description, true);
+		return description.getFocus();
+	}
+
+	@Benchmark
+	public Object cycleBackwards()
+	{
+		FocusHandler.cycleFocus(description, false);
+		return description.getFocus();
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.widget.WPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link WPanel#hit(int, int)} on nested panel trees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitTestBenchmark
+{
+	private static final int POINTS = 1024;
+
+	@Param({"2", "4", "6"})
+	public int depth;
+
+	@Param({"4", "8"})
+	public int breadth;
+
+	private WPanel root;
+	private int[] xs;
+	private int[] ys;
+	private int next = 0;
+
+	@Setup
+	public void setup()
+	{
+		root = WidgetTrees.plainTree(depth, breadth, false);
+
+		SplittableRandom random = new SplittableRandom(0);
+		xs = new int[POINTS];
+		ys = new int[POINTS];
+
+		for (int i = 0; i < POINTS; i++)
+		{
+			xs[i] = random.nextInt(root.getWidth());
+			ys[i] = random.nextInt(root.getHeight());
+		}
+	}
+
+	@Benchmark
+	public Object hit()
+	{
+		int i = next++ & (POINTS - 1);
+		return root.hit(xs[i], ys[i]);
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.widget.WBox;
+import com.withertech.mine_gui.widget.WGridPanel;
+import com.withertech.mine_gui.widget.WListPanel;
+import com.withertech.mine_gui.widget.WWidget;
+import com.withertech.mine_gui.widget.data.Axis;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link com.withertech.mine_gui.widget.WPanel#layout()} of the built-in panels,
+ * and a measure and arrange pass after one widget has invalidated its layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LayoutBenchmark
+{
+	@Param({"16", "256", "4096"})
+	public int size;
+
+	private WGridPanel grid;
+	private WBox box;
+	private WWidget boxLeaf;
+	private WListPanel<Integer, WWidget> list;
+
+	@Setup
+	public void setup()
+	{
+		grid = WidgetTrees.grid(size, 9);
+		box = WidgetTrees.box(size, Axis.VERTICAL);
+		boxLeaf = box.streamChildren().reduce((first, second) -> second).orElseThrow();
+
+		List<Integer> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) data.add(i);
+		list = new WListPanel<>(data, WWidget::new, (index, widget) -> {});
+		list.setSize(9 * WidgetTrees.LEAF_SIZE, 20 * WidgetTrees.LEAF_SIZE);
+	}
+
+	@Benchmark
+	public WGridPanel gridPanel()
+	{
+		grid.layout();
+		return grid;
+	}
+
+	@Benchmark
+	public WBox box()
+	{
+		box.layout();
+		return box;
+	}
+
+	@Benchmark
+	public WBox boxAfterChildChange()
+	{
+		boxLeaf.invalidateLayout();
+		Size size = box.measure(LayoutConstraints.UNBOUNDED);
+		box.arrange(box.getX(), box.getY(), size.width(), size.height());
+		return box;
+	}
+
+	@Benchmark
+	public WListPanel<Integer, WWidget> listPanel()
+	{
+		list.layout();
+		return list;
+	}
+}
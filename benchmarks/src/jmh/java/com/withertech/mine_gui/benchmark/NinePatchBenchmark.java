@@ -0,0 +1,75 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.ninepatch.NinePatch;
+import com.withertech.mine_gui.ninepatch.TextureRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link NinePatch#draw(TextureRenderer, int, int)} against a renderer that only counts the drawn quads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NinePatchBenchmark
+{
+	@Param({"TILING", "STRETCHING"})
+	public NinePatch.Mode mode;
+
+	@Param({"32", "176", "512"})
+	public int size;
+
+	private NinePatch<String> ninePatch;
+	private final CountingRenderer renderer = new CountingRenderer();
+
+	@Setup
+	public void setup()
+	{
+		ninePatch = NinePatch.builder("panel").cornerSize(4).cornerUv(0.25f).mode(mode).build();
+	}
+
+	@Benchmark
+	public int draw()
+	{
+		renderer.quads = 0;
+		ninePatch.draw(renderer, size, size);
+		return renderer.quads;
+	}
+
+	private static final class CountingRenderer implements TextureRenderer<Object>
+	{
+		private int quads = 0;
+
+		@Override
+		public void draw(Object texture, int x, int y, int width, int height, float u1, float v1, float u2, float v2)
+		{
+			quads++;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.widget.data.ObservableProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ObservableProperty#set(Object)} with many listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObservablePropertyBenchmark
+{
+	private static final Integer FIRST = 1000;
+	private static final Integer SECOND = 2000;
+
+	@Param({"1", "16", "256"})
+	public int listeners;
+
+	private ObservableProperty<Integer> property;
+	private boolean toggle = false;
+	private int notifications = 0;
+
+	@Setup
+	public void setup()
+	{
+		property = ObservableProperty.of(FIRST).build();
+
+		for (int i = 0; i < listeners; i++)
+		{
+			property.addListener((observable, from, to) -> notifications++);
+		}
+	}
+
+	@Benchmark
+	public int set()
+	{
+		toggle = !toggle;
+		property.set(toggle ? SECOND : FIRST);
+		return notifications;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.benchmark;
+
+import com.withertech.mine_gui.widget.WBox;
+import com.withertech.mine_gui.widget.WGridPanel;
+import com.withertech.mine_gui.widget.WPlainPanel;
+import com.withertech.mine_gui.widget.WWidget;
+import com.withertech.mine_gui.widget.data.Axis;
+
+/**
+ * Generators for widget trees of configurable size and depth.
+ */
+final class WidgetTrees
+{
+	/**
+	 * The size of the leaf widgets.
+	 */
+	static final int LEAF_SIZE = 18;
+
+	private WidgetTrees()
+	{
+	}
+
+	/**
+	 * Generates a tree of plain panels where every panel has {@code breadth} children laid out in a row,
+	 * and the panels at the lowest level contain leaf widgets.
+	 *
+	 * <p>The tree is {@code LEAF_SIZE * breadth^depth} pixels wide and {@code LEAF_SIZE} pixels high.
+	 *
+	 * @param depth     the number of panel levels, at least 1
+	 * @param breadth   the number of children per panel
+	 * @param focusable whether the leaves should be focusable
+	 * @return the root panel
+	 */
+	static WPlainPanel plainTree(int depth, int breadth, boolean focusable)
+	{
+		WPlainPanel panel = new WPlainPanel();
+		int childWidth = LEAF_SIZE;
+
+		for (int i = 0; i < breadth; i++)
+		{
+			WWidget child = depth > 1 ? plainTree(depth - 1, breadth, focusable) : leaf(focusable);
+			childWidth = Math.max(child.getWidth(), LEAF_SIZE);
+			panel.add(child, i * childWidth, 0, childWidth, LEAF_SIZE);
+		}
+
+		panel.setSize(childWidth * breadth, LEAF_SIZE);
+		return panel;
+	}
+
+	/**
+	 * Generates a grid panel containing {@code count} leaf widgets in rows of {@code columns}.
+	 *
+	 * @param count   the number of leaves
+	 * @param columns the number of columns
+	 * @return the grid panel
+	 */
+	static WGridPanel grid(int count, int columns)
+	{
+		WGridPanel grid = new WGridPanel();
+
+		for (int i = 0; i < count; i++)
+		{
+			grid.add(leaf(false), i % columns, i / columns);
+		}
+
+		return grid;
+	}
+
+	/**
+	 * Generates a box containing {@code count} leaf widgets.
+	 *
+	 * @param count the number of leaves
+	 * @param axis  the axis of the box
+	 * @return the box
+	 */
+	static WBox box(int count, Axis axis)
+	{
+		WBox box = new WBox(axis);
+
+		for (int i = 0; i < count; i++)
+		{
+			box.add(leaf(false));
+		}
+
+		return box;
+	}
+
+	static WWidget leaf(boolean focusable)
+	{
+		return focusable ? new FocusableWidget() : new WWidget();
+	}
+
+	/**
+	 * A leaf widget that can be focused.
+	 */
+	static final class FocusableWidget extends WWidget
+	{
+		@Override
+		public boolean canFocus()
+		{
+			return true;
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ContainerSynchronizer;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.ItemStack;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process registry of metrics about {@link SyncedGuiDescription} menus and their screen messages.
+ *
+ * <p>The registry counts the {@linkplain com.withertech.mine_gui.networking.ScreenNetworking screen messages}
+ * and bytes sent and received per message ID, and the {@link SyncedGuiDescription#quickMoveStack quick moves},
+ * ticks and synced slots and data slots per menu type. The metrics are collected in the running game instance,
+ * so in single player they include both the client and the integrated server.
+ *
+ * <p>The collected metrics can be read with {@link #getMessageStats()} and {@link #getMenuStats()},
+ * or written to a logger with {@link #log(Logger)}. All methods are thread-safe.
+ */
+public final class GuiMetrics
+{
+	/**
+	 * The key used for menus without a registered menu type.
+	 */
+	public static final ResourceLocation UNREGISTERED_MENU = new ResourceLocation(MineGui.MOD_ID, "unregistered");
+
+	private static final Map<ResourceLocation, MessageCounters> MESSAGES = new ConcurrentHashMap<>();
+	private static final Map<ResourceLocation, MenuCounters> MENUS = new ConcurrentHashMap<>();
+
+	private GuiMetrics()
+	{
+	}
+
+	/**
+	 * Records a sent screen message.
+	 *
+	 * @param message the message ID
+	 * @param bytes   the size of the packet in bytes
+	 */
+	public static void messageSent(ResourceLocation message, int bytes)
+	{
+		MessageCounters counters = MESSAGES.computeIfAbsent(message, m -> new MessageCounters());
+		counters.sentMessages.increment();
+		counters.sentBytes.add(bytes);
+	}
+
+	/**
+	 * Records a received screen message.
+	 *
+	 * @param message the message ID
+	 * @param bytes   the size of the packet in bytes
+	 */
+	public static void messageReceived(ResourceLocation message, int bytes)
+	{
+		MessageCounters counters = MESSAGES.computeIfAbsent(message, m -> new MessageCounters());
+		counters.receivedMessages.increment();
+		counters.receivedBytes.add(bytes);
+	}
+
+	/**
+	 * Gets the counters of a menu type.
+	 *
+	 * @param type the menu type, or null
+	 * @return the counters of the menu type
+	 */
+	static MenuCounters menu(@Nullable MenuType<?> type)
+	{
+		ResourceLocation id = type != null ? Registry.MENU.getKey(type) : null;
+		return MENUS.computeIfAbsent(id != null ? id : UNREGISTERED_MENU, i -> new MenuCounters());
+	}
+
+	/**
+	 * {@return a snapshot of the message metrics, sorted by message ID}
+	 */
+	public static Map<ResourceLocation, MessageStats> getMessageStats()
+	{
+		Map<ResourceLocation, MessageStats> result = new TreeMap<>();
+		MESSAGES.forEach((id, counters) -> result.put(id, counters.snapshot()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * {@return a snapshot of the menu metrics, sorted by menu type ID}
+	 */
+	public static Map<ResourceLocation, MenuStats> getMenuStats()
+	{
+		Map<ResourceLocation, MenuStats> result = new TreeMap<>();
+		MENUS.forEach((id, counters) -> result.put(id, counters.snapshot()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Writes all metrics to a logger, menus with the highest tick cost first.
+	 *
+	 * @param logger the logger
+	 */
+	public static void log(Logger logger)
+	{
+		logger.info("GUI menu metrics:");
+		getMenuStats().entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<ResourceLocation, MenuStats> entry) -> entry.getValue().tickNanos()).reversed())
+				.forEach(entry -> logger.info("  {}: {}", entry.getKey(), entry.getValue()));
+
+		logger.info("GUI message metrics:");
+		getMessageStats().forEach((id, stats) -> logger.info("  {}: {}", id, stats));
+	}
+
+	/**
+	 * Resets all metrics.
+	 */
+	public static void reset()
+	{
+		MESSAGES.clear();
+		MENUS.clear();
+	}
+
+	/**
+	 * A snapshot of the metrics of a screen message.
+	 *
+	 * @param sentMessages     the number of sent messages
+	 * @param sentBytes        the total size of the sent messages in bytes
+	 * @param receivedMessages the number of received messages
+	 * @param receivedBytes    the total size of the received messages in bytes
+	 */
+	public record MessageStats(long sentMessages, long sentBytes, long receivedMessages, long receivedBytes)
+	{
+	}
+
+	/**
+	 * A snapshot of the metrics of a menu type.
+	 *
+	 * @param menus           the number of opened menus
+	 * @param ticks           the number of ticks, i.e. calls to {@link AbstractContainerMenu#broadcastChanges()}
+	 * @param tickNanos       the total time spent in ticks in nanoseconds
+	 * @param slotsSynced     the number of slot changes sent to clients, including initial data
+	 * @param dataSlotsSynced the number of data slot changes sent to clients, including initial data
+	 * @param quickMoves      the number of {@link SyncedGuiDescription#quickMoveStack quickMoveStack} calls
+	 * @param quickMoveNanos  the total time spent in {@code quickMoveStack} in nanoseconds
+	 */
+	public record MenuStats(long menus, long ticks, long tickNanos, long slotsSynced, long dataSlotsSynced, long quickMoves, long quickMoveNanos)
+	{
+		/**
+		 * {@return the average number of slots synced per tick}
+		 */
+		public double slotsSyncedPerTick()
+		{
+			return ticks == 0 ? 0 : (double) slotsSynced / ticks;
+		}
+
+		/**
+		 * {@return the average number of data slots synced per tick}
+		 */
+		public double dataSlotsSyncedPerTick()
+		{
+			return ticks == 0 ? 0 : (double) dataSlotsSynced / ticks;
+		}
+
+		/**
+		 * {@return the average tick time in microseconds}
+		 */
+		public double averageTickMicros()
+		{
+			return ticks == 0 ? 0 : tickNanos / 1000.0 / ticks;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("menus=%d, ticks=%d, avgTick=%.2fus, slots/tick=%.2f, dataSlots/tick=%.2f, quickMoves=%d, avgQuickMove=%.2fus",
+					menus, ticks, averageTickMicros(), slotsSyncedPerTick(), dataSlotsSyncedPerTick(),
+					quickMoves, quickMoves == 0 ? 0 : quickMoveNanos / 1000.0 / quickMoves);
+		}
+	}
+
+	private static final class MessageCounters
+	{
+		private final LongAdder sentMessages = new LongAdder();
+		private final LongAdder sentBytes = new LongAdder();
+		private final LongAdder receivedMessages = new LongAdder();
+		private final LongAdder receivedBytes = new LongAdder();
+
+		MessageStats snapshot()
+		{
+			return new MessageStats(sentMessages.sum(), sentBytes.sum(), receivedMessages.sum(), receivedBytes.sum());
+		}
+	}
+
+	static final class MenuCounters
+	{
+		final LongAdder menus = new LongAdder();
+		final LongAdder ticks = new LongAdder();
+		final LongAdder tickNanos = new LongAdder();
+		final LongAdder slotsSynced = new LongAdder();
+		final LongAdder dataSlotsSynced = new LongAdder();
+		final LongAdder quickMoves = new LongAdder();
+		final LongAdder quickMoveNanos = new LongAdder();
+
+		MenuStats snapshot()
+		{
+			return new MenuStats(menus.sum(), ticks.sum(), tickNanos.sum(), slotsSynced.sum(), dataSlotsSynced.sum(), quickMoves.sum(), quickMoveNanos.sum());
+		}
+	}
+
+	/**
+	 * A container synchronizer that counts the synced slots and data slots of a menu type.
+	 */
+	record CountingSynchronizer(ContainerSynchronizer delegate, MenuCounters counters) implements ContainerSynchronizer
+	{
+		@Override
+		public void sendInitialData(AbstractContainerMenu menu, NonNullList<ItemStack> stacks, ItemStack carried, int[] data)
+		{
+			counters.slotsSynced.add(stacks.size());
+			counters.dataSlotsSynced.add(data.length);
+			delegate.sendInitialData(menu, stacks, carried, data);
+		}
+
+		@Override
+		public void sendSlotChange(AbstractContainerMenu menu, int slot, ItemStack stack)
+		{
+			counters.slotsSynced.increment();
+			delegate.sendSlotChange(menu, slot, stack);
+		}
+
+		@Override
+		public void sendCarriedChange(AbstractContainerMenu menu, ItemStack stack)
+		{
+			delegate.sendCarriedChange(menu, stack);
+		}
+
+		@Override
+		public void sendDataChange(AbstractContainerMenu menu, int slot, int value)
+		{
+			counters.dataSlotsSynced.increment();
+			delegate.sendDataChange(menu, slot, value);
+		}
+	}
+}
@@ -23,11 +23,17 @@ import com.withertech.mine_gui.example.container.TestContainer;
 import com.withertech.mine_gui.example.registration.MineContainers;
 import com.withertech.mine_gui.example.registration.MineRegistries;
 import com.withertech.mine_gui.impl.ScreenNetworkingImpl;
+import com.withertech.mine_gui.impl.client.BakedNinePatchCache;
+import com.withertech.mine_gui.impl.client.GuiTextureAtlasImpl;
 import com.withertech.mine_gui.impl.client.MineGuiConfig;
+import com.withertech.mine_gui.impl.client.SlotGridPainter;
 import dev.architectury.networking.NetworkManager;
 import dev.architectury.platform.Platform;
+import dev.architectury.registry.ReloadListenerRegistry;
 import dev.architectury.registry.menu.MenuRegistry;
 import me.shedaniel.autoconfig.AutoConfig;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -49,6 +55,9 @@ public class MineGui
 		if (isExampleContentEnabled())
 			MenuRegistry.<TestContainer, TestScreen>registerScreenFactory(MineContainers.TEST_CONTAINER.get(), (containerMenu, inventory, component) -> new TestScreen(containerMenu, inventory.player, component));
 		NetworkManager.registerReceiver(NetworkManager.Side.S2C, ScreenNetworkingImpl.SCREEN_MESSAGE_S2C, ScreenNetworkingImpl::handle);
+		ReloadListenerRegistry.register(PackType.CLIENT_RESOURCES, GuiTextureAtlasImpl.INSTANCE);
+		ReloadListenerRegistry.register(PackType.CLIENT_RESOURCES, (ResourceManagerReloadListener) resourceManager -> BakedNinePatchCache.clear());
+		ReloadListenerRegistry.register(PackType.CLIENT_RESOURCES, (ResourceManagerReloadListener) resourceManager -> SlotGridPainter.clear());
 	}
 
 	private static boolean isExampleContentEnabled()
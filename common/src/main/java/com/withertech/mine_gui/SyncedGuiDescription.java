@@ -69,20 +69,24 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 
 	protected WWidget focus;
 	private Vec2i titlePos = new Vec2i(8, 6);
+	private final GuiMetrics.MenuCounters metrics;
 
 	/**
 	 * Constructs a new synced GUI description without a block inventory or a property delegate.
 	 *
 	 * @param type            the {@link MenuType} of this GUI description
 	 * @param syncId          the current sync ID
-	 * @param playerInventory the player inventory of the player viewing this screen
+	 * @param playerInventory the player inventory of the player viewing this screen,
+	 *                        which may have no player in headless descriptions
 	 */
 	public SyncedGuiDescription(MenuType<?> type, int syncId, Inventory playerInventory)
 	{
 		super(type, syncId);
+		this.metrics = GuiMetrics.menu(type);
+		metrics.menus.increment();
 		this.blockInventory = null;
 		this.playerInventory = playerInventory;
-		this.world = playerInventory.player.level;
+		this.world = playerInventory.player != null ? playerInventory.player.level : null;
 		this.propertyDelegate = null;//new ArrayPropertyDelegate(1);
 	}
 
@@ -91,16 +95,19 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 	 *
 	 * @param type             the {@link MenuType} of this GUI description
 	 * @param syncId           the current sync ID
-	 * @param playerInventory  the player inventory of the player viewing this screen
+	 * @param playerInventory  the player inventory of the player viewing this screen,
+	 *                         which may have no player in headless descriptions
 	 * @param blockInventory   the block inventory of a corresponding container block, or null if not found or applicable
 	 * @param propertyDelegate a property delegate whose properties, if any, will automatically be {@linkplain #addDataSlots(ContainerData) added}
 	 */
 	public SyncedGuiDescription(MenuType<?> type, int syncId, Inventory playerInventory, @Nullable Container blockInventory, @Nullable ContainerData propertyDelegate)
 	{
 		super(type, syncId);
+		this.metrics = GuiMetrics.menu(type);
+		metrics.menus.increment();
 		this.blockInventory = blockInventory;
 		this.playerInventory = playerInventory;
-		this.world = playerInventory.player.level;
+		this.world = playerInventory.player != null ? playerInventory.player.level : null;
 		this.propertyDelegate = propertyDelegate;
 		if (propertyDelegate != null && propertyDelegate.getCount() > 0) this.addDataSlots(propertyDelegate);
 		if (blockInventory != null) blockInventory.startOpen(playerInventory.player);
@@ -284,6 +291,15 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 
 	@Override
 	public ItemStack quickMoveStack(Player player, int index)
+	{
+		long start = System.nanoTime();
+		ItemStack result = moveStack(player, index);
+		metrics.quickMoves.increment();
+		metrics.quickMoveNanos.add(System.nanoTime() - start);
+		return result;
+	}
+
+	private ItemStack moveStack(Player player, int index)
 	{
 		ItemStack result = ItemStack.EMPTY;
 		Slot slot = slots.get(index);
@@ -295,7 +311,7 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 
 			if (blockInventory != null)
 			{
-				if (slot.container == blockInventory)
+				if (getInventory(slot) == blockInventory)
 				{
 					//Try to transfer the item from the block into the player's inventory
 					if (!this.insertItem(slotStack, this.playerInventory, true, player))
@@ -327,6 +343,11 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 		return result;
 	}
 
+	private static Container getInventory(Slot slot)
+	{
+		return slot instanceof ValidatedSlot validated ? validated.getInventory() : slot.container;
+	}
+
 	// This is only kept for backwards binary compat, TODO: Remove in 1.19
 	@Override
 	public void clicked(int slotIndex, int button, ClickType actionType, Player player)
@@ -390,7 +411,7 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 		ArrayList<Slot> inventorySlots = new ArrayList<>();
 		for (Slot slot : slots)
 		{
-			if (slot.container == inventory) inventorySlots.add(slot);
+			if (getInventory(slot) == inventory) inventorySlots.add(slot);
 		}
 		if (inventorySlots.isEmpty()) return false;
 
@@ -451,7 +472,7 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 
 		for (Slot slot : slots)
 		{
-			if (slot.container == inventory && slot instanceof ValidatedSlot)
+			if (getInventory(slot) == inventory && slot instanceof ValidatedSlot)
 			{
 				int index = ((ValidatedSlot) slot).getInventoryIndex();
 				if (Inventory.isHotbarSlot(index))
@@ -556,6 +577,21 @@ public class SyncedGuiDescription extends AbstractContainerMenu implements GuiDe
 	}
 
 	//extends ScreenHandler {
+	@Override
+	public void setSynchronizer(ContainerSynchronizer synchronizer)
+	{
+		super.setSynchronizer(new GuiMetrics.CountingSynchronizer(synchronizer, metrics));
+	}
+
+	@Override
+	public void broadcastChanges()
+	{
+		long start = System.nanoTime();
+		super.broadcastChanges();
+		metrics.ticks.increment();
+		metrics.tickNanos.add(System.nanoTime() - start);
+	}
+
 	@Override
 	public boolean stillValid(Player entity)
 	{
@@ -87,10 +87,23 @@ public class ValidatedSlot extends Slot
 	@Override
 	public void setChanged()
 	{
-		listeners.forEach((slot, listener) -> listener.onStackChanged(slot, container, getInventoryIndex(), getItem()));
+		listeners.forEach((slot, listener) -> listener.onStackChanged(slot, getInventory(), getInventoryIndex(), getItem()));
 		super.setChanged();
 	}
 
+	/**
+	 * Gets the inventory of this slot.
+	 *
+	 * <p>This is usually the {@linkplain #container container} of this slot,
+	 * but slots that show a part of another inventory return that inventory.
+	 *
+	 * @return the inventory
+	 */
+	public Container getInventory()
+	{
+		return container;
+	}
+
 	/**
 	 * Gets the index of this slot in its inventory.
 	 *
@@ -20,6 +20,7 @@ package com.withertech.mine_gui.client;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.impl.client.SlotGridPainter;
 import com.withertech.mine_gui.ninepatch.NinePatch;
 import com.withertech.mine_gui.ninepatch.TextureRegion;
 import com.withertech.mine_gui.widget.WItemSlot;
@@ -53,6 +54,8 @@ public interface BackgroundPainter
 	);
 	/**
 	 * The {@code SLOT} background painter draws item slots or slot-like widgets.
+	 *
+	 * <p>The slot backgrounds of an item slot widget are drawn as a single cached batch for the whole grid.
 	 */
 	BackgroundPainter SLOT = (matrices, left, top, panel) ->
 	{
@@ -62,44 +65,7 @@ public interface BackgroundPainter
 		} else
 		{
 			WItemSlot slot = (WItemSlot) panel;
-			for (int x = 0; x < slot.getWidth() / 18; ++x)
-			{
-				for (int y = 0; y < slot.getHeight() / 18; ++y)
-				{
-					int index = x + y * (slot.getWidth() / 18);
-					int lo = 0xB8000000;
-					int bg = 0x4C000000;
-					//this will cause a slightly discolored bottom border on vanilla backgrounds but it's necessary for color support, it shouldn't be *too* visible unless you're looking for it
-					int hi = 0xB8FFFFFF;
-					if (slot.isBigSlot())
-					{
-						ScreenDrawing.drawBeveledPanel(matrices, (x * 18) + left - 4, (y * 18) + top - 4, 26, 26,
-								lo, bg, hi);
-						if (slot.getFocusedSlot() == index)
-						{
-							int sx = (x * 18) + left - 4;
-							int sy = (y * 18) + top - 4;
-							ScreenDrawing.coloredRect(matrices, sx, sy, 26, 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx, sy + 1, 1, 26 - 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx + 26 - 1, sy + 1, 1, 26 - 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx + 1, sy + 26 - 1, 26 - 1, 1, 0xFF_FFFFA0);
-						}
-					} else
-					{
-						ScreenDrawing.drawBeveledPanel(matrices, (x * 18) + left, (y * 18) + top, 16 + 2, 16 + 2,
-								lo, bg, hi);
-						if (slot.getFocusedSlot() == index)
-						{
-							int sx = (x * 18) + left;
-							int sy = (y * 18) + top;
-							ScreenDrawing.coloredRect(matrices, sx, sy, 18, 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx, sy + 1, 1, 18 - 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx + 18 - 1, sy + 1, 1, 18 - 1, 0xFF_FFFFA0);
-							ScreenDrawing.coloredRect(matrices, sx + 1, sy + 18 - 1, 18 - 1, 1, 0xFF_FFFFA0);
-						}
-					}
-				}
-			}
+			SlotGridPainter.paint(matrices, left, top, slot.getWidth() / 18, slot.getHeight() / 18, slot.isBigSlot(), slot.getFocusedSlot());
 		}
 	};
 
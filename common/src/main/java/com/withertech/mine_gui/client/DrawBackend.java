@@ -0,0 +1,107 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.client;
+
+import com.mojang.math.Matrix4f;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A draw backend receives the primitive draws issued by {@link ScreenDrawing} and {@link Scissors}.
+ *
+ * <p>The default backend draws with OpenGL. The active backend can be replaced with
+ * {@link ScreenDrawing#setBackend(DrawBackend)}, for example with a {@link RecordingDrawBackend}
+ * to inspect or count the draws of a widget without a GL context.
+ */
+@Environment(EnvType.CLIENT)
+public interface DrawBackend
+{
+	/**
+	 * Draws a quad.
+	 *
+	 * @param pose    the pose matrix of the quad
+	 * @param x1      the left edge of the quad
+	 * @param y1      the top edge of the quad
+	 * @param x2      the right edge of the quad
+	 * @param y2      the bottom edge of the quad
+	 * @param texture the texture of the quad, or null for an untextured quad
+	 * @param u1      the left edge of the texture
+	 * @param v1      the top edge of the texture
+	 * @param u2      the right edge of the texture
+	 * @param v2      the bottom edge of the texture
+	 * @param color   the ARGB color of the quad, multiplied with the texture if there is one
+	 */
+	void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color);
+
+	/**
+	 * Draws a string.
+	 *
+	 * @param pose   the pose matrix of the text
+	 * @param text   the string
+	 * @param x      the X position
+	 * @param y      the Y position
+	 * @param color  the text color
+	 * @param shadow whether the text has a shadow
+	 */
+	void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow);
+
+	/**
+	 * Draws a text component.
+	 *
+	 * @param pose   the pose matrix of the text
+	 * @param text   the text component
+	 * @param x      the X position
+	 * @param y      the Y position
+	 * @param color  the text color
+	 * @param shadow whether the text has a shadow
+	 */
+	void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow);
+
+	/**
+	 * Restricts drawing to a rectangle on the screen.
+	 *
+	 * @param x      the X coordinate of the rectangle, in GUI pixels
+	 * @param y      the Y coordinate of the rectangle, in GUI pixels
+	 * @param width  the width of the rectangle, in GUI pixels
+	 * @param height the height of the rectangle, in GUI pixels
+	 */
+	void scissor(int x, int y, int width, int height);
+
+	/**
+	 * Lifts the restriction set by {@link #scissor(int, int, int, int)}, allowing drawing on the whole screen.
+	 */
+	void clearScissor();
+
+	/**
+	 * Tests whether retained GPU caches, such as cached panels, batched slot grids and baked nine-patches,
+	 * may be used while this backend is active. Backends that must see every draw return false,
+	 * in which case everything is drawn through this backend.
+	 *
+	 * <p>The default implementation returns false.
+	 *
+	 * @return true if retained drawing is supported, false otherwise
+	 */
+	default boolean supportsRetainedDrawing()
+	{
+		return false;
+	}
+}
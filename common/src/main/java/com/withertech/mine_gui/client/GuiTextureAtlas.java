@@ -0,0 +1,124 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.client;
+
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.widget.data.Texture;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The GUI texture atlas stitches small widget textures into a single texture,
+ * so that widgets using different textures can be drawn with one texture binding.
+ *
+ * <p>The atlas is built on every resource reload from the textures registered here.
+ * Textures registered after the last reload are stitched in the background when they are first drawn.
+ * Drawing a stitched texture with {@link ScreenDrawing} transparently remaps its UVs into the atlas;
+ * unregistered textures, textures that haven't been stitched yet and UVs outside of the
+ * {@code [0, 1]} range are drawn from their own images as before.
+ *
+ * <p>Only textures located in the {@code textures/} directory and ending in {@code .png} can be stitched.
+ * The built-in widget textures of MineGui and all {@link com.withertech.mine_gui.widget.icon.TextureIcon texture icons}
+ * are registered automatically.
+ */
+public final class GuiTextureAtlas
+{
+	/**
+	 * The location of the atlas texture.
+	 */
+	public static final ResourceLocation LOCATION = new ResourceLocation(MineGui.MOD_ID, "textures/atlas/gui.png");
+	private static final String TEXTURE_PREFIX = "textures/";
+	private static final String TEXTURE_SUFFIX = ".png";
+	private static final Set<ResourceLocation> TEXTURES = ConcurrentHashMap.newKeySet();
+
+	static
+	{
+		for (String path : new String[]{
+				"panel_light", "panel_dark", "dark_widgets", "energy_bg", "energy_bar", "progress_bar",
+				"slider_light", "slider_dark", "toggle_on", "toggle_off", "toggle_focus",
+				"tab/selected_light", "tab/selected_dark", "tab/unselected_light", "tab/unselected_dark", "tab/focus"
+		})
+		{
+			register(new ResourceLocation(MineGui.MOD_ID, TEXTURE_PREFIX + "widget/" + path + TEXTURE_SUFFIX));
+		}
+	}
+
+	private GuiTextureAtlas()
+	{
+	}
+
+	/**
+	 * Registers a texture to be stitched into the atlas on the next resource reload or when it is first drawn.
+	 *
+	 * @param texture the texture image
+	 * @return true if the texture can be stitched, false if it will always be drawn from its own image
+	 */
+	public static boolean register(ResourceLocation texture)
+	{
+		if (!canStitch(texture)) return false;
+		TEXTURES.add(texture);
+		return true;
+	}
+
+	/**
+	 * Registers the image of a texture to be stitched into the atlas on the next resource reload or when it is first drawn.
+	 *
+	 * @param texture the texture
+	 * @return true if the texture can be stitched, false if it will always be drawn from its own image
+	 */
+	public static boolean register(Texture texture)
+	{
+		return register(texture.image());
+	}
+
+	/**
+	 * Gets an unmodifiable view of the registered textures.
+	 *
+	 * @return the registered texture images
+	 */
+	public static Set<ResourceLocation> getRegisteredTextures()
+	{
+		return Collections.unmodifiableSet(TEXTURES);
+	}
+
+	/**
+	 * Gets the sprite name of a texture in the atlas.
+	 *
+	 * @param texture the texture image, such as {@code mine_gui:textures/widget/panel_light.png}
+	 * @return the sprite name, such as {@code mine_gui:widget/panel_light}
+	 * @throws IllegalArgumentException if the texture cannot be stitched
+	 */
+	public static ResourceLocation getSpriteName(ResourceLocation texture)
+	{
+		if (!canStitch(texture))
+			throw new IllegalArgumentException("Texture " + texture + " cannot be stitched into the GUI atlas");
+
+		String path = texture.getPath();
+		return new ResourceLocation(texture.getNamespace(), path.substring(TEXTURE_PREFIX.length(), path.length() - TEXTURE_SUFFIX.length()));
+	}
+
+	private static boolean canStitch(ResourceLocation texture)
+	{
+		String path = texture.getPath();
+		return path.startsWith(TEXTURE_PREFIX) && path.endsWith(TEXTURE_SUFFIX) && !texture.equals(LOCATION);
+	}
+}
@@ -21,6 +21,8 @@ package com.withertech.mine_gui.client;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.GuiDescription;
 import com.withertech.mine_gui.impl.VisualLogger;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
+import com.withertech.mine_gui.impl.client.GuiProfiler;
 import com.withertech.mine_gui.impl.client.MineGuiScreenImpl;
 import com.withertech.mine_gui.impl.client.MouseInputHandler;
 import com.withertech.mine_gui.impl.client.NarrationHelper;
@@ -68,7 +70,10 @@ public class MineGuiClientScreen extends Screen implements MineGuiScreenImpl
 	{
 		super(title);
 		this.description = description;
+
+		long layoutStart = GuiProfiler.start();
 		description.getRootPanel().validate(description);
+		GuiProfiler.stop(GuiProfiler.Metric.LAYOUT, layoutStart);
 	}
 
 	@Override
@@ -95,6 +100,7 @@ public class MineGuiClientScreen extends Screen implements MineGuiScreenImpl
 		super.removed();
 		this.minecraft.keyboardHandler.setSendRepeatsToGui(false);
 		VisualLogger.reset();
+		GuiProfiler.export(description.getClass());
 	}
 
 	@Nullable
@@ -152,7 +158,11 @@ public class MineGuiClientScreen extends Screen implements MineGuiScreenImpl
 			{
 				GL11.glEnable(GL11.GL_SCISSOR_TEST);
 				Scissors.refreshScissors();
+				long paintStart = GuiProfiler.start();
+				if (GuiProfiler.isEnabled()) GuiProfiler.beginPaint();
 				root.paint(matrices, left, top, mouseX - left, mouseY - top);
+				if (GuiProfiler.isEnabled()) GuiProfiler.endPaint(root);
+				GuiProfiler.stop(GuiProfiler.Metric.PAINT, paintStart);
 				GL11.glDisable(GL11.GL_SCISSOR_TEST);
 				Scissors.checkStackIsEmpty();
 			}
@@ -168,6 +178,8 @@ public class MineGuiClientScreen extends Screen implements MineGuiScreenImpl
 	@Override
 	public void render(PoseStack matrices, int mouseX, int mouseY, float partialTicks)
 	{
+		GuiProfiler.beginFrame();
+		AnimationScheduler.beginFrame();
 		paint(matrices, mouseX, mouseY);
 
 		super.render(matrices, mouseX, mouseY, partialTicks);
@@ -177,11 +189,17 @@ public class MineGuiClientScreen extends Screen implements MineGuiScreenImpl
 			WPanel root = description.getRootPanel();
 			if (root != null)
 			{
+				long hitStart = GuiProfiler.start();
 				WWidget hitChild = root.hit(mouseX - left, mouseY - top);
+				GuiProfiler.stop(GuiProfiler.Metric.HIT_TEST, hitStart);
+
+				long tooltipStart = GuiProfiler.start();
 				if (hitChild != null) hitChild.renderTooltip(matrices, left, top, mouseX - left, mouseY - top);
+				GuiProfiler.stop(GuiProfiler.Metric.TOOLTIP, tooltipStart);
 			}
 		}
 
+		GuiProfiler.endFrame();
 		VisualLogger.render(matrices);
 	}
 
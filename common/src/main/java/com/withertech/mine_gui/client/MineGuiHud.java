@@ -19,53 +19,129 @@
 package com.withertech.mine_gui.client;
 
 import com.mojang.blaze3d.platform.Window;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
+import com.withertech.mine_gui.impl.client.DrawList;
+import com.withertech.mine_gui.impl.client.GuiTextureAtlasImpl;
+import com.withertech.mine_gui.impl.client.QuadBatch;
 import com.withertech.mine_gui.widget.WWidget;
 import dev.architectury.event.events.client.ClientGuiEvent;
 import dev.architectury.event.events.client.ClientTickEvent;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 
 /**
  * Manages widgets that are painted on the in-game HUD.
+ *
+ * <p>HUD widgets are painted in the order of their layers, from the lowest to the highest.
+ * Widgets on the same layer are painted in the order they were added.
+ * Consecutive {@linkplain WWidget#isPaintBatchable() batchable} widgets are painted in a {@link QuadBatch},
+ * where quads that share a texture are submitted in a single draw. This includes panels with only batchable children.
+ * Widgets that are not batchable, such as ones using scissors or cached panels, end the batch and are painted
+ * directly in between, so each of them costs the following widgets a new batch.
+ *
+ * <p>Positioners are only run when the widget is added, when the window is resized or when the widget is resized.
+ *
+ * <p>Batched widgets can be repainted less often than every frame by setting their
+ * {@linkplain #setUpdateRate(WWidget, UpdateRate) update rate}, in which case their previous output is replayed.
  */
 @Environment(EnvType.CLIENT)
 public final class MineGuiHud
 {
-	private static final Set<WWidget> widgets = new HashSet<>();
-	private static final Map<WWidget, Positioner> positioners = new HashMap<>();
+	private static final Map<WWidget, Entry> widgets = new IdentityHashMap<>();
+	private static final List<Entry> layers = new ArrayList<>();
+	private static final Map<WWidget, Positioner> positioners = new IdentityHashMap<>();
+	private static int hudWidth = -1;
+	private static int hudHeight = -1;
+	private static int nextOrder = 0;
 
 	static
 	{
-		ClientGuiEvent.RENDER_HUD.register((matrices, tickDelta) ->
+		ClientGuiEvent.RENDER_HUD.register((matrices, tickDelta) -> render(matrices));
+
+		ClientTickEvent.CLIENT_POST.register(client ->
 		{
-			Window window = Minecraft.getInstance().getWindow();
-			int hudWidth = window.getGuiScaledWidth();
-			int hudHeight = window.getGuiScaledHeight();
-			for (WWidget widget : widgets)
+			for (Entry entry : layers)
 			{
-				Positioner positioner = positioners.get(widget);
-				if (positioner != null)
+				if (entry.ticking)
 				{
-					positioner.reposition(widget, hudWidth, hudHeight);
+					entry.widget.tick();
 				}
 
-				widget.paint(matrices, widget.getX(), widget.getY(), -1, -1);
+				entry.countTick();
 			}
 		});
+	}
 
-		ClientTickEvent.CLIENT_POST.register(client ->
+	private static void render(PoseStack matrices)
+	{
+		Window window = Minecraft.getInstance().getWindow();
+		boolean resized = hudWidth != window.getGuiScaledWidth() || hudHeight != window.getGuiScaledHeight();
+		hudWidth = window.getGuiScaledWidth();
+		hudHeight = window.getGuiScaledHeight();
+		AnimationScheduler.beginHudFrame();
+
+		if (!ScreenDrawing.getBackend().supportsRetainedDrawing())
 		{
-			for (WWidget widget : widgets)
+			for (Entry entry : layers)
 			{
-				widget.tick();
+				entry.reposition(resized);
+				paint(entry.widget, matrices);
 			}
-		});
+
+			return;
+		}
+
+		PoseStack recordingMatrices = new PoseStack();
+		boolean batching = false;
+
+		try
+		{
+			for (Entry entry : layers)
+			{
+				entry.reposition(resized);
+				boolean batched = entry.isBatched();
+
+				if (batched && entry.updateRate == UpdateRate.EVERY_FRAME)
+				{
+					if (!batching) batching = QuadBatch.begin();
+					paint(entry.widget, matrices);
+					continue;
+				}
+
+				if (batching)
+				{
+					batching = false;
+					QuadBatch.end();
+				}
+
+				if (batched)
+				{
+					entry.paintCached(matrices, recordingMatrices);
+				} else
+				{
+					paint(entry.widget, matrices);
+				}
+			}
+		} finally
+		{
+			// Don't leave ScreenDrawing redirected if a widget fails to paint
+			if (batching) QuadBatch.end();
+		}
+	}
+
+	private static void paint(WWidget widget, PoseStack matrices)
+	{
+		widget.paint(matrices, widget.getX(), widget.getY(), -1, -1);
 	}
 
 	/**
@@ -75,7 +151,36 @@ public final class MineGuiHud
 	 */
 	public static void add(WWidget widget)
 	{
-		widgets.add(widget);
+		Entry entry = widgets.get(widget);
+		add(widget, entry != null ? entry.layer : 0);
+	}
+
+	/**
+	 * Adds a new widget to the HUD on a layer.
+	 *
+	 * <p>If the widget has already been added, it is moved to the layer.
+	 *
+	 * @param widget the widget
+	 * @param layer  the layer, higher layers are painted on top of lower layers
+	 */
+	public static void add(WWidget widget, int layer)
+	{
+		Entry entry = widgets.get(widget);
+
+		if (entry == null)
+		{
+			entry = new Entry(widget, nextOrder++);
+			widgets.put(widget, entry);
+		} else
+		{
+			layers.remove(entry);
+		}
+
+		entry.layer = layer;
+		int index = 0;
+		while (index < layers.size() && layers.get(index).compareTo(entry) < 0) index++;
+		layers.add(index, entry);
+		entry.invalidatePosition();
 	}
 
 	/**
@@ -115,7 +220,7 @@ public final class MineGuiHud
 	 */
 	public static void add(WWidget widget, Positioner positioner)
 	{
-		widgets.add(widget);
+		add(widget);
 		setPositioner(widget, positioner);
 	}
 
@@ -129,7 +234,7 @@ public final class MineGuiHud
 	 */
 	public static void add(WWidget widget, Positioner positioner, int width, int height)
 	{
-		widgets.add(widget);
+		add(widget);
 		widget.setSize(width, height);
 		setPositioner(widget, positioner);
 	}
@@ -143,6 +248,119 @@ public final class MineGuiHud
 	public static void setPositioner(WWidget widget, Positioner positioner)
 	{
 		positioners.put(widget, positioner);
+		Entry entry = widgets.get(widget);
+		if (entry != null) entry.invalidatePosition();
+	}
+
+	/**
+	 * Sets the layer of a widget on the HUD.
+	 *
+	 * @param widget the widget
+	 * @param layer  the layer, higher layers are painted on top of lower layers
+	 * @throws IllegalArgumentException if the widget has not been added to the HUD
+	 */
+	public static void setLayer(WWidget widget, int layer)
+	{
+		getEntry(widget);
+		add(widget, layer);
+	}
+
+	/**
+	 * Sets whether a widget on the HUD is ticked every client tick. Widgets are ticked by default.
+	 *
+	 * @param widget  the widget
+	 * @param ticking true if the widget should be ticked, false otherwise
+	 * @throws IllegalArgumentException if the widget has not been added to the HUD
+	 */
+	public static void setTicking(WWidget widget, boolean ticking)
+	{
+		getEntry(widget).ticking = ticking;
+	}
+
+	/**
+	 * Sets whether a widget on the HUD is painted in a batch.
+	 * By default, a widget is batched if it is {@linkplain WWidget#isPaintBatchable() batchable}.
+	 *
+	 * <p>Widgets that draw directly instead of using {@link ScreenDrawing}, such as ones using scissors,
+	 * must not be batched, as their direct draws would end up below the batched ones.
+	 *
+	 * <p>Only batched widgets can have an {@linkplain #setUpdateRate(WWidget, UpdateRate) update rate}
+	 * other than {@link UpdateRate#EVERY_FRAME}.
+	 *
+	 * @param widget  the widget
+	 * @param batched true if the widget should be batched, false otherwise
+	 * @throws IllegalArgumentException if the widget has not been added to the HUD,
+	 *                                  or if {@code batched} is false and the widget has a slower update rate
+	 */
+	public static void setBatched(WWidget widget, boolean batched)
+	{
+		Entry entry = getEntry(widget);
+
+		if (!batched && entry.updateRate != UpdateRate.EVERY_FRAME)
+		{
+			throw new IllegalArgumentException("Widget " + widget + " has the update rate " + entry.updateRate + ", which needs batching");
+		}
+
+		entry.batched = batched;
+	}
+
+	/**
+	 * Sets how often a widget on the HUD is repainted. Widgets are repainted every frame by default.
+	 *
+	 * <p>Between repaints, the previously painted output of the widget is replayed.
+	 * Replaying needs the output to be recorded, so update rates other than {@link UpdateRate#EVERY_FRAME}
+	 * can only be used for {@linkplain #setBatched(WWidget, boolean) batched} widgets. Bars, dynamic labels
+	 * and panels with only batchable children are batched by default.
+	 *
+	 * <p>{@link UpdateRate#ON_CHANGE} can only be used for {@linkplain WWidget#isPaintStatic() static} widgets,
+	 * which invalidate their paint whenever their output changes. Dynamic widgets, such as bars, dynamic labels
+	 * and items, read their painted data on each paint without invalidating it, so they would never be repainted.
+	 * Use a tick-based update rate for them instead.
+	 *
+	 * @param widget     the widget
+	 * @param updateRate the update rate
+	 * @throws IllegalArgumentException if the widget has not been added to the HUD,
+	 *                                  if the update rate is not {@link UpdateRate#EVERY_FRAME} and the widget is not batched,
+	 *                                  or if the update rate is {@link UpdateRate#ON_CHANGE} and the widget is not static
+	 */
+	public static void setUpdateRate(WWidget widget, UpdateRate updateRate)
+	{
+		Objects.requireNonNull(updateRate, "updateRate");
+		Entry entry = getEntry(widget);
+
+		if (updateRate != UpdateRate.EVERY_FRAME && !entry.isBatched())
+		{
+			throw new IllegalArgumentException("Widget " + widget + " is not batched and can only be repainted every frame");
+		}
+
+		if (updateRate == UpdateRate.ON_CHANGE && !widget.isPaintStatic())
+		{
+			throw new IllegalArgumentException("Widget " + widget + " is not static and can't be repainted only on change");
+		}
+
+		if (updateRate != UpdateRate.EVERY_FRAME)
+		{
+			// Pin the batching so that the rate isn't dropped if the widget stops being batchable
+			entry.batched = true;
+		}
+
+		entry.setUpdateRate(updateRate);
+	}
+
+	/**
+	 * Marks a widget on the HUD as changed, causing it to be repainted on the next frame
+	 * regardless of its {@linkplain #setUpdateRate(WWidget, UpdateRate) update rate}.
+	 *
+	 * <p>This is useful for showing a change of a widget with a tick-based update rate right away,
+	 * or for repainting an {@link UpdateRate#ON_CHANGE} widget after changing something outside the widget
+	 * that affects its painting, such as a translation.
+	 *
+	 * @param widget the widget
+	 * @throws IllegalArgumentException if the widget has not been added to the HUD
+	 */
+	public static void markChanged(WWidget widget)
+	{
+		getEntry(widget).dirty = true;
 	}
 
 	/**
@@ -152,7 +370,203 @@ public final class MineGuiHud
 	 */
 	public static void remove(WWidget widget)
 	{
-		widgets.remove(widget);
+		Entry entry = widgets.remove(widget);
+
+		if (entry != null)
+		{
+			layers.remove(entry);
+			entry.releaseOutput();
+		}
+	}
+
+	private static Entry getEntry(WWidget widget)
+	{
+		Entry entry = widgets.get(widget);
+		if (entry == null) throw new IllegalArgumentException("Widget " + widget + " has not been added to the HUD");
+		return entry;
+	}
+
+	private static final class Entry implements Comparable<Entry>
+	{
+		private final WWidget widget;
+		private final int order;
+		private int layer = 0;
+		private boolean ticking = true;
+		@Nullable
+		private Boolean batched = null;
+		private boolean positioned = false;
+		private int lastWidth;
+		private int lastHeight;
+		private UpdateRate updateRate = UpdateRate.EVERY_FRAME;
+		@Nullable
+		private DrawList output = null;
+		private boolean dirty = true;
+		private int ticksUntilUpdate = 0;
+		private int paintedGeneration;
+		private int paintedX;
+		private int paintedY;
+		private boolean paintedDarkMode;
+		private int paintedAtlasGeneration;
+
+		Entry(WWidget widget, int order)
+		{
+			this.widget = widget;
+			this.order = order;
+		}
+
+		boolean isBatched()
+		{
+			return batched != null ? batched : widget.isPaintBatchable();
+		}
+
+		void invalidatePosition()
+		{
+			positioned = false;
+		}
+
+		void reposition(boolean hudResized)
+		{
+			if (positioned && !hudResized && lastWidth == widget.getWidth() && lastHeight == widget.getHeight()) return;
+
+			Positioner positioner = positioners.get(widget);
+			if (positioner != null)
+			{
+				positioner.reposition(widget, hudWidth, hudHeight);
+			}
+
+			positioned = true;
+			lastWidth = widget.getWidth();
+			lastHeight = widget.getHeight();
+		}
+
+		void setUpdateRate(UpdateRate updateRate)
+		{
+			this.updateRate = updateRate;
+			dirty = true;
+			ticksUntilUpdate = updateRate.ticks;
+			if (updateRate == UpdateRate.EVERY_FRAME) releaseOutput();
+		}
+
+		void countTick()
+		{
+			if (updateRate.ticks > 0 && --ticksUntilUpdate <= 0)
+			{
+				dirty = true;
+				ticksUntilUpdate = updateRate.ticks;
+			}
+		}
+
+		void paintCached(PoseStack matrices, PoseStack recordingMatrices)
+		{
+			if (output == null) output = new DrawList();
+
+			boolean moved = paintedX != widget.getX() || paintedY != widget.getY();
+			boolean changed = updateRate == UpdateRate.ON_CHANGE && paintedGeneration != widget.getPaintGeneration();
+
+			if (dirty || moved || changed || paintedDarkMode != MineGui.isDarkMode()
+					|| paintedAtlasGeneration != GuiTextureAtlasImpl.getGeneration() || !output.isRecorded())
+			{
+				output.begin();
+
+				try
+				{
+					paint(widget, recordingMatrices);
+				} finally
+				{
+					output.end();
+				}
+
+				dirty = false;
+				paintedGeneration = widget.getPaintGeneration();
+				paintedX = widget.getX();
+				paintedY = widget.getY();
+				paintedDarkMode = MineGui.isDarkMode();
+				paintedAtlasGeneration = GuiTextureAtlasImpl.getGeneration();
+			}
+
+			output.replay(matrices, 0, 0);
+		}
+
+		void releaseOutput()
+		{
+			if (output != null)
+			{
+				output.clear();
+				output = null;
+			}
+		}
+
+		@Override
+		public int compareTo(Entry o)
+		{
+			int result = Integer.compare(layer, o.layer);
+			return result != 0 ? result : Integer.compare(order, o.order);
+		}
+	}
+
+	/**
+	 * Update rates control how often a HUD widget is repainted.
+	 *
+	 * @see #setUpdateRate(WWidget, UpdateRate)
+	 */
+	public static final class UpdateRate
+	{
+		/**
+		 * Repaints the widget every frame.
+		 */
+		public static final UpdateRate EVERY_FRAME = new UpdateRate(0);
+		/**
+		 * Repaints the widget once per client tick.
+		 */
+		public static final UpdateRate EVERY_TICK = new UpdateRate(1);
+		/**
+		 * Repaints the widget only when it {@linkplain WWidget#invalidatePaint() invalidates its paint},
+		 * moves or is {@linkplain #markChanged(WWidget) marked as changed}.
+		 * Only {@linkplain WWidget#isPaintStatic() static} widgets can use this update rate.
+		 */
+		public static final UpdateRate ON_CHANGE = new UpdateRate(-1);
+
+		private final int ticks;
+
+		private UpdateRate(int ticks)
+		{
+			this.ticks = ticks;
+		}
+
+		/**
+		 * Creates an update rate that repaints the widget every {@code ticks} client ticks.
+		 *
+		 * @param ticks the number of ticks between repaints
+		 * @return the update rate
+		 * @throws IllegalArgumentException if {@code ticks} is not positive
+		 */
+		public static UpdateRate everyTicks(int ticks)
+		{
+			if (ticks <= 0) throw new IllegalArgumentException("Tick interval must be positive, got " + ticks);
+			return ticks == 1 ? EVERY_TICK : new UpdateRate(ticks);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (!(o instanceof UpdateRate that)) return false;
+			return ticks == that.ticks;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Integer.hashCode(ticks);
+		}
+
+		@Override
+		public String toString()
+		{
+			if (this == EVERY_FRAME) return "UpdateRate.EVERY_FRAME";
+			if (this == ON_CHANGE) return "UpdateRate.ON_CHANGE";
+			return "UpdateRate.everyTicks(" + ticks + ")";
+		}
 	}
 
 	/**
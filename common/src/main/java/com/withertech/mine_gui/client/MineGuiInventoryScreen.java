@@ -23,6 +23,8 @@ import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.GuiDescription;
 import com.withertech.mine_gui.SyncedGuiDescription;
 import com.withertech.mine_gui.impl.VisualLogger;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
+import com.withertech.mine_gui.impl.client.GuiProfiler;
 import com.withertech.mine_gui.impl.client.MineGuiScreenImpl;
 import com.withertech.mine_gui.impl.client.MouseInputHandler;
 import com.withertech.mine_gui.impl.client.NarrationHelper;
@@ -82,7 +84,10 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 		height = 18 * 9;
 		this.imageWidth = 18 * 9;
 		this.imageHeight = 18 * 9;
+
+		long layoutStart = GuiProfiler.start();
 		description.getRootPanel().validate(description);
+		GuiProfiler.stop(GuiProfiler.Metric.LAYOUT, layoutStart);
 	}
 
 	/**
@@ -137,6 +142,7 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 		super.removed();
 		this.minecraft.keyboardHandler.setSendRepeatsToGui(false);
 		VisualLogger.reset();
+		GuiProfiler.export(description.getClass());
 	}
 
 	@ApiStatus.Internal
@@ -179,7 +185,10 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 		if (basePanel != null)
 		{
 			clearPeers();
+
+			long layoutStart = GuiProfiler.start();
 			basePanel.validate(description);
+			GuiProfiler.stop(GuiProfiler.Metric.LAYOUT, layoutStart);
 
 			imageWidth = basePanel.getWidth();
 			imageHeight = basePanel.getHeight();
@@ -322,7 +331,11 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 			{
 				GL11.glEnable(GL11.GL_SCISSOR_TEST);
 				Scissors.refreshScissors();
+				long paintStart = GuiProfiler.start();
+				if (GuiProfiler.isEnabled()) GuiProfiler.beginPaint();
 				root.paint(matrices, leftPos, topPos, mouseX - leftPos, mouseY - topPos);
+				if (GuiProfiler.isEnabled()) GuiProfiler.endPaint(root);
+				GuiProfiler.stop(GuiProfiler.Metric.PAINT, paintStart);
 				GL11.glDisable(GL11.GL_SCISSOR_TEST);
 				Scissors.checkStackIsEmpty();
 			}
@@ -332,6 +345,8 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 	@Override
 	public void render(PoseStack matrices, int mouseX, int mouseY, float partialTicks)
 	{
+		GuiProfiler.beginFrame();
+		AnimationScheduler.beginFrame();
 		paint(matrices, mouseX, mouseY);
 
 		super.render(matrices, mouseX, mouseY, partialTicks);
@@ -342,13 +357,22 @@ public class MineGuiInventoryScreen<T extends SyncedGuiDescription> extends Abst
 			WPanel root = description.getRootPanel();
 			if (root != null)
 			{
+				long hitStart = GuiProfiler.start();
 				WWidget hitChild = root.hit(mouseX - leftPos, mouseY - topPos);
+				GuiProfiler.stop(GuiProfiler.Metric.HIT_TEST, hitStart);
+
+				long tooltipStart = GuiProfiler.start();
 				if (hitChild != null)
 					hitChild.renderTooltip(matrices, leftPos, topPos, mouseX - leftPos, mouseY - topPos);
+				GuiProfiler.stop(GuiProfiler.Metric.TOOLTIP, tooltipStart);
 			}
 		}
 
+		long tooltipStart = GuiProfiler.start();
 		renderTooltip(matrices, mouseX, mouseY); //Draws the itemstack tooltips
+		GuiProfiler.stop(GuiProfiler.Metric.TOOLTIP, tooltipStart);
+
+		GuiProfiler.endFrame();
 		VisualLogger.render(matrices);
 	}
 
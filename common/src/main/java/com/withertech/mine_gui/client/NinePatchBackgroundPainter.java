@@ -19,6 +19,7 @@
 package com.withertech.mine_gui.client;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.impl.client.BakedNinePatchCache;
 import com.withertech.mine_gui.impl.client.NinePatchTextureRendererImpl;
 import com.withertech.mine_gui.ninepatch.NinePatch;
 import com.withertech.mine_gui.widget.WWidget;
@@ -56,6 +57,7 @@ public final class NinePatchBackgroundPainter implements BackgroundPainter
 	private int leftPadding = 0;
 	private int bottomPadding = 0;
 	private int rightPadding = 0;
+	private boolean baked = false;
 
 	public NinePatchBackgroundPainter(NinePatch<ResourceLocation> ninePatch)
 	{
@@ -129,12 +131,51 @@ public final class NinePatchBackgroundPainter implements BackgroundPainter
 		return this;
 	}
 
+	/**
+	 * Returns whether this painter draws baked nine-patch textures.
+	 *
+	 * @return true if baked, false otherwise
+	 */
+	public boolean isBaked()
+	{
+		return baked;
+	}
+
+	/**
+	 * Sets whether this painter draws baked nine-patch textures.
+	 *
+	 * <p>A baked painter renders the nine-patch once per panel size into a single texture
+	 * in the background, and draws that texture as one quad afterwards.
+	 * Until the texture is ready, the nine-patch is drawn normally.
+	 * Baking is only worthwhile for panels whose size rarely changes, as every size is baked separately.
+	 *
+	 * @param baked true to bake the nine-patch, false otherwise
+	 * @return this painter
+	 */
+	public NinePatchBackgroundPainter setBaked(boolean baked)
+	{
+		this.baked = baked;
+		return this;
+	}
+
 	@Override
 	public void paintBackground(PoseStack matrices, int left, int top, WWidget panel)
 	{
+		int x = left - leftPadding;
+		int y = top - topPadding;
+		int width = panel.getWidth() + leftPadding + rightPadding;
+		int height = panel.getHeight() + topPadding + bottomPadding;
+
+		// Backends without retained drawing, such as draw lists, get the individual patches instead,
+		// as baked textures may be evicted
+		if (baked && ScreenDrawing.getBackend().supportsRetainedDrawing() && BakedNinePatchCache.draw(ninePatch, matrices, x, y, width, height))
+		{
+			return;
+		}
+
 		matrices.pushPose();
-		matrices.translate(left - leftPadding, top - topPadding, 0);
-		ninePatch.draw(NinePatchTextureRendererImpl.INSTANCE, matrices, panel.getWidth() + leftPadding + rightPadding, panel.getHeight() + topPadding + bottomPadding);
+		matrices.translate(x, y, 0);
+		ninePatch.draw(NinePatchTextureRendererImpl.INSTANCE, matrices, width, height);
 		matrices.popPose();
 	}
 
@@ -143,13 +184,13 @@ public final class NinePatchBackgroundPainter implements BackgroundPainter
 	{
 		if (this == o) return true;
 		if (!(o instanceof NinePatchBackgroundPainter that)) return false;
-		return getTopPadding() == that.getTopPadding() && getLeftPadding() == that.getLeftPadding() && getBottomPadding() == that.getBottomPadding() && getRightPadding() == that.getRightPadding() && Objects.equals(ninePatch, that.ninePatch);
+		return getTopPadding() == that.getTopPadding() && getLeftPadding() == that.getLeftPadding() && getBottomPadding() == that.getBottomPadding() && getRightPadding() == that.getRightPadding() && isBaked() == that.isBaked() && Objects.equals(ninePatch, that.ninePatch);
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(ninePatch, getTopPadding(), getLeftPadding(), getBottomPadding(), getRightPadding());
+		return Objects.hash(ninePatch, getTopPadding(), getLeftPadding(), getBottomPadding(), getRightPadding(), isBaked());
 	}
 
 	@Override
@@ -161,6 +202,7 @@ public final class NinePatchBackgroundPainter implements BackgroundPainter
 				", leftPadding=" + leftPadding +
 				", bottomPadding=" + bottomPadding +
 				", rightPadding=" + rightPadding +
+				", baked=" + baked +
 				'}';
 	}
 }
@@ -0,0 +1,273 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.client;
+
+import com.mojang.math.Matrix4f;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link DrawBackend} that records every draw into an inspectable list of commands instead of drawing.
+ *
+ * <p>The recording backend doesn't need a GL context, so it can be used to test painting code
+ * and to count draw calls on headless machines:
+ * <pre>{@code
+ * RecordingDrawBackend recording = new RecordingDrawBackend();
+ * recording.record(() -> panel.paint(matrices, 0, 0, -1, -1));
+ * assert recording.getDrawCallCount() <= 12;
+ * }</pre>
+ *
+ * <p>Retained drawing is not supported, so all widgets draw through this backend while it is active.
+ * A {@link TextureBind} command is recorded before every textured quad whose texture differs
+ * from the previous textured quad, which makes the number of binds a measure of how well draws can be batched.
+ */
+@Environment(EnvType.CLIENT)
+public final class RecordingDrawBackend implements DrawBackend
+{
+	private final List<Command> commands = new ArrayList<>();
+	private final List<Command> commandsView = Collections.unmodifiableList(commands);
+	@Nullable
+	private ResourceLocation boundTexture = null;
+	private int quads = 0;
+	private int textureBinds = 0;
+	private int texts = 0;
+	private int scissorChanges = 0;
+
+	/**
+	 * Installs this backend as the {@linkplain ScreenDrawing#setBackend(DrawBackend) active backend}
+	 * while running a painter, restoring the previous backend afterwards.
+	 *
+	 * @param painter the painting code to record
+	 */
+	public void record(Runnable painter)
+	{
+		DrawBackend previous = ScreenDrawing.setBackend(this);
+
+		try
+		{
+			painter.run();
+		} finally
+		{
+			ScreenDrawing.setBackend(previous);
+		}
+	}
+
+	/**
+	 * {@return an unmodifiable view of the recorded commands, in the order they were issued}
+	 */
+	public List<Command> getCommands()
+	{
+		return commandsView;
+	}
+
+	/**
+	 * {@return the number of recorded quads}
+	 */
+	public int getQuadCount()
+	{
+		return quads;
+	}
+
+	/**
+	 * {@return the number of recorded texture binds}
+	 */
+	public int getTextureBindCount()
+	{
+		return textureBinds;
+	}
+
+	/**
+	 * {@return the number of recorded text draws}
+	 */
+	public int getTextCount()
+	{
+		return texts;
+	}
+
+	/**
+	 * {@return the number of recorded scissor changes}
+	 */
+	public int getScissorChangeCount()
+	{
+		return scissorChanges;
+	}
+
+	/**
+	 * Gets the number of draw calls that the recorded commands take when drawn immediately,
+	 * which is one per quad and one per text draw.
+	 *
+	 * @return the number of draw calls
+	 */
+	public int getDrawCallCount()
+	{
+		return quads + texts;
+	}
+
+	/**
+	 * Discards all recorded commands and resets the counters.
+	 */
+	public void clear()
+	{
+		commands.clear();
+		boundTexture = null;
+		quads = 0;
+		textureBinds = 0;
+		texts = 0;
+		scissorChanges = 0;
+	}
+
+	@Override
+	public void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color)
+	{
+		if (texture != null && !texture.equals(boundTexture))
+		{
+			boundTexture = texture;
+			textureBinds++;
+			commands.add(new TextureBind(texture));
+		}
+
+		quads++;
+		commands.add(new Quad(pose.copy(), x1, y1, x2, y2, texture, u1, v1, u2, v2, color));
+	}
+
+	@Override
+	public void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow)
+	{
+		texts++;
+		commands.add(new Text(pose.copy(), text, x, y, color, shadow));
+	}
+
+	@Override
+	public void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow)
+	{
+		StringBuilder builder = new StringBuilder();
+		text.accept((index, style, codePoint) ->
+		{
+			builder.appendCodePoint(codePoint);
+			return true;
+		});
+		text(pose, builder.toString(), x, y, color, shadow);
+	}
+
+	@Override
+	public void scissor(int x, int y, int width, int height)
+	{
+		scissorChanges++;
+		commands.add(new Scissor(x, y, width, height));
+	}
+
+	@Override
+	public void clearScissor()
+	{
+		scissorChanges++;
+		commands.add(new ClearScissor());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RecordingDrawBackend{" +
+				"commands=" + commands.size() +
+				", quads=" + quads +
+				", textureBinds=" + textureBinds +
+				", texts=" + texts +
+				", scissorChanges=" + scissorChanges +
+				'}';
+	}
+
+	/**
+	 * A recorded draw command.
+	 */
+	public sealed interface Command permits Quad, TextureBind, Text, Scissor, ClearScissor
+	{
+	}
+
+	/**
+	 * A recorded quad.
+	 *
+	 * @param pose    the pose matrix of the quad
+	 * @param x1      the left edge of the quad
+	 * @param y1      the top edge of the quad
+	 * @param x2      the right edge of the quad
+	 * @param y2      the bottom edge of the quad
+	 * @param texture the texture of the quad, or null for an untextured quad
+	 * @param u1      the left edge of the texture
+	 * @param v1      the top edge of the texture
+	 * @param u2      the right edge of the texture
+	 * @param v2      the bottom edge of the texture
+	 * @param color   the ARGB color of the quad
+	 */
+	public record Quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color) implements Command
+	{
+	}
+
+	/**
+	 * A recorded change of the bound texture.
+	 *
+	 * @param texture the newly bound texture
+	 */
+	public record TextureBind(ResourceLocation texture) implements Command
+	{
+		public TextureBind
+		{
+			Objects.requireNonNull(texture, "texture");
+		}
+	}
+
+	/**
+	 * A recorded text draw.
+	 *
+	 * @param pose   the pose matrix of the text
+	 * @param text   the drawn string
+	 * @param x      the X position
+	 * @param y      the Y position
+	 * @param color  the text color
+	 * @param shadow whether the text has a shadow
+	 */
+	public record Text(Matrix4f pose, String text, float x, float y, int color, boolean shadow) implements Command
+	{
+	}
+
+	/**
+	 * A recorded scissor rectangle, in GUI pixels.
+	 *
+	 * @param x      the X coordinate of the rectangle
+	 * @param y      the Y coordinate of the rectangle
+	 * @param width  the width of the rectangle
+	 * @param height the height of the rectangle
+	 */
+	public record Scissor(int x, int y, int width, int height) implements Command
+	{
+	}
+
+	/**
+	 * A recorded removal of the scissor rectangle.
+	 */
+	public record ClearScissor() implements Command
+	{
+	}
+}
@@ -18,10 +18,9 @@
 
 package com.withertech.mine_gui.client;
 
+import com.withertech.mine_gui.impl.client.GuiProfiler;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.client.Minecraft;
-import org.lwjgl.opengl.GL11;
 
 import java.util.ArrayDeque;
 import java.util.Objects;
@@ -30,6 +29,8 @@ import java.util.stream.Collectors;
 /**
  * Contains a stack for GL scissors for restricting the drawn area of a widget.
  *
+ * <p>The scissored area is applied through the active {@link DrawBackend}.
+ *
  * @since 2.0.0
  */
 @Environment(EnvType.CLIENT)
@@ -54,6 +55,7 @@ public final class Scissors
 	{
 		Frame frame = new Frame(x, y, width, height);
 		STACK.push(frame);
+		GuiProfiler.count(GuiProfiler.Metric.SCISSOR_PUSHES, 1);
 		refreshScissors();
 
 		return frame;
@@ -77,12 +79,9 @@ public final class Scissors
 
 	static void refreshScissors()
 	{
-		Minecraft mc = Minecraft.getInstance();
-
 		if (STACK.isEmpty())
 		{
-			// Just use the full window framebuffer as a scissor
-			GL11.glScissor(0, 0, mc.getWindow().getWidth(), mc.getWindow().getHeight());
+			ScreenDrawing.getBackend().clearScissor();
 			return;
 		}
 
@@ -111,13 +110,7 @@ public final class Scissors
 			}
 		}
 
-		int windowHeight = mc.getWindow().getHeight();
-		double scale = mc.getWindow().getGuiScale();
-		int scaledWidth = (int) (width * scale);
-		int scaledHeight = (int) (height * scale);
-
-		// Expression for Y coordinate adapted from vini2003's Spinnery (code snippet released under WTFPL)
-		GL11.glScissor((int) (x * scale), (int) (windowHeight - (y * scale) - scaledHeight), scaledWidth, scaledHeight);
+		ScreenDrawing.getBackend().scissor(x, y, width, height);
 	}
 
 	/**
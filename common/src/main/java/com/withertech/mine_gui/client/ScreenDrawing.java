@@ -18,28 +18,58 @@
 
 package com.withertech.mine_gui.client;
 
-import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.*;
-import com.mojang.math.Matrix4f;
 import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.impl.client.GlDrawBackend;
+import com.withertech.mine_gui.impl.client.GuiTextureAtlasImpl;
 import com.withertech.mine_gui.impl.client.MineGuiScreenImpl;
 import com.withertech.mine_gui.widget.data.HorizontalAlignment;
 import com.withertech.mine_gui.widget.data.Texture;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.gui.GuiComponent;
-import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.network.chat.Style;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.FormattedCharSequence;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
+
 /**
  * {@code ScreenDrawing} contains utility methods for drawing contents on a screen.
+ *
+ * <p>All drawing goes through the active {@link DrawBackend}, which draws with OpenGL by default.
  */
 public class ScreenDrawing
 {
+	private static DrawBackend backend = GlDrawBackend.INSTANCE;
+
 	private ScreenDrawing() {}
 
+	/**
+	 * Gets the active draw backend that receives all draws from {@code ScreenDrawing}.
+	 *
+	 * @return the active draw backend
+	 */
+	public static DrawBackend getBackend()
+	{
+		return backend;
+	}
+
+	/**
+	 * Sets the active draw backend that receives all draws from {@code ScreenDrawing}.
+	 *
+	 * <p>Callers should restore the previous backend when they are done, typically in a {@code finally} block.
+	 *
+	 * @param backend the new draw backend
+	 * @return the previously active draw backend
+	 */
+	public static DrawBackend setBackend(DrawBackend backend)
+	{
+		DrawBackend previous = ScreenDrawing.backend;
+		ScreenDrawing.backend = Objects.requireNonNull(backend, "backend");
+		return previous;
+	}
+
 	/**
 	 * Draws a textured rectangle.
 	 *
@@ -132,6 +162,8 @@ public class ScreenDrawing
 	/**
 	 * Draws a textured rectangle.
 	 *
+	 * <p>If the texture is stitched into the {@link GuiTextureAtlas}, it is drawn from the atlas.
+	 *
 	 * @param matrices the rendering matrix stack
 	 * @param x        the x coordinate of the box on-screen
 	 * @param y        the y coordinate of the box on-screen
@@ -151,24 +183,25 @@ public class ScreenDrawing
 		if (width <= 0) width = 1;
 		if (height <= 0) height = 1;
 
-		float r = (color >> 16 & 255) / 255.0F;
-		float g = (color >> 8 & 255) / 255.0F;
-		float b = (color & 255) / 255.0F;
-		Tesselator tessellator = Tesselator.getInstance();
-		BufferBuilder buffer = tessellator.getBuilder();
-		Matrix4f model = matrices.last().pose();
-		RenderSystem.enableBlend();
-		RenderSystem.setShaderTexture(0, texture);
-		RenderSystem.setShaderColor(r, g, b, opacity);
-		RenderSystem.setShader(GameRenderer::getPositionTexShader);
-		buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
-		buffer.vertex(model, x, y + height, 0).uv(u1, v2).endVertex();
-		buffer.vertex(model, x + width, y + height, 0).uv(u2, v2).endVertex();
-		buffer.vertex(model, x + width, y, 0).uv(u2, v1).endVertex();
-		buffer.vertex(model, x, y, 0).uv(u1, v1).endVertex();
-		buffer.end();
-		BufferUploader.end(buffer);
-		RenderSystem.disableBlend();
+		TextureAtlasSprite sprite = GuiTextureAtlasImpl.getSprite(texture);
+		if (sprite != null && isNormalized(u1) && isNormalized(v1) && isNormalized(u2) && isNormalized(v2))
+		{
+			// Remap the UVs into the GUI atlas
+			float spriteWidth = sprite.getU1() - sprite.getU0();
+			float spriteHeight = sprite.getV1() - sprite.getV0();
+			texture = GuiTextureAtlas.LOCATION;
+			u1 = sprite.getU0() + u1 * spriteWidth;
+			v1 = sprite.getV0() + v1 * spriteHeight;
+			u2 = sprite.getU0() + u2 * spriteWidth;
+			v2 = sprite.getV0() + v2 * spriteHeight;
+		}
+
+		backend.quad(matrices.last().pose(), x, y, x + width, y + height, texture, u1, v1, u2, v2, colorAtOpacity(color, opacity));
+	}
+
+	private static boolean isNormalized(float uv)
+	{
+		return uv >= 0 && uv <= 1;
 	}
 
 	/**
@@ -218,7 +251,7 @@ public class ScreenDrawing
 		if (width <= 0) width = 1;
 		if (height <= 0) height = 1;
 
-		GuiComponent.fill(matrices, left, top, left + width, top + height, color);
+		backend.quad(matrices.last().pose(), left, top, left + width, top + height, null, 0, 0, 0, 0, color);
 	}
 
 	/**
@@ -382,19 +415,19 @@ public class ScreenDrawing
 		switch (align)
 		{
 			case LEFT -> {
-				Minecraft.getInstance().font.draw(matrices, s, x, y, color);
+				drawText(matrices, s, x, y, color, false);
 			}
 
 			case CENTER -> {
 				int wid = Minecraft.getInstance().font.width(s);
 				int l = (width / 2) - (wid / 2);
-				Minecraft.getInstance().font.draw(matrices, s, x + l, y, color);
+				drawText(matrices, s, x + l, y, color, false);
 			}
 
 			case RIGHT -> {
 				int wid = Minecraft.getInstance().font.width(s);
 				int l = width - wid;
-				Minecraft.getInstance().font.draw(matrices, s, x + l, y, color);
+				drawText(matrices, s, x + l, y, color, false);
 			}
 		}
 	}
@@ -416,19 +449,19 @@ public class ScreenDrawing
 		switch (align)
 		{
 			case LEFT -> {
-				Minecraft.getInstance().font.draw(matrices, text, x, y, color);
+				drawText(matrices, text, x, y, color, false);
 			}
 
 			case CENTER -> {
 				int wid = Minecraft.getInstance().font.width(text);
 				int l = (width / 2) - (wid / 2);
-				Minecraft.getInstance().font.draw(matrices, text, x + l, y, color);
+				drawText(matrices, text, x + l, y, color, false);
 			}
 
 			case RIGHT -> {
 				int wid = Minecraft.getInstance().font.width(text);
 				int l = width - wid;
-				Minecraft.getInstance().font.draw(matrices, text, x + l, y, color);
+				drawText(matrices, text, x + l, y, color, false);
 			}
 		}
 	}
@@ -449,19 +482,19 @@ public class ScreenDrawing
 		switch (align)
 		{
 			case LEFT -> {
-				Minecraft.getInstance().font.drawShadow(matrices, s, x, y, color);
+				drawText(matrices, s, x, y, color, true);
 			}
 
 			case CENTER -> {
 				int wid = Minecraft.getInstance().font.width(s);
 				int l = (width / 2) - (wid / 2);
-				Minecraft.getInstance().font.drawShadow(matrices, s, x + l, y, color);
+				drawText(matrices, s, x + l, y, color, true);
 			}
 
 			case RIGHT -> {
 				int wid = Minecraft.getInstance().font.width(s);
 				int l = width - wid;
-				Minecraft.getInstance().font.drawShadow(matrices, s, x + l, y, color);
+				drawText(matrices, s, x + l, y, color, true);
 			}
 		}
 	}
@@ -482,19 +515,19 @@ public class ScreenDrawing
 		switch (align)
 		{
 			case LEFT -> {
-				Minecraft.getInstance().font.drawShadow(matrices, text, x, y, color);
+				drawText(matrices, text, x, y, color, true);
 			}
 
 			case CENTER -> {
 				int wid = Minecraft.getInstance().font.width(text);
 				int l = (width / 2) - (wid / 2);
-				Minecraft.getInstance().font.drawShadow(matrices, text, x + l, y, color);
+				drawText(matrices, text, x + l, y, color, true);
 			}
 
 			case RIGHT -> {
 				int wid = Minecraft.getInstance().font.width(text);
 				int l = width - wid;
-				Minecraft.getInstance().font.drawShadow(matrices, text, x + l, y, color);
+				drawText(matrices, text, x + l, y, color, true);
 			}
 		}
 	}
@@ -510,7 +543,7 @@ public class ScreenDrawing
 	 */
 	public static void drawString(PoseStack matrices, String s, int x, int y, int color)
 	{
-		Minecraft.getInstance().font.draw(matrices, s, x, y, color);
+		drawText(matrices, s, x, y, color, false);
 	}
 
 	/**
@@ -524,7 +557,7 @@ public class ScreenDrawing
 	 */
 	public static void drawString(PoseStack matrices, FormattedCharSequence text, int x, int y, int color)
 	{
-		Minecraft.getInstance().font.draw(matrices, text, x, y, color);
+		drawText(matrices, text, x, y, color, false);
 	}
 
 	/**
@@ -547,6 +580,16 @@ public class ScreenDrawing
 		}
 	}
 
+	private static void drawText(PoseStack matrices, String s, int x, int y, int color, boolean shadow)
+	{
+		backend.text(matrices.last().pose(), s, x, y, color, shadow);
+	}
+
+	private static void drawText(PoseStack matrices, FormattedCharSequence text, int x, int y, int color, boolean shadow)
+	{
+		backend.text(matrices.last().pose(), text, x, y, color, shadow);
+	}
+
 	public static int colorAtOpacity(int opaque, float opacity)
 	{
 		if (opacity < 0.0f) opacity = 0.0f;
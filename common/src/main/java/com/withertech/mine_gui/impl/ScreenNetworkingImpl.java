@@ -18,6 +18,7 @@
 
 package com.withertech.mine_gui.impl;
 
+import com.withertech.mine_gui.GuiMetrics;
 import com.withertech.mine_gui.MineGui;
 import com.withertech.mine_gui.SyncedGuiDescription;
 import com.withertech.mine_gui.networking.NetworkSide;
@@ -69,8 +70,10 @@ public class ScreenNetworkingImpl implements ScreenNetworking
 		AbstractContainerMenu screenHandler = context.getPlayer().containerMenu;
 
 		// Packet data
+		int bytes = buf.readableBytes();
 		int syncId = buf.readVarInt();
 		ResourceLocation messageId = buf.readResourceLocation();
+		GuiMetrics.messageReceived(messageId, bytes);
 
 		if (!(screenHandler instanceof SyncedGuiDescription))
 		{
@@ -152,6 +155,7 @@ public class ScreenNetworkingImpl implements ScreenNetworking
 		buf.writeVarInt(description.containerId);
 		buf.writeResourceLocation(message);
 		writer.accept(buf);
+		GuiMetrics.messageSent(message, buf.readableBytes());
 		description.getPacketSender().accept(side == NetworkSide.SERVER ? SCREEN_MESSAGE_S2C : SCREEN_MESSAGE_C2S, buf);
 	}
 
@@ -20,6 +20,7 @@ package com.withertech.mine_gui.impl;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.impl.client.GuiProfiler;
 import dev.architectury.platform.Platform;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -32,19 +33,44 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A "logger" that renders its messages on the screen in dev envs.
+ *
+ * <p>The on-screen messages are kept in a bounded buffer of the last {@value #MAX_WARNINGS} distinct messages.
+ * Identical messages are merged and shown with their occurrence count. Each call site, identified by
+ * its message pattern, is logged at most once every {@value #RATE_LIMIT_MILLIS} milliseconds;
+ * the number of suppressed messages is reported with the next logged message.
+ *
+ * <p>The {@linkplain GuiProfiler GUI profiler} overlay is rendered below the messages.
  */
 public final class VisualLogger
 {
-	private static final List<Component> WARNINGS = new ArrayList<>();
+	private static final int MAX_WARNINGS = 32;
+	private static final long RATE_LIMIT_MILLIS = 1000;
+
+	// Guarded by WARNINGS
+	private static final Deque<Warning> WARNINGS = new ArrayDeque<>();
+	private static final Map<String, Warning> WARNINGS_BY_KEY = new HashMap<>();
+	private static int modifications = 0;
+
+	// Render thread only
+	private static final List<FormattedCharSequence> CACHED_LINES = new ArrayList<>();
+	private static int cachedModifications = -1;
+	private static int cachedWidth = -1;
 
 	private final Logger logger;
 	private final Class<?> clazz;
+	private final Map<String, CallSite> callSites = new ConcurrentHashMap<>();
 
 	public VisualLogger(Class<?> clazz)
 	{
@@ -58,27 +84,58 @@ public final class VisualLogger
 		var client = Minecraft.getInstance();
 		var textRenderer = client.font;
 		int width = client.getWindow().getGuiScaledWidth();
-		List<FormattedCharSequence> lines = new ArrayList<>();
+		List<FormattedCharSequence> profilerLines = GuiProfiler.getOverlayLines();
 
-		for (Component warning : WARNINGS)
+		synchronized (WARNINGS)
 		{
-			lines.addAll(textRenderer.split(warning, width));
+			if (WARNINGS.isEmpty() && profilerLines.isEmpty()) return;
+
+			if (cachedModifications != modifications || cachedWidth != width)
+			{
+				CACHED_LINES.clear();
+
+				for (Warning warning : WARNINGS)
+				{
+					CACHED_LINES.addAll(textRenderer.split(warning.getText(), width));
+				}
+
+				cachedModifications = modifications;
+				cachedWidth = width;
+			}
 		}
 
 		int fontHeight = textRenderer.lineHeight;
 		int y = 0;
 
-		for (var line : lines)
+		for (var line : CACHED_LINES)
+		{
+			drawLine(matrices, line, y);
+			y += fontHeight;
+		}
+
+		for (var line : profilerLines)
 		{
-			ScreenDrawing.coloredRect(matrices, 2, 2 + y, textRenderer.width(line), fontHeight, 0x88_000000);
-			ScreenDrawing.drawString(matrices, line, 2, 2 + y, 0xFF_FFFFFF);
+			drawLine(matrices, line, y);
 			y += fontHeight;
 		}
 	}
 
+	@Environment(EnvType.CLIENT)
+	private static void drawLine(PoseStack matrices, FormattedCharSequence line, int y)
+	{
+		var textRenderer = Minecraft.getInstance().font;
+		ScreenDrawing.coloredRect(matrices, 2, 2 + y, textRenderer.width(line), textRenderer.lineHeight, 0x88_000000);
+		ScreenDrawing.drawString(matrices, line, 2, 2 + y, 0xFF_FFFFFF);
+	}
+
 	public static void reset()
 	{
-		WARNINGS.clear();
+		synchronized (WARNINGS)
+		{
+			WARNINGS.clear();
+			WARNINGS_BY_KEY.clear();
+			modifications++;
+		}
 	}
 
 	public void error(String message, Object... params)
@@ -93,15 +150,108 @@ public final class VisualLogger
 
 	private void log(String message, Object[] params, Level level, ChatFormatting formatting)
 	{
-		logger.log(level, message, params);
+		int suppressed = callSites.computeIfAbsent(message, m -> new CallSite()).tryLog();
+		if (suppressed < 0) return;
+
+		logger.log(level, suppressed > 0 ? "[" + suppressed + " similar messages suppressed] " + message : message, params);
 
 		if (Platform.isDevelopmentEnvironment())
 		{
-			var text = new TextComponent(clazz.getSimpleName() + '/');
-			text.append(new TextComponent(level.name()).withStyle(formatting));
-			text.append(new TextComponent(": " + ParameterizedMessage.format(message, params)));
+			addWarning(ParameterizedMessage.format(message, params), level, formatting, suppressed + 1);
+		}
+	}
+
+	private void addWarning(String message, Level level, ChatFormatting formatting, int occurrences)
+	{
+		String key = clazz.getName() + '/' + level.name() + ": " + message;
+
+		synchronized (WARNINGS)
+		{
+			Warning warning = WARNINGS_BY_KEY.get(key);
+
+			if (warning == null)
+			{
+				if (WARNINGS.size() == MAX_WARNINGS)
+				{
+					WARNINGS_BY_KEY.remove(WARNINGS.removeFirst().key);
+				}
+
+				warning = new Warning(key, clazz.getSimpleName(), level, formatting, message);
+				WARNINGS.addLast(warning);
+				WARNINGS_BY_KEY.put(key, warning);
+			}
+
+			warning.count += occurrences;
+			warning.text = null;
+			modifications++;
+		}
+	}
+
+	/**
+	 * A message shown on the screen, with the number of times it has been logged.
+	 */
+	private static final class Warning
+	{
+		private final String key;
+		private final String source;
+		private final Level level;
+		private final ChatFormatting formatting;
+		private final String message;
+		private int count = 0;
+		@Nullable
+		private Component text = null;
+
+		private Warning(String key, String source, Level level, ChatFormatting formatting, String message)
+		{
+			this.key = key;
+			this.source = source;
+			this.level = level;
+			this.formatting = formatting;
+			this.message = message;
+		}
+
+		private Component getText()
+		{
+			if (text == null)
+			{
+				var result = new TextComponent(source + '/');
+				result.append(new TextComponent(level.name()).withStyle(formatting));
+				result.append(new TextComponent(": " + message));
+				if (count > 1) result.append(new TextComponent(" (x" + count + ")").withStyle(ChatFormatting.GRAY));
+				text = result;
+			}
+
+			return text;
+		}
+	}
+
+	/**
+	 * The rate limit state of a single call site.
+	 */
+	private static final class CallSite
+	{
+		private long lastLogged = 0;
+		private int suppressed = 0;
+
+		/**
+		 * Tries to log a message from this call site.
+		 *
+		 * @return the number of messages suppressed since the last logged message, or -1 if this message is suppressed
+		 */
+		private synchronized int tryLog()
+		{
+			long now = System.currentTimeMillis();
+
+			if (now - lastLogged < RATE_LIMIT_MILLIS)
+			{
+				suppressed++;
+				return -1;
+			}
 
-			WARNINGS.add(text);
+			int result = suppressed;
+			lastLogged = now;
+			suppressed = 0;
+			return result;
 		}
 	}
 }
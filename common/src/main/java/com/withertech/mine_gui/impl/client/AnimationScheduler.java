@@ -0,0 +1,276 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The shared animation clock and scheduler of all widgets.
+ *
+ * <p>The clock advances once per frame when the HUD or a screen {@linkplain #beginFrame() begins a frame}.
+ * Widgets create an {@link Animation} with a callback that receives the elapsed frame time.
+ * A running animation is only advanced while its widget is shown and painted: it is scheduled by
+ * {@link Animation#markPainted()} and drops out of the schedule as soon as a frame passes without
+ * its widget being painted, for example when it is scrolled out of view or its screen is closed.
+ * {@linkplain Animation#setHidden(boolean) Hidden} animations are paused until they are shown again.
+ *
+ * <p>Animations can be created on both sides, but they are only advanced on the client.
+ */
+public final class AnimationScheduler
+{
+	// Long frame times are clamped so that a stalled frame doesn't skip ahead
+	private static final long MAX_FRAME_NANOS = 100_000_000L;
+	private static final List<Animation> SCHEDULED = new ArrayList<>();
+	private static long frame = 0;
+	private static long frameNanos = 0;
+	private static long lastFrameNanos = 0;
+	// Set when the HUD has begun the current frame, the HUD is rendered before the screen
+	private static boolean hudFrame = false;
+
+	private AnimationScheduler()
+	{
+	}
+
+	/**
+	 * Advances the animation clock and all scheduled animations to the current frame.
+	 * Called once per frame by the screens. Does nothing if the HUD has already begun the frame.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void beginFrame()
+	{
+		if (hudFrame)
+		{
+			hudFrame = false;
+			return;
+		}
+
+		advance();
+	}
+
+	/**
+	 * Advances the animation clock and all scheduled animations to the current frame.
+	 * Called once per frame by the {@linkplain com.withertech.mine_gui.client.MineGuiHud HUD}, which is rendered before the screen.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void beginHudFrame()
+	{
+		advance();
+		hudFrame = true;
+	}
+
+	/**
+	 * Advances the animation clock and all scheduled animations by a fixed frame time, regardless of the real time.
+	 * Used to simulate frames in headless tests.
+	 *
+	 * @param deltaNanos the elapsed time since the last frame in nanoseconds
+	 * @throws IllegalArgumentException if {@code deltaNanos} is negative
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void advanceFrame(long deltaNanos)
+	{
+		if (deltaNanos < 0) throw new IllegalArgumentException("Frame time must not be negative, got " + deltaNanos);
+
+		lastFrameNanos = System.nanoTime();
+		advance(deltaNanos);
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static void advance()
+	{
+		long now = System.nanoTime();
+		long delta = frame == 0 ? 0 : Math.min(now - lastFrameNanos, MAX_FRAME_NANOS);
+		lastFrameNanos = now;
+		advance(delta);
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static void advance(long delta)
+	{
+		frameNanos += delta;
+		frame++;
+
+		ScrollAnimator.tick(delta);
+
+		for (int i = 0; i < SCHEDULED.size(); )
+		{
+			Animation animation = SCHEDULED.get(i);
+			// Not painted during the last frame: off-screen, hidden or closed
+			if (!animation.running || animation.hidden || animation.paintedFrame < frame - 1)
+			{
+				animation.scheduled = false;
+				// Swap-remove, the order of the animations doesn't matter
+				SCHEDULED.set(i, SCHEDULED.get(SCHEDULED.size() - 1));
+				SCHEDULED.remove(SCHEDULED.size() - 1);
+				continue;
+			}
+
+			if (delta > 0) animation.callback.advance(delta);
+			i++;
+		}
+
+		GuiProfiler.count(GuiProfiler.Metric.ANIMATIONS, SCHEDULED.size());
+	}
+
+	/**
+	 * Gets the number of the current frame on the animation clock.
+	 *
+	 * @return the frame number, starting at 1 on the first frame
+	 */
+	public static long getFrame()
+	{
+		return frame;
+	}
+
+	/**
+	 * Gets the time of the current frame on the animation clock.
+	 * The clock doesn't advance while neither the HUD nor a screen is painted.
+	 *
+	 * @return the frame time in nanoseconds
+	 */
+	public static long getFrameNanos()
+	{
+		return frameNanos;
+	}
+
+	/**
+	 * Tests whether anything is being animated.
+	 *
+	 * <p>When this returns false, the next frame will look the same as the last one unless
+	 * the screen is changed by input or by code, so repaint work can be skipped.
+	 *
+	 * @return true if an animation or a scroll animation is running, false otherwise
+	 */
+	@Environment(EnvType.CLIENT)
+	public static boolean isAnimating()
+	{
+		return !SCHEDULED.isEmpty() || ScrollAnimator.isAnimating();
+	}
+
+	/**
+	 * Gets the number of animations advanced on the current frame.
+	 *
+	 * @return the number of scheduled animations
+	 */
+	public static int getScheduledCount()
+	{
+		return SCHEDULED.size();
+	}
+
+	/**
+	 * A callback that advances an animation.
+	 */
+	@FunctionalInterface
+	public interface Callback
+	{
+		/**
+		 * Advances the animation.
+		 *
+		 * @param deltaNanos the elapsed time since the last frame in nanoseconds, always positive
+		 */
+		void advance(long deltaNanos);
+	}
+
+	/**
+	 * An animation of a widget. Widgets keep their animations and mark them painted when they are painted.
+	 */
+	public static final class Animation
+	{
+		private final Callback callback;
+		private boolean running = true;
+		private boolean hidden = false;
+		private boolean scheduled = false;
+		private long paintedFrame = -1;
+
+		/**
+		 * Constructs a running animation.
+		 *
+		 * @param callback the callback advancing the animation
+		 */
+		public Animation(Callback callback)
+		{
+			this.callback = callback;
+		}
+
+		/**
+		 * Starts or resumes this animation.
+		 * It is advanced from the next frame after its widget is painted.
+		 */
+		public void start()
+		{
+			running = true;
+		}
+
+		/**
+		 * Stops this animation. A stopped animation is never advanced.
+		 */
+		public void stop()
+		{
+			running = false;
+		}
+
+		/**
+		 * Tests whether this animation is running. A running animation is paused while it is hidden or not painted.
+		 *
+		 * @return true if running, false otherwise
+		 */
+		public boolean isRunning()
+		{
+			return running;
+		}
+
+		/**
+		 * Pauses or unpauses this animation. Widgets call this from {@code onHidden} and {@code onShown}.
+		 *
+		 * @param hidden true to pause the animation, false to unpause it
+		 */
+		public void setHidden(boolean hidden)
+		{
+			this.hidden = hidden;
+		}
+
+		/**
+		 * Tests whether this animation is paused because its widget is hidden.
+		 *
+		 * @return true if hidden, false otherwise
+		 */
+		public boolean isHidden()
+		{
+			return hidden;
+		}
+
+		/**
+		 * Marks this animation as painted on the current frame, which schedules it if it is running.
+		 * Widgets call this from their {@code paint} method.
+		 */
+		@Environment(EnvType.CLIENT)
+		public void markPainted()
+		{
+			paintedFrame = frame;
+			if (running && !hidden && !scheduled)
+			{
+				scheduled = true;
+				SCHEDULED.add(this);
+			}
+		}
+	}
+}
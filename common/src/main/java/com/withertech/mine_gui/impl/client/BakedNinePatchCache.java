@@ -0,0 +1,293 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.ninepatch.AwtTextureRenderer;
+import com.withertech.mine_gui.ninepatch.NinePatch;
+import me.shedaniel.autoconfig.AutoConfig;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A least-recently-used cache of nine-patches baked into single textures at a fixed size,
+ * used by {@linkplain com.withertech.mine_gui.client.NinePatchBackgroundPainter#setBaked(boolean) baked}
+ * nine-patch background painters.
+ *
+ * <p>Nine-patches are rendered on a background thread with an {@link AwtTextureRenderer} and uploaded
+ * as dynamic textures on the render thread. Until a bake has finished, {@link #draw} returns false
+ * and the nine-patch should be drawn normally. The total size of all baked textures is limited by
+ * {@link MineGuiConfig#bakedNinePatchPixelBudget}, and at most {@value #MAX_ENTRIES} nine-patches are cached,
+ * including the ones that are still being baked.
+ * All methods must be called on the render thread.
+ */
+@Environment(EnvType.CLIENT)
+public final class BakedNinePatchCache
+{
+	// Also bounds the entries that are still baking or failed to bake, for example of a panel that is being resized
+	private static final int MAX_ENTRIES = 64;
+	private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest)
+		{
+			if (size() <= MAX_ENTRIES) return false;
+
+			eldest.getValue().release();
+			return true;
+		}
+	};
+	private static final Map<ResourceLocation, CompletableFuture<BufferedImage>> SOURCES = new HashMap<>();
+	private static long usedPixels = 0;
+
+	private BakedNinePatchCache()
+	{
+	}
+
+	/**
+	 * {@return the number of pixels currently used by all baked textures}
+	 */
+	public static long getUsedPixels()
+	{
+		return usedPixels;
+	}
+
+	private static long getBudget()
+	{
+		return AutoConfig.getConfigHolder(MineGuiConfig.class).getConfig().bakedNinePatchPixelBudget;
+	}
+
+	/**
+	 * Draws a baked nine-patch, starting to bake it if needed.
+	 *
+	 * @param ninePatch the nine-patch
+	 * @param matrices  the rendering matrix stack
+	 * @param x         the X coordinate of the nine-patch
+	 * @param y         the Y coordinate of the nine-patch
+	 * @param width     the width of the nine-patch
+	 * @param height    the height of the nine-patch
+	 * @return true if the baked texture was drawn, false if it is not available
+	 */
+	public static boolean draw(NinePatch<ResourceLocation> ninePatch, PoseStack matrices, int x, int y, int width, int height)
+	{
+		if (width <= 0 || height <= 0 || (long) width * height > getBudget()) return false;
+
+		Key key = new Key(ninePatch, width, height);
+		Entry entry = ENTRIES.get(key);
+		if (entry == null)
+		{
+			entry = new Entry(key);
+			ENTRIES.put(key, entry);
+			entry.bake();
+		}
+
+		if (entry.texture == null) return false;
+
+		// Drawn directly, so the quads of an active batch have to be drawn first
+		QuadBatch.flushAll();
+		Matrix4f model = matrices.last().pose();
+		BufferBuilder buffer = Tesselator.getInstance().getBuilder();
+		RenderSystem.enableBlend();
+		RenderSystem.setShaderTexture(0, entry.texture.getId());
+		RenderSystem.setShaderColor(1, 1, 1, 1);
+		RenderSystem.setShader(GameRenderer::getPositionTexShader);
+		buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+		buffer.vertex(model, x, y + height, 0).uv(0, 1).endVertex();
+		buffer.vertex(model, x + width, y + height, 0).uv(1, 1).endVertex();
+		buffer.vertex(model, x + width, y, 0).uv(1, 0).endVertex();
+		buffer.vertex(model, x, y, 0).uv(0, 0).endVertex();
+		buffer.end();
+		BufferUploader.end(buffer);
+		RenderSystem.disableBlend();
+		return true;
+	}
+
+	/**
+	 * Releases all baked textures and cached source images. Called on resource reload.
+	 */
+	public static void clear()
+	{
+		for (Entry entry : ENTRIES.values())
+		{
+			entry.release();
+		}
+
+		ENTRIES.clear();
+		SOURCES.clear();
+	}
+
+	private static CompletableFuture<BufferedImage> getSource(ResourceLocation texture)
+	{
+		return SOURCES.computeIfAbsent(texture, t -> CompletableFuture.supplyAsync(() -> loadSource(t), Util.backgroundExecutor()));
+	}
+
+	private static BufferedImage loadSource(ResourceLocation texture)
+	{
+		try (Resource resource = Minecraft.getInstance().getResourceManager().getResource(texture);
+		     InputStream in = resource.getInputStream())
+		{
+			BufferedImage image = ImageIO.read(in);
+			if (image == null) throw new IOException("Unsupported image format");
+			return image;
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not load nine-patch texture " + texture, e);
+		}
+	}
+
+	private static NativeImage render(Key key, Map<ResourceLocation, BufferedImage> sources)
+	{
+		BufferedImage image = new BufferedImage(key.width(), key.height(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+
+		try
+		{
+			AwtTextureRenderer awt = new AwtTextureRenderer(g);
+			key.ninePatch().draw((texture, x, y, width, height, u1, v1, u2, v2) ->
+					awt.draw(sources.get(texture), x, y, width, height, u1, v1, u2, v2), key.width(), key.height());
+		} finally
+		{
+			g.dispose();
+		}
+
+		NativeImage result = new NativeImage(key.width(), key.height(), false);
+		for (int y = 0; y < key.height(); y++)
+		{
+			for (int x = 0; x < key.width(); x++)
+			{
+				int argb = image.getRGB(x, y);
+				// NativeImage stores pixels as ABGR
+				result.setPixelRGBA(x, y, (argb & 0xFF00FF00) | (argb >> 16 & 0xFF) | (argb & 0xFF) << 16);
+			}
+		}
+
+		return result;
+	}
+
+	private record Key(NinePatch<ResourceLocation> ninePatch, int width, int height)
+	{
+	}
+
+	private static final class Entry
+	{
+		private final Key key;
+		@Nullable
+		private DynamicTexture texture = null;
+		private boolean released = false;
+
+		Entry(Key key)
+		{
+			this.key = key;
+		}
+
+		void bake()
+		{
+			// Collect the source textures by dry-running the nine-patch
+			Set<ResourceLocation> textures = new HashSet<>();
+			key.ninePatch().draw((texture, x, y, width, height, u1, v1, u2, v2) -> textures.add(texture), key.width(), key.height());
+
+			Map<ResourceLocation, CompletableFuture<BufferedImage>> sources = new HashMap<>();
+			for (ResourceLocation texture : textures)
+			{
+				sources.put(texture, getSource(texture));
+			}
+
+			CompletableFuture.allOf(sources.values().toArray(CompletableFuture[]::new))
+					.thenApplyAsync(ignored ->
+					{
+						Map<ResourceLocation, BufferedImage> images = new HashMap<>();
+						sources.forEach((texture, source) -> images.put(texture, source.join()));
+						return render(key, images);
+					}, Util.backgroundExecutor())
+					.whenCompleteAsync(this::upload, Minecraft.getInstance());
+		}
+
+		private void upload(@Nullable NativeImage image, @Nullable Throwable error)
+		{
+			if (error != null)
+			{
+				// Leave the entry without a texture so that the nine-patch keeps being drawn normally
+				MineGui.LOG.warn("Could not bake nine-patch at {}x{}", key.width(), key.height(), error);
+				return;
+			}
+
+			if (released)
+			{
+				image.close();
+				return;
+			}
+
+			long pixels = (long) key.width() * key.height();
+			long budget = getBudget();
+			Iterator<Entry> iterator = ENTRIES.values().iterator();
+			while (usedPixels + pixels > budget && iterator.hasNext())
+			{
+				Entry eldest = iterator.next();
+				if (eldest == this || eldest.texture == null) continue;
+				iterator.remove();
+				eldest.release();
+			}
+
+			texture = new DynamicTexture(image);
+			usedPixels += pixels;
+		}
+
+		void release()
+		{
+			released = true;
+
+			if (texture != null)
+			{
+				usedPixels -= (long) key.width() * key.height();
+				texture.close();
+				texture = null;
+			}
+		}
+	}
+}
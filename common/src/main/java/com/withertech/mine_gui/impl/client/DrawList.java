@@ -0,0 +1,460 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.client.DrawBackend;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * A retained list of draw commands recorded from {@link com.withertech.mine_gui.client.ScreenDrawing ScreenDrawing}.
+ *
+ * <p>While a draw list is {@linkplain #begin() recording}, it is the active {@link DrawBackend},
+ * so {@code ScreenDrawing} appends its quads and text to the list instead of drawing them.
+ * Scissors can't be recorded; the replayed list is clipped by the active scissor. Consecutive quads that share the same texture are uploaded
+ * into a single vertex buffer, and consecutive text draws are submitted in a single batch,
+ * so replaying the list costs one draw per texture change regardless of the number of recorded quads.
+ *
+ * <p>{@linkplain #mark() Markers} keep the place of content that is painted live in the paint order.
+ */
+@Environment(EnvType.CLIENT)
+public final class DrawList implements DrawBackend
+{
+	private static final Cleaner CLEANER = Cleaner.create();
+	private static final BufferBuilder BUILDER = new BufferBuilder(2048);
+	@Nullable
+	private static DrawList recording = null;
+
+	private final List<Segment> segments = new ArrayList<>();
+	private final GpuBuffers buffers = new GpuBuffers();
+	@Nullable
+	private Segment current = null;
+	private boolean recorded = false;
+	private int markers = 0;
+	private int quadCount = 0;
+	@Nullable
+	private DrawBackend previous = null;
+
+	public DrawList()
+	{
+		CLEANER.register(this, buffers);
+	}
+
+	/**
+	 * {@return the draw list that is currently recording, or null if nothing is being recorded}
+	 */
+	@Nullable
+	public static DrawList getRecording()
+	{
+		return recording;
+	}
+
+	/**
+	 * Discards the previous contents of this list and starts recording.
+	 *
+	 * @throws IllegalStateException if another draw list is already recording
+	 */
+	public void begin()
+	{
+		if (recording != null)
+		{
+			throw new IllegalStateException("Already recording " + recording);
+		}
+
+		clear();
+		recording = this;
+		previous = ScreenDrawing.setBackend(this);
+	}
+
+	/**
+	 * Stops recording and uploads the recorded quads.
+	 *
+	 * @throws IllegalStateException if this list is not recording
+	 */
+	public void end()
+	{
+		if (recording != this)
+		{
+			throw new IllegalStateException(this + " is not recording");
+		}
+
+		finishSegment();
+		recording = null;
+		recorded = true;
+		ScreenDrawing.setBackend(Objects.requireNonNull(previous));
+		previous = null;
+	}
+
+	/**
+	 * {@return whether this list has been recorded and not cleared since}
+	 */
+	public boolean isRecorded()
+	{
+		return recorded;
+	}
+
+	/**
+	 * Discards all recorded commands and releases their vertex buffers.
+	 */
+	public void clear()
+	{
+		segments.clear();
+		current = null;
+		recorded = false;
+		markers = 0;
+		quadCount = 0;
+		buffers.run();
+	}
+
+	@Override
+	public void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color)
+	{
+		QuadSegment segment;
+
+		if (current instanceof QuadSegment quads && Objects.equals(quads.texture, texture))
+		{
+			segment = quads;
+		} else
+		{
+			finishSegment();
+			segment = new QuadSegment(texture);
+			BUILDER.begin(VertexFormat.Mode.QUADS, texture == null ? DefaultVertexFormat.POSITION_COLOR : DefaultVertexFormat.POSITION_COLOR_TEX);
+			current = segment;
+		}
+
+		quadCount++;
+		int a = color >> 24 & 255;
+		int r = color >> 16 & 255;
+		int g = color >> 8 & 255;
+		int b = color & 255;
+
+		if (texture == null)
+		{
+			BUILDER.vertex(pose, x1, y2, 0).color(r, g, b, a).endVertex();
+			BUILDER.vertex(pose, x2, y2, 0).color(r, g, b, a).endVertex();
+			BUILDER.vertex(pose, x2, y1, 0).color(r, g, b, a).endVertex();
+			BUILDER.vertex(pose, x1, y1, 0).color(r, g, b, a).endVertex();
+		} else
+		{
+			BUILDER.vertex(pose, x1, y2, 0).color(r, g, b, a).uv(u1, v2).endVertex();
+			BUILDER.vertex(pose, x2, y2, 0).color(r, g, b, a).uv(u2, v2).endVertex();
+			BUILDER.vertex(pose, x2, y1, 0).color(r, g, b, a).uv(u2, v1).endVertex();
+			BUILDER.vertex(pose, x1, y1, 0).color(r, g, b, a).uv(u1, v1).endVertex();
+		}
+	}
+
+	@Override
+	public void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow)
+	{
+		addText(pose, text, x, y, color, shadow);
+	}
+
+	@Override
+	public void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow)
+	{
+		addText(pose, text, x, y, color, shadow);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Scissors can't be recorded: the quads are only drawn on replay, when the recorded scissor would no longer apply.
+	 * Recorded content is clipped by the scissor that is active during the replay instead.
+	 *
+	 * @throws IllegalStateException always
+	 */
+	@Override
+	public void scissor(int x, int y, int width, int height)
+	{
+		throw new IllegalStateException("Scissors can't be recorded into " + this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalStateException always
+	 * @see #scissor(int, int, int, int)
+	 */
+	@Override
+	public void clearScissor()
+	{
+		throw new IllegalStateException("Scissors can't be recorded into " + this);
+	}
+
+	private void addText(Matrix4f pose, Object text, float x, float y, int color, boolean shadow)
+	{
+		TextSegment segment;
+
+		if (current instanceof TextSegment texts)
+		{
+			segment = texts;
+		} else
+		{
+			finishSegment();
+			segment = new TextSegment();
+			current = segment;
+		}
+
+		segment.commands.add(new TextCommand(pose.copy(), text, x, y, color, shadow));
+	}
+
+	private void finishSegment()
+	{
+		if (current instanceof QuadSegment quads)
+		{
+			BUILDER.end();
+			quads.buffer = new VertexBuffer();
+			quads.buffer.upload(BUILDER);
+			buffers.add(quads.buffer);
+		}
+
+		if (current != null)
+		{
+			segments.add(current);
+			current = null;
+		}
+	}
+
+	/**
+	 * Adds a marker at the current position of the recording.
+	 * Markers are numbered in the order they are added, starting at 0.
+	 *
+	 * @return the index of the marker
+	 * @throws IllegalStateException if this list is not recording
+	 */
+	public int mark()
+	{
+		if (recording != this)
+		{
+			throw new IllegalStateException(this + " is not recording");
+		}
+
+		finishSegment();
+		segments.add(new MarkerSegment(markers));
+		return markers++;
+	}
+
+	/**
+	 * Tests whether nothing is drawn after the first marker, so that
+	 * the marked content can also be painted after the whole list.
+	 *
+	 * @return true if all markers are at the end of this list, false otherwise
+	 */
+	public boolean areMarkersLast()
+	{
+		boolean marked = false;
+
+		for (Segment segment : segments)
+		{
+			if (segment instanceof MarkerSegment)
+			{
+				marked = true;
+			} else if (marked)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Replays this list at the specified position, skipping the markers.
+	 *
+	 * @param matrices the rendering matrix stack
+	 * @param x        the X coordinate of the recorded origin on the screen
+	 * @param y        the Y coordinate of the recorded origin on the screen
+	 */
+	public void replay(PoseStack matrices, int x, int y)
+	{
+		replay(matrices, x, y, null);
+	}
+
+	/**
+	 * Replays this list at the specified position.
+	 *
+	 * @param matrices      the rendering matrix stack
+	 * @param x             the X coordinate of the recorded origin on the screen
+	 * @param y             the Y coordinate of the recorded origin on the screen
+	 * @param markerPainter the function that paints the content of a marker by its index, called with
+	 *                      the unchanged matrix stack at the marker's position in the list, or null to skip markers
+	 */
+	public void replay(PoseStack matrices, int x, int y, @Nullable IntConsumer markerPainter)
+	{
+		matrices.pushPose();
+		matrices.translate(x, y, 0);
+		Matrix4f pose = matrices.last().pose().copy();
+		matrices.popPose();
+		Matrix4f modelView = RenderSystem.getModelViewMatrix().copy();
+		modelView.multiply(pose);
+		GuiProfiler.count(GuiProfiler.Metric.QUADS, quadCount);
+		GuiProfiler.count(GuiProfiler.Metric.DRAW_CALLS, segments.size() - markers);
+
+		for (Segment segment : segments)
+		{
+			if (segment instanceof MarkerSegment marker)
+			{
+				if (markerPainter != null) markerPainter.accept(marker.index);
+			} else
+			{
+				// Live content painted in a batch before this segment must be drawn first
+				QuadBatch.flushAll();
+				segment.draw(pose, modelView);
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "DrawList{" +
+				"segments=" + segments.size() +
+				", markers=" + markers +
+				", recorded=" + recorded +
+				'}';
+	}
+
+	private interface Segment
+	{
+		void draw(Matrix4f pose, Matrix4f modelView);
+	}
+
+	private record MarkerSegment(int index) implements Segment
+	{
+		@Override
+		public void draw(Matrix4f pose, Matrix4f modelView)
+		{
+		}
+	}
+
+	private static final class QuadSegment implements Segment
+	{
+		@Nullable
+		private final ResourceLocation texture;
+		private VertexBuffer buffer;
+
+		private QuadSegment(@Nullable ResourceLocation texture)
+		{
+			this.texture = texture;
+		}
+
+		@Override
+		public void draw(Matrix4f pose, Matrix4f modelView)
+		{
+			RenderSystem.enableBlend();
+			// Accumulate alpha so that the list can also be replayed into transparent offscreen targets
+			RenderSystem.blendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+			RenderSystem.setShaderColor(1, 1, 1, 1);
+
+			if (texture == null)
+			{
+				RenderSystem.disableTexture();
+				buffer.drawWithShader(modelView, RenderSystem.getProjectionMatrix(), GameRenderer.getPositionColorShader());
+				RenderSystem.enableTexture();
+			} else
+			{
+				RenderSystem.setShaderTexture(0, texture);
+				buffer.drawWithShader(modelView, RenderSystem.getProjectionMatrix(), GameRenderer.getPositionColorTexShader());
+			}
+
+			RenderSystem.defaultBlendFunc();
+			RenderSystem.disableBlend();
+		}
+	}
+
+	private static final class TextSegment implements Segment
+	{
+		private final List<TextCommand> commands = new ArrayList<>();
+
+		@Override
+		public void draw(Matrix4f pose, Matrix4f modelView)
+		{
+			Font font = Minecraft.getInstance().font;
+			MultiBufferSource.BufferSource source = MultiBufferSource.immediate(Tesselator.getInstance().getBuilder());
+
+			for (TextCommand command : commands)
+			{
+				Matrix4f matrix = pose.copy();
+				matrix.multiply(command.pose);
+
+				if (command.text instanceof FormattedCharSequence sequence)
+				{
+					font.drawInBatch(sequence, command.x, command.y, command.color, command.shadow, matrix, source, false, 0, LightTexture.FULL_BRIGHT);
+				} else
+				{
+					font.drawInBatch(command.text.toString(), command.x, command.y, command.color, command.shadow, matrix, source, false, 0, LightTexture.FULL_BRIGHT);
+				}
+			}
+
+			source.endBatch();
+		}
+	}
+
+	private record TextCommand(Matrix4f pose, Object text, float x, float y, int color, boolean shadow)
+	{
+	}
+
+	/**
+	 * Owns the vertex buffers of a draw list so that they can be released
+	 * on the render thread once the list is cleared or garbage collected.
+	 */
+	private static final class GpuBuffers implements Runnable
+	{
+		private final List<VertexBuffer> buffers = new ArrayList<>();
+
+		synchronized void add(VertexBuffer buffer)
+		{
+			buffers.add(buffer);
+		}
+
+		@Override
+		public synchronized void run()
+		{
+			if (buffers.isEmpty()) return;
+
+			List<VertexBuffer> released = new ArrayList<>(buffers);
+			buffers.clear();
+			RenderSystem.recordRenderCall(() -> released.forEach(VertexBuffer::close));
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.client.DrawBackend;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * The default {@link DrawBackend} that draws every primitive immediately with OpenGL.
+ */
+@Environment(EnvType.CLIENT)
+public enum GlDrawBackend implements DrawBackend
+{
+	INSTANCE;
+
+	@Override
+	public void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color)
+	{
+		BufferBuilder buffer = Tesselator.getInstance().getBuilder();
+		RenderSystem.enableBlend();
+
+		if (texture == null)
+		{
+			int a = color >> 24 & 255;
+			int r = color >> 16 & 255;
+			int g = color >> 8 & 255;
+			int b = color & 255;
+			RenderSystem.disableTexture();
+			RenderSystem.defaultBlendFunc();
+			RenderSystem.setShader(GameRenderer::getPositionColorShader);
+			buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
+			buffer.vertex(pose, x1, y2, 0).color(r, g, b, a).endVertex();
+			buffer.vertex(pose, x2, y2, 0).color(r, g, b, a).endVertex();
+			buffer.vertex(pose, x2, y1, 0).color(r, g, b, a).endVertex();
+			buffer.vertex(pose, x1, y1, 0).color(r, g, b, a).endVertex();
+			buffer.end();
+			BufferUploader.end(buffer);
+			RenderSystem.enableTexture();
+		} else
+		{
+			float a = (color >> 24 & 255) / 255.0F;
+			float r = (color >> 16 & 255) / 255.0F;
+			float g = (color >> 8 & 255) / 255.0F;
+			float b = (color & 255) / 255.0F;
+			RenderSystem.setShaderTexture(0, texture);
+			RenderSystem.setShaderColor(r, g, b, a);
+			RenderSystem.setShader(GameRenderer::getPositionTexShader);
+			buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+			buffer.vertex(pose, x1, y2, 0).uv(u1, v2).endVertex();
+			buffer.vertex(pose, x2, y2, 0).uv(u2, v2).endVertex();
+			buffer.vertex(pose, x2, y1, 0).uv(u2, v1).endVertex();
+			buffer.vertex(pose, x1, y1, 0).uv(u1, v1).endVertex();
+			buffer.end();
+			BufferUploader.end(buffer);
+		}
+
+		RenderSystem.disableBlend();
+	}
+
+	@Override
+	public void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow)
+	{
+		MultiBufferSource.BufferSource source = MultiBufferSource.immediate(Tesselator.getInstance().getBuilder());
+		Minecraft.getInstance().font.drawInBatch(text, x, y, color, shadow, pose, source, false, 0, LightTexture.FULL_BRIGHT);
+		source.endBatch();
+	}
+
+	@Override
+	public void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow)
+	{
+		MultiBufferSource.BufferSource source = MultiBufferSource.immediate(Tesselator.getInstance().getBuilder());
+		Minecraft.getInstance().font.drawInBatch(text, x, y, color, shadow, pose, source, false, 0, LightTexture.FULL_BRIGHT);
+		source.endBatch();
+	}
+
+	@Override
+	public void scissor(int x, int y, int width, int height)
+	{
+		Minecraft mc = Minecraft.getInstance();
+		int windowHeight = mc.getWindow().getHeight();
+		double scale = mc.getWindow().getGuiScale();
+		int scaledWidth = (int) (width * scale);
+		int scaledHeight = (int) (height * scale);
+
+		// Expression for Y coordinate adapted from vini2003's Spinnery (code snippet released under WTFPL)
+		GL11.glScissor((int) (x * scale), (int) (windowHeight - (y * scale) - scaledHeight), scaledWidth, scaledHeight);
+	}
+
+	@Override
+	public void clearScissor()
+	{
+		Minecraft mc = Minecraft.getInstance();
+		// Just use the full window framebuffer as a scissor
+		GL11.glScissor(0, 0, mc.getWindow().getWidth(), mc.getWindow().getHeight());
+	}
+
+	@Override
+	public boolean supportsRetainedDrawing()
+	{
+		return true;
+	}
+}
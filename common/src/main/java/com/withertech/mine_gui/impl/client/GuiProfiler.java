@@ -0,0 +1,471 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.client.DrawBackend;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.widget.WWidget;
+import dev.architectury.platform.Platform;
+import me.shedaniel.autoconfig.AutoConfig;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A per-frame profiler for GUI screens, enabled with {@link MineGuiConfig#guiProfiler}.
+ *
+ * <p>The profiler measures the time spent in layout, painting (per widget class), hit testing,
+ * tooltips and narration, and counts the quads, draw calls, scissor pushes and animations of each frame.
+ * Rolling percentiles of the last {@value #WINDOW_SIZE} frames are shown in the overlay of
+ * {@link com.withertech.mine_gui.impl.VisualLogger}, and are {@linkplain #export(Class) exported} as JSON
+ * when a screen is closed.
+ *
+ * <p>Work that happens outside of a frame, such as layout and narration, is attributed to the next frame.
+ * All methods must be called on the render thread.
+ */
+@Environment(EnvType.CLIENT)
+public final class GuiProfiler
+{
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final int WINDOW_SIZE = 240;
+	private static final int OVERLAY_REFRESH_FRAMES = 20;
+	private static final int OVERLAY_WIDGET_CLASSES = 8;
+
+	private static final Map<Metric, Window> METRICS = new EnumMap<>(Metric.class);
+	private static final long[] CURRENT = new long[Metric.values().length];
+	private static final Map<Class<?>, PaintStats> PAINT_STATS = new HashMap<>();
+	private static final List<FormattedCharSequence> OVERLAY = new ArrayList<>();
+
+	private static boolean enabled = false;
+	private static boolean inFrame = false;
+	private static long frameStart;
+	private static int frames = 0;
+	private static DrawBackend previousBackend;
+
+	// Stack of paint start times and accumulated child paint times, used to compute self times
+	private static long[] paintStarts = new long[32];
+	private static long[] paintChildren = new long[32];
+	private static int paintDepth = 0;
+
+	static
+	{
+		for (Metric metric : Metric.values())
+		{
+			METRICS.put(metric, new Window());
+		}
+	}
+
+	private GuiProfiler()
+	{
+	}
+
+	/**
+	 * {@return whether the profiler is enabled}
+	 */
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Starts a new frame. This re-reads the config option and, if the profiler is enabled,
+	 * installs a counting draw backend.
+	 */
+	public static void beginFrame()
+	{
+		enabled = AutoConfig.getConfigHolder(MineGuiConfig.class).getConfig().guiProfiler;
+		if (!enabled || inFrame) return;
+
+		inFrame = true;
+		frameStart = System.nanoTime();
+		previousBackend = ScreenDrawing.setBackend(new CountingBackend(ScreenDrawing.getBackend()));
+	}
+
+	/**
+	 * Ends the current frame, restores the previous draw backend and adds the frame to the rolling windows.
+	 */
+	public static void endFrame()
+	{
+		if (!inFrame) return;
+
+		inFrame = false;
+		ScreenDrawing.setBackend(previousBackend);
+		previousBackend = null;
+		CURRENT[Metric.FRAME.ordinal()] = System.nanoTime() - frameStart;
+
+		for (Metric metric : Metric.values())
+		{
+			METRICS.get(metric).add(CURRENT[metric.ordinal()]);
+		}
+
+		Arrays.fill(CURRENT, 0);
+
+		for (PaintStats stats : PAINT_STATS.values())
+		{
+			stats.window.add(stats.frameNanos);
+			stats.frameNanos = 0;
+		}
+
+		paintDepth = 0;
+		frames++;
+
+		if (frames % OVERLAY_REFRESH_FRAMES == 1) rebuildOverlay();
+	}
+
+	/**
+	 * Starts timing a section.
+	 *
+	 * @return the start time to pass to {@link #stop(Metric, long)}, or 0 if the profiler is disabled
+	 */
+	public static long start()
+	{
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stops timing a section started with {@link #start()}.
+	 *
+	 * @param metric the timed metric
+	 * @param start  the start time returned by {@link #start()}
+	 */
+	public static void stop(Metric metric, long start)
+	{
+		if (enabled && start != 0) CURRENT[metric.ordinal()] += System.nanoTime() - start;
+	}
+
+	/**
+	 * Adds to a counted metric of the current frame. Does nothing outside of a frame.
+	 *
+	 * @param metric the counted metric
+	 * @param amount the amount to add
+	 */
+	public static void count(Metric metric, int amount)
+	{
+		if (inFrame) CURRENT[metric.ordinal()] += amount;
+	}
+
+	/**
+	 * Starts timing the paint of a widget. Must be followed by {@link #endPaint(WWidget)}.
+	 */
+	public static void beginPaint()
+	{
+		if (paintDepth == paintStarts.length)
+		{
+			paintStarts = Arrays.copyOf(paintStarts, paintDepth * 2);
+			paintChildren = Arrays.copyOf(paintChildren, paintDepth * 2);
+		}
+
+		paintStarts[paintDepth] = System.nanoTime();
+		paintChildren[paintDepth] = 0;
+		paintDepth++;
+	}
+
+	/**
+	 * Stops timing the paint of a widget and attributes its self time, excluding profiled children,
+	 * to its class.
+	 *
+	 * @param widget the painted widget
+	 */
+	public static void endPaint(WWidget widget)
+	{
+		if (paintDepth == 0) return;
+
+		paintDepth--;
+		long elapsed = System.nanoTime() - paintStarts[paintDepth];
+		if (paintDepth > 0) paintChildren[paintDepth - 1] += elapsed;
+
+		PaintStats stats = PAINT_STATS.computeIfAbsent(widget.getClass(), c -> new PaintStats());
+		stats.frameNanos += elapsed - paintChildren[paintDepth];
+	}
+
+	/**
+	 * {@return the cached overlay lines, or an empty list if the profiler is disabled}
+	 */
+	public static List<FormattedCharSequence> getOverlayLines()
+	{
+		return enabled ? OVERLAY : List.of();
+	}
+
+	/**
+	 * Exports the collected profile as JSON to {@code mine_gui/profiler/<description class>.json} in the game folder
+	 * and resets the profiler. Does nothing if no frames have been profiled.
+	 *
+	 * @param descriptionClass the class of the profiled GUI description
+	 */
+	public static void export(Class<?> descriptionClass)
+	{
+		if (frames == 0) return;
+
+		String name = descriptionClass.getSimpleName().isEmpty() ? descriptionClass.getName() : descriptionClass.getSimpleName();
+		Path path = Platform.getGameFolder().resolve("mine_gui").resolve("profiler").resolve(name + ".json");
+
+		try
+		{
+			Files.createDirectories(path.getParent());
+
+			try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+			{
+				GSON.toJson(toJson(descriptionClass), writer);
+			}
+
+			LOGGER.info("Exported GUI profile of {} to {}", descriptionClass.getName(), path);
+		} catch (IOException e)
+		{
+			LOGGER.warn("Could not export GUI profile to {}", path, e);
+		}
+
+		reset();
+	}
+
+	/**
+	 * Discards all collected samples.
+	 */
+	public static void reset()
+	{
+		for (Window window : METRICS.values())
+		{
+			window.clear();
+		}
+
+		Arrays.fill(CURRENT, 0);
+		PAINT_STATS.clear();
+		OVERLAY.clear();
+		frames = 0;
+		paintDepth = 0;
+	}
+
+	private static JsonObject toJson(Class<?> descriptionClass)
+	{
+		JsonObject json = new JsonObject();
+		json.addProperty("description", descriptionClass.getName());
+		json.addProperty("frames", frames);
+
+		JsonObject metrics = new JsonObject();
+		for (Metric metric : Metric.values())
+		{
+			metrics.add(metric.name, METRICS.get(metric).toJson(metric.timed));
+		}
+		json.add("metrics", metrics);
+
+		JsonObject paint = new JsonObject();
+		for (Map.Entry<Class<?>, PaintStats> entry : sortedPaintStats())
+		{
+			paint.add(entry.getKey().getName(), entry.getValue().window.toJson(true));
+		}
+		json.add("paint", paint);
+
+		return json;
+	}
+
+	private static List<Map.Entry<Class<?>, PaintStats>> sortedPaintStats()
+	{
+		List<Map.Entry<Class<?>, PaintStats>> entries = new ArrayList<>(PAINT_STATS.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<Class<?>, PaintStats> entry) -> entry.getValue().window.percentile(0.95)).reversed());
+		return entries;
+	}
+
+	private static void rebuildOverlay()
+	{
+		OVERLAY.clear();
+		addOverlayLine(new TextComponent("GUI profiler (" + Math.min(frames, WINDOW_SIZE) + " frames)    p50 / p95 / p99").withStyle(ChatFormatting.YELLOW));
+
+		for (Metric metric : Metric.values())
+		{
+			addOverlayLine(new TextComponent(metric.name + ": " + METRICS.get(metric).format(metric.timed)));
+		}
+
+		List<Map.Entry<Class<?>, PaintStats>> entries = sortedPaintStats();
+		for (int i = 0; i < Math.min(entries.size(), OVERLAY_WIDGET_CLASSES); i++)
+		{
+			Map.Entry<Class<?>, PaintStats> entry = entries.get(i);
+			addOverlayLine(new TextComponent("  " + entry.getKey().getSimpleName() + ": " + entry.getValue().window.format(true)).withStyle(ChatFormatting.GRAY));
+		}
+	}
+
+	private static void addOverlayLine(Component line)
+	{
+		OVERLAY.add(line.getVisualOrderText());
+	}
+
+	/**
+	 * The metrics collected for every frame.
+	 */
+	public enum Metric
+	{
+		FRAME("frame", true),
+		LAYOUT("layout", true),
+		PAINT("paint", true),
+		HIT_TEST("hit test", true),
+		TOOLTIP("tooltip", true),
+		NARRATION("narration", true),
+		QUADS("quads", false),
+		DRAW_CALLS("draw calls", false),
+		SCISSOR_PUSHES("scissor pushes", false),
+		ANIMATIONS("animations", false);
+
+		private final String name;
+		private final boolean timed;
+
+		Metric(String name, boolean timed)
+		{
+			this.name = name;
+			this.timed = timed;
+		}
+	}
+
+	private static final class PaintStats
+	{
+		private final Window window = new Window();
+		private long frameNanos = 0;
+	}
+
+	/**
+	 * A ring buffer of the samples of the last {@value #WINDOW_SIZE} frames.
+	 */
+	private static final class Window
+	{
+		private final long[] samples = new long[WINDOW_SIZE];
+		private int size = 0;
+		private int next = 0;
+
+		void add(long sample)
+		{
+			samples[next] = sample;
+			next = (next + 1) % samples.length;
+			if (size < samples.length) size++;
+		}
+
+		void clear()
+		{
+			size = 0;
+			next = 0;
+		}
+
+		long percentile(double fraction)
+		{
+			if (size == 0) return 0;
+
+			long[] sorted = Arrays.copyOf(samples, size);
+			Arrays.sort(sorted);
+			return sorted[Math.min(size - 1, (int) Math.ceil(fraction * size) - 1)];
+		}
+
+		String format(boolean timed)
+		{
+			return format(percentile(0.5), timed) + " / " + format(percentile(0.95), timed) + " / " + format(percentile(0.99), timed);
+		}
+
+		private static String format(long value, boolean timed)
+		{
+			return timed ? String.format("%.3f ms", value / 1_000_000.0) : Long.toString(value);
+		}
+
+		JsonObject toJson(boolean timed)
+		{
+			JsonObject json = new JsonObject();
+			add(json, "p50", percentile(0.5), timed);
+			add(json, "p95", percentile(0.95), timed);
+			add(json, "p99", percentile(0.99), timed);
+			add(json, "max", percentile(1), timed);
+			return json;
+		}
+
+		private static void add(JsonObject json, String key, long value, boolean timed)
+		{
+			if (timed)
+			{
+				json.addProperty(key + "_ms", value / 1_000_000.0);
+			} else
+			{
+				json.addProperty(key, value);
+			}
+		}
+	}
+
+	/**
+	 * A draw backend that counts the draws of the current frame and forwards them to another backend.
+	 */
+	private record CountingBackend(DrawBackend delegate) implements DrawBackend
+	{
+		@Override
+		public void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color)
+		{
+			CURRENT[Metric.QUADS.ordinal()]++;
+			CURRENT[Metric.DRAW_CALLS.ordinal()]++;
+			delegate.quad(pose, x1, y1, x2, y2, texture, u1, v1, u2, v2, color);
+		}
+
+		@Override
+		public void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow)
+		{
+			CURRENT[Metric.DRAW_CALLS.ordinal()]++;
+			delegate.text(pose, text, x, y, color, shadow);
+		}
+
+		@Override
+		public void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow)
+		{
+			CURRENT[Metric.DRAW_CALLS.ordinal()]++;
+			delegate.text(pose, text, x, y, color, shadow);
+		}
+
+		@Override
+		public void scissor(int x, int y, int width, int height)
+		{
+			delegate.scissor(x, y, width, height);
+		}
+
+		@Override
+		public void clearScissor()
+		{
+			delegate.clearScissor();
+		}
+
+		@Override
+		public boolean supportsRetainedDrawing()
+		{
+			return delegate.supportsRetainedDrawing();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.client.GuiTextureAtlas;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.MissingTextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stitches and holds the {@linkplain GuiTextureAtlas GUI texture atlas}.
+ *
+ * <p>The atlas is stitched on every resource reload. Textures that are registered later, for example by icons
+ * created when a screen is opened, are stitched in the background when they are first drawn,
+ * and are drawn from their own images until then.
+ */
+@Environment(EnvType.CLIENT)
+public final class GuiTextureAtlasImpl extends SimplePreparableReloadListener<GuiTextureAtlasImpl.Preparations>
+{
+	public static final GuiTextureAtlasImpl INSTANCE = new GuiTextureAtlasImpl();
+	private final TextureAtlas atlas = new TextureAtlas(GuiTextureAtlas.LOCATION);
+	private boolean registered = false;
+	private Map<ResourceLocation, TextureAtlasSprite> sprites = Map.of();
+	// All textures of the last stitch, including the ones whose images are missing
+	private Set<ResourceLocation> stitchedTextures = Set.of();
+	private boolean stitching = false;
+	private int generation = 0;
+
+	private GuiTextureAtlasImpl()
+	{
+	}
+
+	/**
+	 * Gets the atlas sprite of a texture.
+	 *
+	 * @param texture the texture image
+	 * @return the sprite, or null if the texture is not stitched into the atlas
+	 */
+	@Nullable
+	public static TextureAtlasSprite getSprite(ResourceLocation texture)
+	{
+		TextureAtlasSprite sprite = INSTANCE.sprites.get(texture);
+		if (sprite == null) INSTANCE.stitchIfRegistered(texture);
+		return sprite;
+	}
+
+	private void stitchIfRegistered(ResourceLocation texture)
+	{
+		// Before the first reload, the reload will stitch all registered textures
+		if (!registered || stitching || stitchedTextures.contains(texture)
+				|| !GuiTextureAtlas.getRegisteredTextures().contains(texture)) return;
+
+		stitching = true;
+		Minecraft client = Minecraft.getInstance();
+		ResourceManager resourceManager = client.getResourceManager();
+		CompletableFuture.supplyAsync(() -> prepare(resourceManager, InactiveProfiler.INSTANCE), Util.backgroundExecutor())
+				.whenCompleteAsync((preparations, error) ->
+				{
+					stitching = false;
+
+					if (error != null)
+					{
+						MineGui.LOG.warn("Could not stitch the GUI texture atlas", error);
+						// Don't retry the textures that failed until the next reload
+						stitchedTextures = Set.copyOf(GuiTextureAtlas.getRegisteredTextures());
+						return;
+					}
+
+					apply(preparations, resourceManager, InactiveProfiler.INSTANCE);
+				}, client);
+	}
+
+	/**
+	 * Gets the generation of the atlas, which changes every time the atlas is stitched.
+	 * Recorded geometry using atlas UVs must be discarded when the generation changes.
+	 *
+	 * @return the atlas generation
+	 */
+	public static int getGeneration()
+	{
+		return INSTANCE.generation;
+	}
+
+	@Override
+	protected Preparations prepare(ResourceManager resourceManager, ProfilerFiller profiler)
+	{
+		profiler.startTick();
+		profiler.push("stitching");
+		List<ResourceLocation> textures = List.copyOf(GuiTextureAtlas.getRegisteredTextures());
+		TextureAtlas.Preparations stitched = atlas.prepareToStitch(resourceManager, textures.stream().map(GuiTextureAtlas::getSpriteName), profiler, 0);
+		profiler.pop();
+		profiler.endTick();
+		return new Preparations(textures, stitched);
+	}
+
+	@Override
+	protected void apply(Preparations preparations, ResourceManager resourceManager, ProfilerFiller profiler)
+	{
+		profiler.startTick();
+		profiler.push("upload");
+
+		if (!registered)
+		{
+			Minecraft.getInstance().getTextureManager().register(GuiTextureAtlas.LOCATION, atlas);
+			registered = true;
+		}
+
+		atlas.reload(preparations.stitched());
+
+		Map<ResourceLocation, TextureAtlasSprite> sprites = new HashMap<>();
+		for (ResourceLocation texture : preparations.textures())
+		{
+			TextureAtlasSprite sprite = atlas.getSprite(GuiTextureAtlas.getSpriteName(texture));
+			if (!sprite.getName().equals(MissingTextureAtlasSprite.getLocation()))
+			{
+				sprites.put(texture, sprite);
+			}
+		}
+		this.sprites = sprites;
+		this.stitchedTextures = Set.copyOf(preparations.textures());
+		generation++;
+
+		profiler.pop();
+		profiler.endTick();
+	}
+
+	record Preparations(List<ResourceLocation> textures, TextureAtlas.Preparations stitched)
+	{
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.platform.Lighting;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.ItemOverrides;
+import net.minecraft.client.renderer.block.model.ItemTransform;
+import net.minecraft.client.renderer.block.model.ItemTransforms;
+import net.minecraft.client.renderer.entity.ItemRenderer;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.SimpleBakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Draws flat GUI items, such as item icons, in batches.
+ *
+ * <p>Items whose baked model is a plain generated item, with one untinted layer and no overrides,
+ * are drawn as a single quad of their cached sprite from the block atlas, which batches like any other quad.
+ * Other items are rendered into the shared buffer source with their transform applied to the pose stack
+ * instead of the global model-view stack. While a {@link QuadBatch} is active, consecutive items are
+ * collected and submitted with a single end-batch; otherwise each item is submitted right away.
+ */
+@Environment(EnvType.CLIENT)
+public final class ItemRenderBatch
+{
+	private static final Random RANDOM = new Random();
+	private static final Map<Item, FlatItem> FLAT_ITEMS = new IdentityHashMap<>();
+	private static boolean pending = false;
+	private static boolean pendingFlatLight = false;
+
+	private ItemRenderBatch()
+	{
+	}
+
+	/**
+	 * Draws an item stack without decorations, like {@link ItemRenderer#renderAndDecorateFakeItem(ItemStack, int, int)}.
+	 *
+	 * @param matrices the rendering matrix stack
+	 * @param stack    the item stack
+	 * @param x        the X coordinate of the item
+	 * @param y        the Y coordinate of the item
+	 * @param size     the size of the item, 16 for the vanilla item size
+	 */
+	public static void render(PoseStack matrices, ItemStack stack, int x, int y, int size)
+	{
+		if (stack.isEmpty()) return;
+
+		Minecraft client = Minecraft.getInstance();
+		ItemRenderer renderer = client.getItemRenderer();
+
+		TextureAtlasSprite sprite = getFlatSprite(renderer, stack);
+		if (sprite != null)
+		{
+			client.getTextureManager().getTexture(InventoryMenu.BLOCK_ATLAS).setFilter(false, false);
+			ScreenDrawing.texturedRect(matrices, x, y, size, size, InventoryMenu.BLOCK_ATLAS,
+					sprite.getU0(), sprite.getV0(), sprite.getU1(), sprite.getV1(), 0xFF_FFFFFF);
+			return;
+		}
+
+		// The item renderer draws into the buffer source right away, so it can't be replayed at another position
+		if (DrawList.getRecording() != null)
+		{
+			throw new IllegalStateException("Only flat items can be recorded into " + DrawList.getRecording() + ", got " + stack);
+		}
+
+		BakedModel model = renderer.getModel(stack, null, null, 0);
+		boolean flatLight = !model.usesBlockLight();
+		boolean batching = QuadBatch.isActive();
+
+		// Keep the draw order: quads before this item are drawn first,
+		// and items with different lighting can't share a batch
+		if (batching) QuadBatch.flushQuads();
+		if (pending && pendingFlatLight != flatLight) flush();
+
+		float scale = size / 16f;
+		matrices.pushPose();
+		matrices.translate(x + size / 2f, y + size / 2f, 100 + renderer.blitOffset);
+		matrices.scale(16 * scale, -16 * scale, 16);
+		// Vanilla applies this transform to the model-view matrix, so it doesn't affect the lighting
+		matrices.last().normal().setIdentity();
+		renderer.render(stack, ItemTransforms.TransformType.GUI, false, matrices, client.renderBuffers().bufferSource(),
+				LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY, model);
+		matrices.popPose();
+
+		pending = true;
+		pendingFlatLight = flatLight;
+
+		if (!batching) flush();
+	}
+
+	/**
+	 * Tests whether an item stack is drawn as a single quad through {@link ScreenDrawing}.
+	 *
+	 * <p>Only flat items can be painted while a {@link DrawList} is recording.
+	 * Empty stacks are not drawn at all, so they are considered flat.
+	 *
+	 * @param stack the item stack
+	 * @return true if the stack is flat, false otherwise
+	 */
+	public static boolean isFlat(ItemStack stack)
+	{
+		return stack.isEmpty() || getFlatSprite(Minecraft.getInstance().getItemRenderer(), stack) != null;
+	}
+
+	/**
+	 * Submits the collected items with a single end-batch.
+	 */
+	public static void flush()
+	{
+		if (!pending) return;
+
+		Minecraft client = Minecraft.getInstance();
+		client.getTextureManager().getTexture(InventoryMenu.BLOCK_ATLAS).setFilter(false, false);
+		MultiBufferSource.BufferSource source = client.renderBuffers().bufferSource();
+
+		if (pendingFlatLight)
+		{
+			Lighting.setupForFlatItems();
+			source.endBatch();
+			Lighting.setupFor3DItems();
+		} else
+		{
+			source.endBatch();
+		}
+
+		GuiProfiler.count(GuiProfiler.Metric.DRAW_CALLS, 1);
+		pending = false;
+	}
+
+	@Nullable
+	private static TextureAtlasSprite getFlatSprite(ItemRenderer renderer, ItemStack stack)
+	{
+		// Enchantment glints and the special inventory models of tridents and spyglasses need the full renderer
+		if (stack.hasFoil() || stack.is(Items.TRIDENT) || stack.is(Items.SPYGLASS)) return null;
+
+		BakedModel model = renderer.getItemModelShaper().getItemModel(stack);
+		FlatItem flat = FLAT_ITEMS.get(stack.getItem());
+
+		// Models are replaced on resource reloads
+		if (flat == null || flat.model != model)
+		{
+			flat = new FlatItem(model, findFlatSprite(model));
+			FLAT_ITEMS.put(stack.getItem(), flat);
+		}
+
+		return flat.sprite;
+	}
+
+	@Nullable
+	private static TextureAtlasSprite findFlatSprite(@Nullable BakedModel model)
+	{
+		if (model == null || model.getClass() != SimpleBakedModel.class) return null;
+		if (model.isGui3d() || model.usesBlockLight() || model.isCustomRenderer()) return null;
+		if (model.getOverrides() != ItemOverrides.EMPTY) return null;
+		if (!model.getTransforms().getTransform(ItemTransforms.TransformType.GUI).equals(ItemTransform.NO_TRANSFORM)) return null;
+
+		for (Direction direction : Direction.values())
+		{
+			RANDOM.setSeed(42L);
+			if (!model.getQuads(null, direction, RANDOM).isEmpty()) return null;
+		}
+
+		RANDOM.setSeed(42L);
+		List<BakedQuad> quads = model.getQuads(null, null, RANDOM);
+		if (quads.isEmpty()) return null;
+
+		// Generated items consist of the faces and edges of a single layer
+		TextureAtlasSprite sprite = quads.get(0).getSprite();
+		for (BakedQuad quad : quads)
+		{
+			if (quad.isTinted() || quad.getSprite() != sprite) return null;
+		}
+
+		return sprite;
+	}
+
+	private record FlatItem(BakedModel model, @Nullable TextureAtlasSprite sprite)
+	{
+	}
+}
@@ -33,4 +33,13 @@ public class MineGuiConfig implements ConfigData
 	@Comment("Whether or not to register the example content")
 	@ConfigEntry.Gui.RequiresRestart
 	public boolean enableExampleContent = true;
+
+	@Comment("The maximum number of pixels that offscreen panel caches may use in total.")
+	public int offscreenPixelBudget = 8 * 1024 * 1024;
+
+	@Comment("The maximum number of pixels that baked nine-patch textures may use in total.")
+	public int bakedNinePatchPixelBudget = 4 * 1024 * 1024;
+
+	@Comment("Whether the GUI profiler overlay should be shown. Profiles are exported to mine_gui/profiler when a screen is closed.")
+	public boolean guiProfiler = false;
 }
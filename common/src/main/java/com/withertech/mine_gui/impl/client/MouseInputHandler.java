@@ -24,8 +24,6 @@ import com.withertech.mine_gui.widget.data.ObservableProperty;
 import net.minecraft.client.gui.screens.Screen;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.function.Function;
-
 /**
  * The implementation for mouse inputs.
  */
@@ -33,6 +31,7 @@ public final class MouseInputHandler<S extends Screen & MineGuiScreenImpl>
 {
 	private final S screen;
 	private final ObservableProperty<@Nullable WWidget> hovered = ObservableProperty.<WWidget>of(null).build();
+	private final MouseEvent event = new MouseEvent();
 
 	public MouseInputHandler(S screen)
 	{
@@ -45,46 +44,54 @@ public final class MouseInputHandler<S extends Screen & MineGuiScreenImpl>
 	}
 
 	/**
-	 * Traverses the {@code function} up the widget tree until it finds a {@link InputResult#PROCESSED} result.
+	 * Dispatches the current {@linkplain #event event} up the widget tree until a widget returns
+	 * {@link InputResult#PROCESSED}.
+	 *
+	 * <p>The widget-relative coordinates are computed by walking the parent chain once, subtracting
+	 * the position of each widget from the absolute position of its child.
 	 *
-	 * @param bottom   the starting point for the traversal
-	 * @param function the function to run
+	 * @param bottom the starting point for the traversal
+	 * @param type   the type of the event
 	 * @return the first widget to return {@link InputResult#PROCESSED}, or null if none found.
 	 */
 	@Nullable
-	private static WWidget runTree(WWidget bottom, Function<WWidget, InputResult> function)
+	private WWidget dispatch(@Nullable WWidget bottom, EventType type)
 	{
-		WWidget current = bottom;
+		if (bottom == null) return null;
 
-		while (current != null)
-		{
-			InputResult result = function.apply(current);
+		int absoluteX = bottom.getAbsoluteX();
+		int absoluteY = bottom.getAbsoluteY();
 
-			if (result == InputResult.PROCESSED)
-			{
-				break;
-			} else
+		for (WWidget current = bottom; current != null; current = current.getParent())
+		{
+			if (event.deliver(current, type, event.containerX - absoluteX, event.containerY - absoluteY) == InputResult.PROCESSED)
 			{
-				current = current.getParent();
+				return current;
 			}
+
+			absoluteX -= current.getX();
+			absoluteY -= current.getY();
 		}
 
-		return current;
+		return null;
+	}
+
+	private WWidget hit(int containerX, int containerY)
+	{
+		long start = GuiProfiler.start();
+		WWidget hit = screen.getDescription().getRootPanel().hit(containerX, containerY);
+		GuiProfiler.stop(GuiProfiler.Metric.HIT_TEST, start);
+		return hit;
 	}
 
 	public void onMouseDown(int containerX, int containerY, int mouseButton)
 	{
 		if (screen.getLastResponder() == null)
 		{
-			WWidget lastResponder = screen.getDescription().getRootPanel().hit(containerX, containerY);
+			WWidget lastResponder = hit(containerX, containerY);
 			screen.setLastResponder(lastResponder);
-			if (lastResponder != null)
-			{
-				runTree(
-						lastResponder,
-						widget -> widget.onMouseDown(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), mouseButton)
-				);
-			}
+			event.set(containerX, containerY, mouseButton);
+			dispatch(lastResponder, EventType.DOWN);
 		} else
 		{
 			// This is a drag instead
@@ -94,30 +101,22 @@ public final class MouseInputHandler<S extends Screen & MineGuiScreenImpl>
 	public void onMouseUp(int containerX, int containerY, int mouseButton)
 	{
 		WWidget lastResponder = screen.getLastResponder();
+		event.set(containerX, containerY, mouseButton);
 
 		if (lastResponder != null)
 		{
 			int width = screen.width;
 			int height = screen.height;
 
-			runTree(
-					lastResponder,
-					widget -> widget.onMouseUp(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), mouseButton)
-			);
+			dispatch(lastResponder, EventType.UP);
 
 			if (containerX >= 0 && containerY >= 0 && containerX < width && containerY < height)
 			{
-				runTree(
-						lastResponder,
-						widget -> widget.onClick(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), mouseButton)
-				);
+				dispatch(lastResponder, EventType.CLICK);
 			}
 		} else
 		{
-			runTree(
-					screen.getDescription().getRootPanel().hit(containerX, containerY),
-					widget -> widget.onMouseUp(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), mouseButton)
-			);
+			dispatch(hit(containerX, containerY), EventType.UP);
 		}
 
 		screen.setLastResponder(null);
@@ -137,35 +136,81 @@ public final class MouseInputHandler<S extends Screen & MineGuiScreenImpl>
 
 			if (containerX < 0 || containerY < 0 || containerX >= width || containerY >= height) return;
 
-			runTree(
-					screen.getDescription().getRootPanel().hit(containerX, containerY),
-					widget -> widget.onMouseDrag(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), mouseButton, deltaX, deltaY)
-			);
+			event.set(containerX, containerY, mouseButton);
+			event.deltaX = deltaX;
+			event.deltaY = deltaY;
+			dispatch(hit(containerX, containerY), EventType.DRAG);
 		}
 	}
 
 	public void onMouseScroll(int containerX, int containerY, double amount)
 	{
-		runTree(
-				screen.getDescription().getRootPanel().hit(containerX, containerY),
-				widget -> widget.onMouseScroll(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY(), amount)
-		);
+		event.set(containerX, containerY, 0);
+		event.amount = amount;
+		dispatch(hit(containerX, containerY), EventType.SCROLL);
 	}
 
 	public void onMouseMove(int containerX, int containerY)
 	{
-		WWidget hit = screen.getDescription().getRootPanel().hit(containerX, containerY);
+		WWidget hit = hit(containerX, containerY);
 
-		runTree(
-				hit,
-				widget -> widget.onMouseMove(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY())
-		);
+		event.set(containerX, containerY, 0);
+		dispatch(hit, EventType.MOVE);
 
 		@Nullable
-		WWidget hoveredWidget = runTree(
-				hit,
-				widget -> InputResult.of(widget.canHover() && widget.isWithinBounds(containerX - widget.getAbsoluteX(), containerY - widget.getAbsoluteY()))
-		);
+		WWidget hoveredWidget = dispatch(hit, EventType.HOVER);
 		hovered.set(hoveredWidget);
 	}
+
+	private enum EventType
+	{
+		DOWN,
+		UP,
+		CLICK,
+		DRAG,
+		SCROLL,
+		MOVE,
+		/**
+		 * Finds the hovered widget; processed by the first widget that {@linkplain WWidget#canHover() can be hovered}
+		 * and contains the mouse.
+		 */
+		HOVER
+	}
+
+	/**
+	 * The parameters of the event being dispatched, reused for every event.
+	 */
+	private static final class MouseEvent
+	{
+		private int containerX;
+		private int containerY;
+		private int button;
+		private double deltaX;
+		private double deltaY;
+		private double amount;
+
+		void set(int containerX, int containerY, int button)
+		{
+			this.containerX = containerX;
+			this.containerY = containerY;
+			this.button = button;
+			this.deltaX = 0;
+			this.deltaY = 0;
+			this.amount = 0;
+		}
+
+		InputResult deliver(WWidget widget, EventType type, int x, int y)
+		{
+			return switch (type)
+			{
+				case DOWN -> widget.onMouseDown(x, y, button);
+				case UP -> widget.onMouseUp(x, y, button);
+				case CLICK -> widget.onClick(x, y, button);
+				case DRAG -> widget.onMouseDrag(x, y, button, deltaX, deltaY);
+				case SCROLL -> widget.onMouseScroll(x, y, amount);
+				case MOVE -> widget.onMouseMove(x, y);
+				case HOVER -> InputResult.of(widget.canHover() && widget.isWithinBounds(x, y));
+			};
+		}
+	}
 }
@@ -34,6 +34,13 @@ import java.util.stream.Stream;
 public final class NarrationHelper
 {
 	public static void addNarrations(WPanel rootPanel, NarrationElementOutput builder)
+	{
+		long start = GuiProfiler.start();
+		addNarrationsImpl(rootPanel, builder);
+		GuiProfiler.stop(GuiProfiler.Metric.NARRATION, start);
+	}
+
+	private static void addNarrationsImpl(WPanel rootPanel, NarrationElementOutput builder)
 	{
 		List<WWidget> narratableWidgets = getAllWidgets(rootPanel)
 				.filter(WWidget::isNarratable)
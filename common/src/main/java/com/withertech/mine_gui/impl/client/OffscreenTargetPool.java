@@ -0,0 +1,174 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.systems.RenderSystem;
+import me.shedaniel.autoconfig.AutoConfig;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used pool of offscreen render targets used by
+ * {@linkplain com.withertech.mine_gui.widget.data.PaintCacheMode#FRAMEBUFFER framebuffer-cached panels}.
+ *
+ * <p>The total size of all allocated targets is limited by {@link MineGuiConfig#offscreenPixelBudget}.
+ * Allocating a target that would exceed the budget releases the least recently used targets first.
+ * Targets that have been used on the current {@linkplain AnimationScheduler#getFrame() frame} are never released,
+ * so panels that don't fit into the budget together don't evict each other every frame; the allocation fails instead.
+ * All methods must be called on the render thread.
+ */
+@Environment(EnvType.CLIENT)
+public final class OffscreenTargetPool
+{
+	private static final Map<Entry, Boolean> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+	private static long usedPixels = 0;
+
+	private OffscreenTargetPool()
+	{
+	}
+
+	/**
+	 * {@return the number of pixels currently allocated by all offscreen targets}
+	 */
+	public static long getUsedPixels()
+	{
+		return usedPixels;
+	}
+
+	private static long getBudget()
+	{
+		return AutoConfig.getConfigHolder(MineGuiConfig.class).getConfig().offscreenPixelBudget;
+	}
+
+	/**
+	 * A slot in the pool that can hold a single render target.
+	 */
+	public static final class Entry
+	{
+		@Nullable
+		private RenderTarget target = null;
+		private long usedFrame = -1;
+
+		/**
+		 * Gets the render target of this entry and marks it as recently used.
+		 *
+		 * @return the render target, or null if it has not been allocated or has been evicted
+		 */
+		@Nullable
+		public RenderTarget get()
+		{
+			if (target != null)
+			{
+				ENTRIES.get(this);
+				usedFrame = AnimationScheduler.getFrame();
+			}
+
+			return target;
+		}
+
+		/**
+		 * Allocates a render target of the specified size, releasing the previous target of this entry
+		 * and evicting other entries if needed.
+		 *
+		 * @param width  the width of the target in pixels
+		 * @param height the height of the target in pixels
+		 * @return the allocated target, or null if the target doesn't fit into the budget
+		 * without evicting targets used on the current frame
+		 */
+		@Nullable
+		public RenderTarget allocate(int width, int height)
+		{
+			release();
+
+			long pixels = (long) width * height;
+			long budget = getBudget();
+			if (pixels <= 0 || pixels > budget) return null;
+
+			long frame = AnimationScheduler.getFrame();
+			long evictablePixels = 0;
+			for (Entry entry : ENTRIES.keySet())
+			{
+				if (entry.usedFrame != frame) evictablePixels += entry.getPixels();
+			}
+
+			// Fail without evicting anything, evicting targets in use would only make their panels allocate again
+			if (usedPixels - evictablePixels + pixels > budget) return null;
+
+			Iterator<Entry> iterator = ENTRIES.keySet().iterator();
+			while (usedPixels + pixels > budget && iterator.hasNext())
+			{
+				Entry eldest = iterator.next();
+				if (eldest.usedFrame == frame) continue;
+
+				iterator.remove();
+				eldest.destroy();
+			}
+
+			target = new TextureTarget(width, height, true, Minecraft.ON_OSX);
+			usedPixels += pixels;
+			usedFrame = frame;
+			ENTRIES.put(this, Boolean.TRUE);
+			return target;
+		}
+
+		/**
+		 * Releases the render target of this entry, if allocated.
+		 */
+		public void release()
+		{
+			if (target != null)
+			{
+				ENTRIES.remove(this);
+				destroy();
+			}
+		}
+
+		private long getPixels()
+		{
+			return target != null ? (long) target.width * target.height : 0;
+		}
+
+		private void destroy()
+		{
+			if (target != null)
+			{
+				usedPixels -= getPixels();
+				RenderTarget released = target;
+				target = null;
+				RenderSystem.recordRenderCall(released::destroyBuffers);
+			}
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Entry{" +
+					"target=" + (target != null ? target.width + "x" + target.height : "none") +
+					'}';
+		}
+	}
+}
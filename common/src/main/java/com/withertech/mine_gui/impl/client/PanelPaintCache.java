@@ -0,0 +1,280 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.widget.WWidget;
+import com.withertech.mine_gui.widget.data.PaintCacheMode;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GameRenderer;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.opengl.GL11;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The retained paint state of a single panel.
+ *
+ * <p>The cache is keyed by the paint generation and size of the panel as well as the current theme
+ * and the {@linkplain GuiTextureAtlasImpl#getGeneration() GUI atlas generation}.
+ * When any of them differ from the recorded values, the panel is recorded again.
+ *
+ * <p>Widgets that must be painted live are marked in the recorded draw list at their position in the paint order,
+ * and the replay paints them between the recorded segments, so they keep their z-order relative to the static contents.
+ *
+ * <p>In {@linkplain PaintCacheMode#FRAMEBUFFER framebuffer mode}, the recorded draw list is additionally rendered
+ * into an offscreen target from the {@link OffscreenTargetPool}, which is then composited as a single quad.
+ * This is only possible if no static contents are painted above the live widgets; otherwise the draw list is replayed.
+ */
+@Environment(EnvType.CLIENT)
+public final class PanelPaintCache
+{
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private final DrawList drawList = new DrawList();
+	private final OffscreenTargetPool.Entry offscreen = new OffscreenTargetPool.Entry();
+	private boolean offscreenRendered = false;
+	private final List<WWidget> liveWidgets = new MarkingList();
+	private final List<WWidget> liveWidgetsView = Collections.unmodifiableList(liveWidgets);
+	private int generation;
+	private int width;
+	private int height;
+	private boolean darkMode;
+	private int atlasGeneration;
+
+	public PanelPaintCache()
+	{
+		OffscreenTargetPool.Entry entry = offscreen;
+		CLEANER.register(this, () -> RenderSystem.recordRenderCall(entry::release));
+	}
+
+	/**
+	 * Tests whether the recorded contents are still valid for a panel.
+	 *
+	 * @param panel      the panel
+	 * @param generation the current paint generation of the panel
+	 * @return true if the recorded contents can be replayed, false if they must be recorded again
+	 */
+	public boolean isValidFor(WWidget panel, int generation)
+	{
+		return drawList.isRecorded()
+				&& this.generation == generation
+				&& width == panel.getWidth()
+				&& height == panel.getHeight()
+				&& darkMode == MineGui.isDarkMode()
+				&& atlasGeneration == GuiTextureAtlasImpl.getGeneration();
+	}
+
+	/**
+	 * Records the static contents of a panel.
+	 *
+	 * <p>The recorder receives a fresh matrix stack whose origin is the top-left corner of the panel,
+	 * and a list where it should add the widgets that must be painted live every frame.
+	 *
+	 * @param panel      the panel
+	 * @param generation the current paint generation of the panel
+	 * @param recorder   the function that paints the static contents
+	 */
+	public void record(WWidget panel, int generation, BiConsumer<PoseStack, List<WWidget>> recorder)
+	{
+		liveWidgets.clear();
+		drawList.begin();
+
+		try
+		{
+			recorder.accept(new PoseStack(), liveWidgets);
+		} finally
+		{
+			drawList.end();
+		}
+
+		this.generation = generation;
+		this.width = panel.getWidth();
+		this.height = panel.getHeight();
+		this.darkMode = MineGui.isDarkMode();
+		this.atlasGeneration = GuiTextureAtlasImpl.getGeneration();
+		this.offscreenRendered = false;
+	}
+
+	/**
+	 * Replays the recorded contents and paints the live widgets in between.
+	 *
+	 * @param matrices    the rendering matrix stack
+	 * @param x           the X coordinate of the panel on the screen
+	 * @param y           the Y coordinate of the panel on the screen
+	 * @param mode        the paint cache mode of the panel
+	 * @param livePainter the function that paints a live widget by its index in the {@linkplain #getLiveWidgets() live widgets}
+	 */
+	public void replay(PoseStack matrices, int x, int y, PaintCacheMode mode, IntConsumer livePainter)
+	{
+		if (mode == PaintCacheMode.FRAMEBUFFER && drawList.areMarkersLast())
+		{
+			// The offscreen target is redrawn and composited directly, after anything still waiting in a batch
+			QuadBatch.flushAll();
+			RenderTarget target = prepareOffscreenTarget();
+
+			if (target != null)
+			{
+				composite(matrices, x, y, target);
+
+				for (int i = 0; i < liveWidgets.size(); i++)
+				{
+					livePainter.accept(i);
+				}
+				return;
+			}
+		} else
+		{
+			offscreen.release();
+		}
+
+		drawList.replay(matrices, x, y, livePainter);
+	}
+
+	@Nullable
+	private RenderTarget prepareOffscreenTarget()
+	{
+		double scale = Minecraft.getInstance().getWindow().getGuiScale();
+		int targetWidth = (int) Math.ceil(width * scale);
+		int targetHeight = (int) Math.ceil(height * scale);
+		RenderTarget target = offscreen.get();
+
+		if (target == null || target.width != targetWidth || target.height != targetHeight)
+		{
+			target = offscreen.allocate(targetWidth, targetHeight);
+			offscreenRendered = false;
+			if (target == null) return null;
+		}
+
+		if (!offscreenRendered)
+		{
+			renderOffscreen(target);
+			offscreenRendered = true;
+		}
+
+		return target;
+	}
+
+	private void renderOffscreen(RenderTarget target)
+	{
+		boolean scissor = GL11.glIsEnabled(GL11.GL_SCISSOR_TEST);
+		if (scissor) GL11.glDisable(GL11.GL_SCISSOR_TEST);
+
+		target.setClearColor(0, 0, 0, 0);
+		target.clear(Minecraft.ON_OSX);
+		target.bindWrite(true);
+
+		Matrix4f projection = RenderSystem.getProjectionMatrix();
+		RenderSystem.setProjectionMatrix(Matrix4f.orthographic(0, width, 0, height, 1000, 3000));
+		drawList.replay(new PoseStack(), 0, 0);
+		RenderSystem.setProjectionMatrix(projection);
+
+		Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+		if (scissor) GL11.glEnable(GL11.GL_SCISSOR_TEST);
+	}
+
+	private void composite(PoseStack matrices, int x, int y, RenderTarget target)
+	{
+		Matrix4f model = matrices.last().pose();
+		BufferBuilder buffer = Tesselator.getInstance().getBuilder();
+		RenderSystem.enableBlend();
+		// The offscreen target contains premultiplied colors
+		RenderSystem.blendFunc(GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+		RenderSystem.setShaderTexture(0, target.getColorTextureId());
+		RenderSystem.setShaderColor(1, 1, 1, 1);
+		RenderSystem.setShader(GameRenderer::getPositionTexShader);
+		// Render targets are stored bottom-up, so the V coordinates are flipped
+		buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+		buffer.vertex(model, x, y + height, 0).uv(0, 0).endVertex();
+		buffer.vertex(model, x + width, y + height, 0).uv(1, 0).endVertex();
+		buffer.vertex(model, x + width, y, 0).uv(1, 1).endVertex();
+		buffer.vertex(model, x, y, 0).uv(0, 1).endVertex();
+		buffer.end();
+		BufferUploader.end(buffer);
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.disableBlend();
+
+		GuiProfiler.count(GuiProfiler.Metric.QUADS, 1);
+		GuiProfiler.count(GuiProfiler.Metric.DRAW_CALLS, 1);
+	}
+
+	/**
+	 * {@return the widgets that were not recorded and must be painted every frame}
+	 */
+	public List<WWidget> getLiveWidgets()
+	{
+		return liveWidgetsView;
+	}
+
+	/**
+	 * Discards the recorded contents.
+	 */
+	public void clear()
+	{
+		liveWidgets.clear();
+		drawList.clear();
+		offscreen.release();
+		offscreenRendered = false;
+	}
+
+	/**
+	 * The list of live widgets, which marks the position of every added widget in the recorded draw list.
+	 */
+	private final class MarkingList extends ArrayList<WWidget>
+	{
+		@Override
+		public boolean add(WWidget widget)
+		{
+			drawList.mark();
+			return super.add(widget);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PanelPaintCache{" +
+				"drawList=" + drawList +
+				", liveWidgets=" + liveWidgets.size() +
+				", generation=" + generation +
+				", width=" + width +
+				", height=" + height +
+				", darkMode=" + darkMode +
+				", atlasGeneration=" + atlasGeneration +
+				", offscreen=" + offscreen +
+				'}';
+	}
+}
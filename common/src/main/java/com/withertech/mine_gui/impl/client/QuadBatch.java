@@ -0,0 +1,223 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.client.DrawBackend;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * An immediate {@link DrawBackend} that merges consecutive textured quads sharing a texture into a single draw.
+ *
+ * <p>While a batch is {@linkplain #begin() active}, textured quads are collected in a vertex buffer
+ * until a quad with another texture, an untextured quad, text or a scissor change arrives,
+ * which first submits the collected quads and then goes to the previous backend.
+ * The draw order is therefore unchanged as long as everything is drawn through {@link ScreenDrawing}.
+ * Items drawn by the {@link ItemRenderBatch} take part in the same order, so consecutive items are submitted together.
+ * Panels paint runs of {@linkplain com.withertech.mine_gui.widget.WWidget#isPaintBatchable() batchable}
+ * children in a batch. Batchable panels take part in the batch of their parent, so a batch only
+ * ends at the first child that isn't batchable. Built-in painters that draw directly, such as baked nine-patches,
+ * {@linkplain #flushAll() flush} the batch first.
+ */
+@Environment(EnvType.CLIENT)
+public final class QuadBatch implements DrawBackend
+{
+	private static final QuadBatch INSTANCE = new QuadBatch();
+	private final BufferBuilder builder = new BufferBuilder(1024);
+	@Nullable
+	private DrawBackend previous = null;
+	@Nullable
+	private ResourceLocation texture = null;
+	private int quads = 0;
+
+	private QuadBatch()
+	{
+	}
+
+	/**
+	 * Starts a batch if the active backend draws immediately and no batch is active.
+	 *
+	 * @return true if a batch was started and has to be {@linkplain #end() ended}, false otherwise
+	 */
+	public static boolean begin()
+	{
+		DrawBackend backend = ScreenDrawing.getBackend();
+		if (INSTANCE.previous != null || !backend.supportsRetainedDrawing()) return false;
+
+		INSTANCE.previous = ScreenDrawing.setBackend(INSTANCE);
+		return true;
+	}
+
+	/**
+	 * {@return whether a batch is active}
+	 */
+	public static boolean isActive()
+	{
+		return INSTANCE.previous != null;
+	}
+
+	/**
+	 * Submits the collected quads of the active batch, if any.
+	 */
+	static void flushQuads()
+	{
+		INSTANCE.flush();
+	}
+
+	/**
+	 * Submits the collected quads and items of the active batch, if any, without ending it.
+	 * Called before drawing directly while a batch may be active.
+	 */
+	static void flushAll()
+	{
+		INSTANCE.flush();
+		ItemRenderBatch.flush();
+	}
+
+	/**
+	 * Submits the collected quads and items and ends the active batch.
+	 *
+	 * @throws IllegalStateException if no batch is active
+	 */
+	public static void end()
+	{
+		if (INSTANCE.previous == null) throw new IllegalStateException("No active quad batch");
+
+		INSTANCE.flush();
+		ItemRenderBatch.flush();
+		ScreenDrawing.setBackend(INSTANCE.previous);
+		INSTANCE.previous = null;
+	}
+
+	@Override
+	public void quad(Matrix4f pose, float x1, float y1, float x2, float y2, @Nullable ResourceLocation texture, float u1, float v1, float u2, float v2, int color)
+	{
+		ItemRenderBatch.flush();
+
+		if (texture == null)
+		{
+			flush();
+			delegate().quad(pose, x1, y1, x2, y2, null, u1, v1, u2, v2, color);
+			return;
+		}
+
+		if (!texture.equals(this.texture)) flush();
+
+		if (quads == 0)
+		{
+			this.texture = texture;
+			builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR_TEX);
+		}
+
+		int a = color >> 24 & 255;
+		int r = color >> 16 & 255;
+		int g = color >> 8 & 255;
+		int b = color & 255;
+		builder.vertex(pose, x1, y2, 0).color(r, g, b, a).uv(u1, v2).endVertex();
+		builder.vertex(pose, x2, y2, 0).color(r, g, b, a).uv(u2, v2).endVertex();
+		builder.vertex(pose, x2, y1, 0).color(r, g, b, a).uv(u2, v1).endVertex();
+		builder.vertex(pose, x1, y1, 0).color(r, g, b, a).uv(u1, v1).endVertex();
+		quads++;
+	}
+
+	@Override
+	public void text(Matrix4f pose, String text, float x, float y, int color, boolean shadow)
+	{
+		flush();
+		ItemRenderBatch.flush();
+		delegate().text(pose, text, x, y, color, shadow);
+	}
+
+	@Override
+	public void text(Matrix4f pose, FormattedCharSequence text, float x, float y, int color, boolean shadow)
+	{
+		flush();
+		ItemRenderBatch.flush();
+		delegate().text(pose, text, x, y, color, shadow);
+	}
+
+	@Override
+	public void scissor(int x, int y, int width, int height)
+	{
+		flush();
+		ItemRenderBatch.flush();
+		delegate().scissor(x, y, width, height);
+	}
+
+	@Override
+	public void clearScissor()
+	{
+		flush();
+		ItemRenderBatch.flush();
+		delegate().clearScissor();
+	}
+
+	@Override
+	public boolean supportsRetainedDrawing()
+	{
+		return delegate().supportsRetainedDrawing();
+	}
+
+	private DrawBackend delegate()
+	{
+		return Objects.requireNonNull(previous, "No active quad batch");
+	}
+
+	private void flush()
+	{
+		if (quads == 0) return;
+
+		builder.end();
+		RenderSystem.enableBlend();
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.setShaderTexture(0, Objects.requireNonNull(texture));
+		RenderSystem.setShaderColor(1, 1, 1, 1);
+		RenderSystem.setShader(GameRenderer::getPositionColorTexShader);
+		BufferUploader.end(builder);
+		RenderSystem.disableBlend();
+
+		GuiProfiler.count(GuiProfiler.Metric.QUADS, quads);
+		GuiProfiler.count(GuiProfiler.Metric.DRAW_CALLS, 1);
+		quads = 0;
+		texture = null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "QuadBatch{" +
+				"texture=" + texture +
+				", quads=" + quads +
+				", active=" + (previous != null) +
+				'}';
+	}
+}
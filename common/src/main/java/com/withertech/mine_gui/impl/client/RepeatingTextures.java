@@ -0,0 +1,72 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.resources.ResourceLocation;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Switches standalone textures to repeat wrapping, so that a tiled area can be drawn
+ * as a single quad with UVs beyond {@code [0, 1]}.
+ *
+ * <p>The wrap mode is set once per texture object. Reloaded textures are new objects and are switched again.
+ */
+@Environment(EnvType.CLIENT)
+public final class RepeatingTextures
+{
+	private static final Set<AbstractTexture> REPEATING = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private RepeatingTextures()
+	{
+	}
+
+	/**
+	 * Makes a texture repeat when it is sampled outside of its edges.
+	 *
+	 * @param location the texture location
+	 * @return true if the texture repeats, false if it cannot repeat because it is a texture atlas
+	 */
+	public static boolean makeRepeating(ResourceLocation location)
+	{
+		RenderSystem.assertOnRenderThread();
+		AbstractTexture texture = Minecraft.getInstance().getTextureManager().getTexture(location);
+		// Repeating an atlas would tile the whole atlas instead of one of its sprites
+		if (texture instanceof TextureAtlas) return false;
+
+		if (REPEATING.add(texture))
+		{
+			texture.bind();
+			GlStateManager._texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+			GlStateManager._texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.withertech.mine_gui.widget.WScrollBar;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Drives the inertial scrolling of all {@linkplain WScrollBar scroll bars}.
+ *
+ * <p>A {@linkplain #fling(WScrollBar, double) fling} gives a scroll bar a velocity that decays exponentially,
+ * so that it travels the flung distance in total. The scroll positions are integrated exactly over the
+ * time between frames of the shared {@linkplain AnimationScheduler animation clock}, which makes the scrolling
+ * independent of the frame rate. An animation stops when it slows down, reaches an end of the scroll bar
+ * or when the scroll bar value is changed by something else.
+ */
+@Environment(EnvType.CLIENT)
+public final class ScrollAnimator
+{
+	// The rate at which the velocity decays, per second
+	private static final double FRICTION = 12;
+	// Animations slower than this many pixels per second are stopped
+	private static final double MIN_VELOCITY = 4;
+	private static final Map<WScrollBar, Animation> ANIMATIONS = new IdentityHashMap<>();
+
+	private ScrollAnimator()
+	{
+	}
+
+	/**
+	 * Scrolls a scroll bar by a distance with inertia.
+	 * Flings in the same direction as a running animation add up.
+	 *
+	 * @param scrollBar the scroll bar
+	 * @param distance  the scrolled distance in scroll bar values
+	 */
+	public static void fling(WScrollBar scrollBar, double distance)
+	{
+		Animation animation = ANIMATIONS.get(scrollBar);
+		if (animation == null || animation.lastValue != scrollBar.getValue())
+		{
+			animation = new Animation(scrollBar.getValue());
+			ANIMATIONS.put(scrollBar, animation);
+		} else if (Math.signum(animation.velocity) != Math.signum(distance))
+		{
+			animation.velocity = 0;
+		}
+
+		animation.velocity += distance * FRICTION;
+	}
+
+	/**
+	 * Stops the scroll animation of a scroll bar.
+	 *
+	 * @param scrollBar the scroll bar
+	 */
+	public static void stop(WScrollBar scrollBar)
+	{
+		ANIMATIONS.remove(scrollBar);
+	}
+
+	/**
+	 * Tests whether any scroll bar is being animated.
+	 *
+	 * @return true if a scroll bar is being animated, false otherwise
+	 */
+	public static boolean isAnimating()
+	{
+		return !ANIMATIONS.isEmpty();
+	}
+
+	/**
+	 * Advances all scroll animations to the current frame. Called once per frame by the {@link AnimationScheduler}.
+	 *
+	 * @param deltaNanos the elapsed time since the last frame in nanoseconds
+	 */
+	static void tick(long deltaNanos)
+	{
+		if (ANIMATIONS.isEmpty() || deltaNanos <= 0) return;
+
+		double seconds = deltaNanos / 1e9;
+		double decay = Math.exp(-FRICTION * seconds);
+
+		for (Iterator<Map.Entry<WScrollBar, Animation>> it = ANIMATIONS.entrySet().iterator(); it.hasNext(); )
+		{
+			Map.Entry<WScrollBar, Animation> entry = it.next();
+			WScrollBar scrollBar = entry.getKey();
+			Animation animation = entry.getValue();
+
+			// The value was changed by dragging, keys or code
+			if (scrollBar.getValue() != animation.lastValue)
+			{
+				it.remove();
+				continue;
+			}
+
+			// Exact integral of the decaying velocity over the frame
+			animation.position += animation.velocity * (1 - decay) / FRICTION;
+			animation.velocity *= decay;
+
+			int max = Math.max(scrollBar.getMaxScrollValue(), 0);
+			if (animation.position <= 0 || animation.position >= max)
+			{
+				animation.position = Math.max(0, Math.min(animation.position, max));
+				animation.velocity = 0;
+			}
+
+			scrollBar.setValue((int) Math.round(animation.position));
+			animation.lastValue = scrollBar.getValue();
+
+			if (Math.abs(animation.velocity) < MIN_VELOCITY) it.remove();
+		}
+	}
+
+	private static final class Animation
+	{
+		private double position;
+		private double velocity = 0;
+		private int lastValue;
+
+		private Animation(int value)
+		{
+			this.position = value;
+			this.lastValue = value;
+		}
+	}
+}
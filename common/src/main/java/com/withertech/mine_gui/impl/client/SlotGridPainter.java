@@ -0,0 +1,197 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.impl.client;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.renderer.GameRenderer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paints the backgrounds of {@linkplain com.withertech.mine_gui.widget.WItemSlot item slot} grids
+ * for {@link com.withertech.mine_gui.client.BackgroundPainter#SLOT}.
+ *
+ * <p>The bevels of a whole grid are recorded into a single {@link DrawList} that is cached by
+ * the grid dimensions and slot size, so a grid of any size is drawn with a single draw call.
+ * The least recently used grids are released when more than {@value #MAX_GRIDS} grids are cached,
+ * and all grids are released on resource reload.
+ * The focus highlight is drawn separately on top of the cached grid.
+ */
+@Environment(EnvType.CLIENT)
+public final class SlotGridPainter
+{
+	private static final int SLOT_SIZE = 18;
+	private static final int BIG_SLOT_SIZE = 26;
+	private static final int BIG_SLOT_OFFSET = -4;
+	private static final int SHADOW_COLOR = 0xB8000000;
+	private static final int BACKGROUND_COLOR = 0x4C000000;
+	// This will cause a slightly discolored bottom border on vanilla backgrounds but it's necessary for color support,
+	// it shouldn't be *too* visible unless you're looking for it
+	private static final int HILIGHT_COLOR = 0xB8FFFFFF;
+	private static final int FOCUS_COLOR = 0xFF_FFFFA0;
+	private static final int MAX_GRIDS = 64;
+	private static final Map<Key, DrawList> GRIDS = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, DrawList> eldest)
+		{
+			if (size() <= MAX_GRIDS) return false;
+
+			eldest.getValue().clear();
+			return true;
+		}
+	};
+
+	private SlotGridPainter()
+	{
+	}
+
+	/**
+	 * Paints the background of a slot grid.
+	 *
+	 * @param matrices    the rendering matrix stack
+	 * @param left        the X coordinate of the grid on the screen
+	 * @param top         the Y coordinate of the grid on the screen
+	 * @param slotsWide   the number of slot columns
+	 * @param slotsHigh   the number of slot rows
+	 * @param big         whether the slots are big output slots
+	 * @param focusedSlot the index of the focused slot, or -1 if there is none
+	 */
+	public static void paint(PoseStack matrices, int left, int top, int slotsWide, int slotsHigh, boolean big, int focusedSlot)
+	{
+		if (!ScreenDrawing.getBackend().supportsRetainedDrawing())
+		{
+			// Already being recorded into an enclosing draw list, or drawn by a backend that must see every quad
+			paintGrid(matrices, left, top, slotsWide, slotsHigh, big);
+		} else
+		{
+			GRIDS.computeIfAbsent(new Key(slotsWide, slotsHigh, big), SlotGridPainter::recordGrid).replay(matrices, left, top);
+		}
+
+		if (focusedSlot >= 0 && focusedSlot < slotsWide * slotsHigh)
+		{
+			int size = big ? BIG_SLOT_SIZE : SLOT_SIZE;
+			int offset = big ? BIG_SLOT_OFFSET : 0;
+			int x = (focusedSlot % slotsWide) * SLOT_SIZE + left + offset;
+			int y = (focusedSlot / slotsWide) * SLOT_SIZE + top + offset;
+			paintFocus(matrices, x, y, size);
+		}
+	}
+
+	/**
+	 * Releases all cached grids. Called on resource reload.
+	 */
+	public static void clear()
+	{
+		for (DrawList grid : GRIDS.values())
+		{
+			grid.clear();
+		}
+
+		GRIDS.clear();
+	}
+
+	private static DrawList recordGrid(Key key)
+	{
+		DrawList list = new DrawList();
+		list.begin();
+
+		try
+		{
+			paintGrid(new PoseStack(), 0, 0, key.slotsWide(), key.slotsHigh(), key.big());
+		} finally
+		{
+			list.end();
+		}
+
+		return list;
+	}
+
+	private static void paintGrid(PoseStack matrices, int left, int top, int slotsWide, int slotsHigh, boolean big)
+	{
+		int size = big ? BIG_SLOT_SIZE : SLOT_SIZE;
+		int offset = big ? BIG_SLOT_OFFSET : 0;
+
+		for (int x = 0; x < slotsWide; ++x)
+		{
+			for (int y = 0; y < slotsHigh; ++y)
+			{
+				ScreenDrawing.drawBeveledPanel(matrices, (x * SLOT_SIZE) + left + offset, (y * SLOT_SIZE) + top + offset, size, size,
+						SHADOW_COLOR, BACKGROUND_COLOR, HILIGHT_COLOR);
+			}
+		}
+	}
+
+	private static void paintFocus(PoseStack matrices, int x, int y, int size)
+	{
+		if (!ScreenDrawing.getBackend().supportsRetainedDrawing())
+		{
+			ScreenDrawing.coloredRect(matrices, x, y, size, 1, FOCUS_COLOR);
+			ScreenDrawing.coloredRect(matrices, x, y + 1, 1, size - 1, FOCUS_COLOR);
+			ScreenDrawing.coloredRect(matrices, x + size - 1, y + 1, 1, size - 1, FOCUS_COLOR);
+			ScreenDrawing.coloredRect(matrices, x + 1, y + size - 1, size - 1, 1, FOCUS_COLOR);
+			return;
+		}
+
+		// Drawn directly, so the quads of an active batch have to be drawn first
+		QuadBatch.flushAll();
+		Matrix4f model = matrices.last().pose();
+		BufferBuilder buffer = Tesselator.getInstance().getBuilder();
+		RenderSystem.enableBlend();
+		RenderSystem.disableTexture();
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.setShader(GameRenderer::getPositionColorShader);
+		buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
+		quad(buffer, model, x, y, size, 1);
+		quad(buffer, model, x, y + 1, 1, size - 1);
+		quad(buffer, model, x + size - 1, y + 1, 1, size - 1);
+		quad(buffer, model, x + 1, y + size - 1, size - 1, 1);
+		buffer.end();
+		BufferUploader.end(buffer);
+		RenderSystem.enableTexture();
+		RenderSystem.disableBlend();
+	}
+
+	private static void quad(BufferBuilder buffer, Matrix4f model, int x, int y, int width, int height)
+	{
+		int a = FOCUS_COLOR >> 24 & 255;
+		int r = FOCUS_COLOR >> 16 & 255;
+		int g = FOCUS_COLOR >> 8 & 255;
+		int b = FOCUS_COLOR & 255;
+		buffer.vertex(model, x, y + height, 0).color(r, g, b, a).endVertex();
+		buffer.vertex(model, x + width, y + height, 0).color(r, g, b, a).endVertex();
+		buffer.vertex(model, x + width, y, 0).color(r, g, b, a).endVertex();
+		buffer.vertex(model, x, y, 0).color(r, g, b, a).endVertex();
+	}
+
+	private record Key(int slotsWide, int slotsHigh, boolean big)
+	{
+	}
+}
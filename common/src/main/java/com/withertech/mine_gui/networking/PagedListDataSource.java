@@ -0,0 +1,365 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.networking;
+
+import com.withertech.mine_gui.SyncedGuiDescription;
+import com.withertech.mine_gui.widget.data.ListDataSource;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A list data source that loads its items from the server in pages.
+ *
+ * <p>The client requests the pages of the shown items and a number of prefetch pages around them
+ * with {@linkplain ScreenNetworking screen messages}. Loaded pages are kept in a least recently used cache.
+ * Both sides should set up the data source in the constructor of the GUI description:
+ *
+ * <pre>
+ * {@code
+ * private static final ResourceLocation LOG_ID = new ResourceLocation("my_mod", "audit_log");
+ *
+ * // Server: serves the pages of the log
+ * PagedListDataSource.serve(this, LOG_ID, auditLog, (buf, entry) -> entry.write(buf));
+ *
+ * // Client: shows the log in a list panel
+ * WListPanel<LogEntry, WLabel> list = new WListPanel<>(PagedListDataSource.client(this, LOG_ID, LogEntry::read), ...);
+ * }
+ * </pre>
+ *
+ * <p>Calling both methods on both sides is fine, as each of them only registers a receiver on its own side.
+ *
+ * @param <D> the item type
+ */
+public final class PagedListDataSource<D> implements ListDataSource<D>
+{
+	/**
+	 * The largest number of items that the server sends in a single page.
+	 */
+	public static final int MAX_PAGE_SIZE = 256;
+	private final SyncedGuiDescription description;
+	private final ResourceLocation requestMessage;
+	private final Function<FriendlyByteBuf, D> reader;
+	private final Set<Integer> pendingPages = new HashSet<>();
+	private final List<Runnable> listeners = new ArrayList<>();
+	private final Map<Integer, List<D>> pages = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, List<D>> eldest)
+		{
+			return size() > maxCachedPages;
+		}
+	};
+	private int pageSize = 50;
+	private int prefetchPages = 1;
+	private int maxCachedPages = 16;
+	private int size = -1;
+	private int generation = 0;
+
+	private PagedListDataSource(SyncedGuiDescription description, ResourceLocation id, Function<FriendlyByteBuf, D> reader)
+	{
+		this.description = description;
+		this.requestMessage = requestMessage(id);
+		this.reader = reader;
+	}
+
+	/**
+	 * Creates a data source on the client that loads the items from a list {@linkplain #serve served} by the server.
+	 *
+	 * @param description the GUI description
+	 * @param id          the ID of the list, must match the ID on the server
+	 * @param reader      a reader that reads an item from a packet buffer
+	 * @param <D>         the item type
+	 * @return the data source
+	 * @throws IllegalStateException if a list with the ID has already been registered
+	 */
+	public static <D> PagedListDataSource<D> client(SyncedGuiDescription description, ResourceLocation id, Function<FriendlyByteBuf, D> reader)
+	{
+		Objects.requireNonNull(description, "description");
+		Objects.requireNonNull(id, "id");
+		Objects.requireNonNull(reader, "reader");
+
+		PagedListDataSource<D> source = new PagedListDataSource<>(description, id, reader);
+		ScreenNetworking.of(description, NetworkSide.CLIENT).receive(pageMessage(id), source::receivePage);
+		return source;
+	}
+
+	/**
+	 * Serves the pages of a list to a {@linkplain #client client} data source.
+	 *
+	 * @param description the GUI description
+	 * @param id          the ID of the list, must match the ID on the client
+	 * @param data        the list, which can be changed while it's served
+	 * @param writer      a writer that writes an item to a packet buffer
+	 * @param <D>         the item type
+	 * @throws IllegalStateException if a list with the ID has already been registered
+	 */
+	public static <D> void serve(SyncedGuiDescription description, ResourceLocation id, List<? extends D> data, BiConsumer<FriendlyByteBuf, ? super D> writer)
+	{
+		Objects.requireNonNull(description, "description");
+		Objects.requireNonNull(id, "id");
+		Objects.requireNonNull(data, "data");
+		Objects.requireNonNull(writer, "writer");
+
+		ResourceLocation pageMessage = pageMessage(id);
+		ScreenNetworking.of(description, NetworkSide.SERVER).receive(requestMessage(id), buf ->
+		{
+			int generation = buf.readVarInt();
+			int page = buf.readVarInt();
+			int pageSize = Math.max(1, Math.min(buf.readVarInt(), MAX_PAGE_SIZE));
+			// The request comes from the client, so only well-formed pages are answered.
+			// Pages past the end are answered with no items, so that the client learns the current size.
+			if (page < 0) return;
+
+			int total = data.size();
+			int from = (int) Math.min((long) page * pageSize, total);
+			int to = Math.min(from + pageSize, total);
+
+			ScreenNetworking.of(description, NetworkSide.SERVER).send(pageMessage, out ->
+			{
+				out.writeVarInt(generation);
+				out.writeVarInt(page);
+				out.writeVarInt(total);
+				out.writeVarInt(to - from);
+				for (int i = from; i < to; i++)
+				{
+					writer.accept(out, data.get(i));
+				}
+			});
+		});
+	}
+
+	private static ResourceLocation requestMessage(ResourceLocation id)
+	{
+		return new ResourceLocation(id.getNamespace(), id.getPath() + "/request");
+	}
+
+	private static ResourceLocation pageMessage(ResourceLocation id)
+	{
+		return new ResourceLocation(id.getNamespace(), id.getPath() + "/page");
+	}
+
+	/**
+	 * Gets the number of items requested in a page.
+	 *
+	 * @return the page size
+	 */
+	public int getPageSize()
+	{
+		return pageSize;
+	}
+
+	/**
+	 * Sets the number of items requested in a page. This {@linkplain #invalidate() invalidates} the loaded pages.
+	 *
+	 * @param pageSize the page size, between 1 and {@value #MAX_PAGE_SIZE}
+	 * @return this data source
+	 * @throws IllegalArgumentException if the page size is out of range
+	 */
+	public PagedListDataSource<D> setPageSize(int pageSize)
+	{
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+		{
+			throw new IllegalArgumentException("Page size " + pageSize + " out of range: 1 <= size <= " + MAX_PAGE_SIZE);
+		}
+
+		this.pageSize = pageSize;
+		invalidate();
+		return this;
+	}
+
+	/**
+	 * Gets the number of pages that are loaded before and after the shown items.
+	 *
+	 * @return the number of prefetch pages
+	 */
+	public int getPrefetchPages()
+	{
+		return prefetchPages;
+	}
+
+	/**
+	 * Sets the number of pages that are loaded before and after the shown items.
+	 *
+	 * @param prefetchPages the number of prefetch pages
+	 * @return this data source
+	 * @throws IllegalArgumentException if the number is negative
+	 */
+	public PagedListDataSource<D> setPrefetchPages(int prefetchPages)
+	{
+		if (prefetchPages < 0) throw new IllegalArgumentException("Negative prefetch pages: " + prefetchPages);
+		this.prefetchPages = prefetchPages;
+		return this;
+	}
+
+	/**
+	 * Gets the maximum number of pages kept in the cache.
+	 *
+	 * @return the maximum number of cached pages
+	 */
+	public int getMaxCachedPages()
+	{
+		return maxCachedPages;
+	}
+
+	/**
+	 * Sets the maximum number of pages kept in the cache. The least recently used pages are removed first.
+	 *
+	 * @param maxCachedPages the maximum number of cached pages
+	 * @return this data source
+	 * @throws IllegalArgumentException if the number is not positive
+	 */
+	public PagedListDataSource<D> setMaxCachedPages(int maxCachedPages)
+	{
+		if (maxCachedPages < 1) throw new IllegalArgumentException("Max cached pages must be positive: " + maxCachedPages);
+		this.maxCachedPages = maxCachedPages;
+		return this;
+	}
+
+	/**
+	 * Discards all loaded pages, for example when the served data has changed.
+	 * Pages that are still being loaded are ignored when they arrive.
+	 */
+	public void invalidate()
+	{
+		generation++;
+		pages.clear();
+		pendingPages.clear();
+		fireChanged();
+	}
+
+	@Override
+	public int size()
+	{
+		if (size < 0)
+		{
+			// The size is sent with every page
+			request(0);
+			return 0;
+		}
+
+		return size;
+	}
+
+	@Nullable
+	@Override
+	public D get(int index)
+	{
+		if (index < 0 || index >= size) return null;
+
+		int page = index / pageSize;
+		List<D> items = pages.get(page);
+
+		if (items == null)
+		{
+			request(page);
+			return null;
+		}
+
+		int offset = index - page * pageSize;
+		return offset < items.size() ? items.get(offset) : null;
+	}
+
+	@Override
+	public void prefetch(int fromIndex, int toIndex)
+	{
+		if (size <= 0 || toIndex <= fromIndex) return;
+
+		int lastPage = (size - 1) / pageSize;
+		int first = Math.max(0, fromIndex / pageSize - prefetchPages);
+		int last = Math.min(lastPage, (toIndex - 1) / pageSize + prefetchPages);
+
+		for (int page = first; page <= last; page++)
+		{
+			if (!pages.containsKey(page)) request(page);
+		}
+	}
+
+	@Override
+	public void addChangeListener(Runnable listener)
+	{
+		listeners.add(Objects.requireNonNull(listener, "listener"));
+	}
+
+	private void request(int page)
+	{
+		if (!pendingPages.add(page)) return;
+
+		int requestGeneration = generation;
+		int requestPageSize = pageSize;
+		ScreenNetworking.of(description, NetworkSide.CLIENT).send(requestMessage, buf ->
+		{
+			buf.writeVarInt(requestGeneration);
+			buf.writeVarInt(page);
+			buf.writeVarInt(requestPageSize);
+		});
+	}
+
+	private void receivePage(FriendlyByteBuf buf)
+	{
+		int pageGeneration = buf.readVarInt();
+		if (pageGeneration != generation) return;
+
+		int page = buf.readVarInt();
+		int total = buf.readVarInt();
+		int count = buf.readVarInt();
+		List<D> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			items.add(reader.apply(buf));
+		}
+
+		pendingPages.remove(page);
+		size = total;
+		pages.put(page, items);
+		fireChanged();
+	}
+
+	private void fireChanged()
+	{
+		for (Runnable listener : listeners)
+		{
+			listener.run();
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PagedListDataSource{" +
+				"requestMessage=" + requestMessage +
+				", pageSize=" + pageSize +
+				", prefetchPages=" + prefetchPages +
+				", maxCachedPages=" + maxCachedPages +
+				", size=" + size +
+				", loadedPages=" + pages.keySet() +
+				", pendingPages=" + pendingPages +
+				'}';
+	}
+}
@@ -194,6 +194,18 @@ public class WBar extends WWidget
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Bars only draw through {@link ScreenDrawing}, so they are batchable even though they change every frame.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintBatchable()
+	{
+		return true;
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
@@ -21,6 +21,8 @@ package com.withertech.mine_gui.widget;
 import com.withertech.mine_gui.widget.data.Axis;
 import com.withertech.mine_gui.widget.data.HorizontalAlignment;
 import com.withertech.mine_gui.widget.data.Insets;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
 import com.withertech.mine_gui.widget.data.VerticalAlignment;
 
 import java.util.Objects;
@@ -79,10 +81,12 @@ public class WBox extends WPanelWithInsets
 	{
 		widget.setParent(this);
 		children.add(widget);
-		if (canResize())
+		if (widget.canResize())
 		{
 			widget.setSize(width, height);
 		}
+
+		invalidateLayout();
 	}
 
 	/**
@@ -96,6 +100,31 @@ public class WBox extends WPanelWithInsets
 		add(widget, 18, 18);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Boxes are as large as their children placed along the axis, including the spacing and the insets.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		int main = 0;
+		int cross = 0;
+
+		for (WWidget child : children)
+		{
+			Size size = child.measure(LayoutConstraints.UNBOUNDED);
+			main += axis.choose(size.width(), size.height());
+			cross = Math.max(cross, axis.choose(size.height(), size.width()));
+		}
+
+		if (!children.isEmpty()) main += spacing * (children.size() - 1);
+
+		int width = axis.choose(main, cross) + insets.left() + insets.right();
+		int height = axis.choose(cross, main) + insets.top() + insets.bottom();
+		return withMinimumSize(width, height);
+	}
+
 	@Override
 	public void layout()
 	{
@@ -104,72 +133,77 @@ public class WBox extends WPanelWithInsets
 		// Set position offset from alignment along the box axis
 		if (axis == Axis.HORIZONTAL && horizontalAlignment != HorizontalAlignment.LEFT)
 		{
-			int widgetWidth = spacing * (children.size() - 1);
-			for (WWidget child : children)
-			{
-				widgetWidth += child.getWidth();
-			}
+			int available = getWidth() - insets.left() - insets.right();
+			int widgetWidth = getContentLength();
 
 			if (horizontalAlignment == HorizontalAlignment.CENTER)
 			{
-				dimension = (getWidth() - widgetWidth) / 2;
+				dimension += (available - widgetWidth) / 2;
 			} else
 			{ // right
-				dimension = getWidth() - widgetWidth;
+				dimension += available - widgetWidth;
 			}
-		} else if (verticalAlignment != VerticalAlignment.TOP)
+		} else if (axis == Axis.VERTICAL && verticalAlignment != VerticalAlignment.TOP)
 		{
-			int widgetHeight = spacing * (children.size() - 1);
-			for (WWidget child : children)
-			{
-				widgetHeight += child.getHeight();
-			}
+			int available = getHeight() - insets.top() - insets.bottom();
+			int widgetHeight = getContentLength();
 
 			if (verticalAlignment == VerticalAlignment.CENTER)
 			{
-				dimension = (getHeight() - widgetHeight) / 2;
+				dimension += (available - widgetHeight) / 2;
 			} else
 			{ // bottom
-				dimension = getHeight() - widgetHeight;
+				dimension += available - widgetHeight;
 			}
 		}
 
 		for (int i = 0; i < children.size(); i++)
 		{
 			WWidget child = children.get(i);
+			Size size = child.measure(LayoutConstraints.UNBOUNDED);
 
 			if (axis == Axis.HORIZONTAL)
 			{
 				int y = switch (verticalAlignment)
 						{
 							case TOP -> insets.top();
-							case CENTER -> insets.top() + (getHeight() - insets.top() - insets.bottom() - child.getHeight()) / 2;
-							case BOTTOM -> getHeight() - insets.bottom() - child.getHeight();
+							case CENTER -> insets.top() + (getHeight() - insets.top() - insets.bottom() - size.height()) / 2;
+							case BOTTOM -> getHeight() - insets.bottom() - size.height();
 						};
 
-				child.setLocation(dimension, y);
+				child.arrange(dimension, y, size.width(), size.height());
 			} else
 			{
 				int x = switch (horizontalAlignment)
 						{
 							case LEFT -> insets.left();
-							case CENTER -> insets.left() + (getWidth() - insets.left() - insets.right() - child.getWidth()) / 2;
-							case RIGHT -> getWidth() - insets.right() - child.getWidth();
+							case CENTER -> insets.left() + (getWidth() - insets.left() - insets.right() - size.width()) / 2;
+							case RIGHT -> getWidth() - insets.right() - size.width();
 						};
 
-				child.setLocation(x, dimension);
+				child.arrange(x, dimension, size.width(), size.height());
 			}
 
-			if (child instanceof WPanel) ((WPanel) child).layout();
-			expandToFit(child, insets);
-
 			if (i != children.size() - 1)
 			{
 				dimension += spacing;
 			}
 
-			dimension += axis.choose(child.getWidth(), child.getHeight());
+			dimension += axis.choose(size.width(), size.height());
+		}
+	}
+
+	private int getContentLength()
+	{
+		int length = spacing * (children.size() - 1);
+
+		for (WWidget child : children)
+		{
+			Size size = child.measure(LayoutConstraints.UNBOUNDED);
+			length += axis.choose(size.width(), size.height());
 		}
+
+		return length;
 	}
 
 	/**
@@ -191,6 +225,7 @@ public class WBox extends WPanelWithInsets
 	public WBox setSpacing(int spacing)
 	{
 		this.spacing = spacing;
+		invalidateLayout();
 
 		return this;
 	}
@@ -215,6 +250,7 @@ public class WBox extends WPanelWithInsets
 	public WBox setAxis(Axis axis)
 	{
 		this.axis = Objects.requireNonNull(axis, "axis");
+		invalidateLayout();
 		return this;
 	}
 
@@ -240,6 +276,7 @@ public class WBox extends WPanelWithInsets
 	public WBox setHorizontalAlignment(HorizontalAlignment alignment)
 	{
 		this.horizontalAlignment = Objects.requireNonNull(alignment, "alignment");
+		invalidateLayout();
 		return this;
 	}
 
@@ -265,6 +302,7 @@ public class WBox extends WPanelWithInsets
 	public WBox setVerticalAlignment(VerticalAlignment alignment)
 	{
 		this.verticalAlignment = Objects.requireNonNull(alignment, "alignment");
+		invalidateLayout();
 		return this;
 	}
 
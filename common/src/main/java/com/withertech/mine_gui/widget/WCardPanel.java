@@ -19,6 +19,8 @@
 package com.withertech.mine_gui.widget;
 
 import com.withertech.mine_gui.GuiDescription;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 
@@ -60,6 +62,7 @@ public class WCardPanel extends WPanel
 		card.setParent(this);
 		card.setLocation(0, 0);
 		expandToFit(card);
+		invalidateLayout();
 	}
 
 	/**
@@ -163,14 +166,25 @@ public class WCardPanel extends WPanel
 		return cards.size();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Card panels are as large as their largest card.
+	 */
 	@Override
-	public void setSize(int x, int y)
+	protected Size computeSize(LayoutConstraints constraints)
 	{
-		super.setSize(x, y);
+		int width = 0;
+		int height = 0;
+
 		for (WWidget card : cards)
 		{
-			card.setSize(x, y);
+			Size size = card.measure(LayoutConstraints.UNBOUNDED);
+			width = Math.max(width, size.width());
+			height = Math.max(height, size.height());
 		}
+
+		return withMinimumSize(width, height);
 	}
 
 	@Override
@@ -180,8 +194,7 @@ public class WCardPanel extends WPanel
 
 		for (WWidget child : cards)
 		{
-			if (child instanceof WPanel) ((WPanel) child).layout();
-			expandToFit(child);
+			child.arrange(0, 0, getWidth(), getHeight());
 
 			if (child == getSelectedCard())
 			{
@@ -192,11 +205,6 @@ public class WCardPanel extends WPanel
 			}
 		}
 
-		for (WWidget child : cards)
-		{
-			child.setSize(getWidth(), getHeight());
-		}
-
 		children.add(getSelectedCard());
 	}
 
@@ -214,7 +222,7 @@ public class WCardPanel extends WPanel
 			throw new IllegalStateException("No children in card panel");
 		}
 
-		layout();
+		validateLayout();
 		for (WWidget card : cards)
 		{
 			card.validate(c);
@@ -20,9 +20,12 @@ package com.withertech.mine_gui.widget;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.client.Scissors;
+import com.withertech.mine_gui.impl.client.QuadBatch;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 
+import java.util.List;
+
 /**
  * A panel that is clipped to only render widgets inside its bounds.
  */
@@ -35,13 +38,33 @@ public class WClippedPanel extends WPanel
 		if (getBackgroundPainter() != null) getBackgroundPainter().paintBackground(matrices, x, y, this);
 
 		Scissors.push(x, y, width, height);
-		for (WWidget child : children)
+		boolean batching = false;
+		try
+		{
+			for (WWidget child : children)
+			{
+				batching = updateBatch(child, batching);
+				child.paint(matrices, x + child.getX(), y + child.getY(), mouseX - child.getX(), mouseY - child.getY());
+			}
+		} finally
 		{
-			child.paint(matrices, x + child.getX(), y + child.getY(), mouseX - child.getX(), mouseY - child.getY());
+			if (batching) QuadBatch.end();
 		}
 		Scissors.pop();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Clipped panels are always painted live, as scissor frames cannot be recorded.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	protected void recordPaint(PoseStack matrices, int x, int y, List<WWidget> liveWidgets)
+	{
+		liveWidgets.add(this);
+	}
+
 	@Override
 	public String toString()
 	{
@@ -56,6 +56,18 @@ public class WDynamicLabel extends WWidget
 		this(text, DEFAULT_TEXT_COLOR);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Dynamic labels only draw through {@link ScreenDrawing}, so they are batchable even though their text can change every frame.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintBatchable()
+	{
+		return true;
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
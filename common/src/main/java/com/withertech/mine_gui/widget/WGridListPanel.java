@@ -0,0 +1,331 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.widget.data.Axis;
+import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.ListDataSource;
+import com.withertech.mine_gui.widget.data.Size;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A scrollable grid of tiles, like {@link WListPanel} but with the items wrapped into rows.
+ *
+ * <p>The number of columns follows from the width of the panel and the tile size. Only the tiles of the
+ * visible rows are created. Tiles that are scrolled out of view are recycled and
+ * {@linkplain #configurator configured} again for other items, so the configurator must fully configure
+ * the widget it is passed. The grid scrolls by pixels, so partially visible rows are shown at the edges.
+ * Scrolling within the same visible rows only moves the tiles.
+ *
+ * <p> D is the type of data represented. D's *must* have working equals and hashCode methods
+ * to distinguish them from each other! Items that a data source hasn't loaded yet are left empty.
+ * <p> W is the WWidget class that will represent a single D of data.
+ */
+public class WGridListPanel<D, W extends WWidget> extends WClippedPanel
+{
+	/**
+	 * The data source that this grid represents.
+	 */
+	protected final ListDataSource<D> dataSource;
+
+	/**
+	 * The supplier of new empty widgets.
+	 */
+	protected Supplier<W> supplier;
+
+	/**
+	 * The widget configurator that configures the passed widget
+	 * to display the passed data.
+	 */
+	protected BiConsumer<D, W> configurator;
+
+	/**
+	 * The scroll bar of this grid. Its values are pixels.
+	 */
+	protected WScrollBar scrollBar = new WScrollBar(Axis.VERTICAL);
+	private final List<W> recycled = new ArrayList<>();
+	// The tiles of the visible items, and the tiles of the previous layout while laying out
+	private Map<D, W> bound = new HashMap<>();
+	private Map<D, W> previous = new HashMap<>();
+	private int tileWidth = 18;
+	private int tileHeight = 18;
+	private int spacing = 2;
+	private int lastScroll = -1;
+
+	/**
+	 * Constructs a grid list panel.
+	 *
+	 * @param data         the list data
+	 * @param supplier     the widget supplier that creates unconfigured widgets
+	 * @param configurator the widget configurator that configures widgets to display the passed data
+	 */
+	public WGridListPanel(List<D> data, Supplier<W> supplier, BiConsumer<D, W> configurator)
+	{
+		this(ListDataSource.of(data), supplier, configurator);
+	}
+
+	/**
+	 * Constructs a grid list panel that shows the items of a data source.
+	 *
+	 * @param dataSource   the data source
+	 * @param supplier     the widget supplier that creates unconfigured widgets
+	 * @param configurator the widget configurator that configures widgets to display the passed data
+	 */
+	public WGridListPanel(ListDataSource<D> dataSource, Supplier<W> supplier, BiConsumer<D, W> configurator)
+	{
+		this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+		this.supplier = Objects.requireNonNull(supplier, "supplier");
+		this.configurator = Objects.requireNonNull(configurator, "configurator");
+		scrollBar.setParent(this);
+		// Lay out again on the next frame to show loaded or changed items
+		dataSource.addChangeListener(() -> lastScroll = -1);
+	}
+
+	/**
+	 * Sets the size of the tiles. Resizeable tiles are resized to this size.
+	 *
+	 * @param width  the tile width
+	 * @param height the tile height
+	 * @return this grid
+	 * @throws IllegalArgumentException if the size is not positive
+	 */
+	public WGridListPanel<D, W> setTileSize(int width, int height)
+	{
+		if (width <= 0 || height <= 0) throw new IllegalArgumentException("Tile size must be positive: " + width + "x" + height);
+		this.tileWidth = width;
+		this.tileHeight = height;
+		lastScroll = -1;
+		return this;
+	}
+
+	/**
+	 * Gets the spacing between tiles.
+	 *
+	 * @return the spacing
+	 */
+	public int getSpacing()
+	{
+		return spacing;
+	}
+
+	/**
+	 * Sets the spacing between tiles.
+	 *
+	 * @param spacing the new spacing
+	 * @return this grid
+	 */
+	public WGridListPanel<D, W> setSpacing(int spacing)
+	{
+		this.spacing = spacing;
+		lastScroll = -1;
+		return this;
+	}
+
+	/**
+	 * Gets the number of tile columns that fit in this grid.
+	 *
+	 * @return the number of columns, at least 1
+	 */
+	public int getColumns()
+	{
+		return Math.max((width - scrollBar.getWidth() + spacing) / (tileWidth + spacing), 1);
+	}
+
+	/**
+	 * Gets the {@link WScrollBar} attached to this panel.
+	 *
+	 * @return the scroll bar bundled
+	 */
+	public WScrollBar getScrollBar()
+	{
+		return scrollBar;
+	}
+
+	@Environment(EnvType.CLIENT)
+	@Override
+	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
+	{
+		int scroll = scrollBar.getValue();
+		if (scroll != lastScroll)
+		{
+			int rowHeight = tileHeight + spacing;
+			if (lastScroll >= 0 && scroll / rowHeight == lastScroll / rowHeight
+					&& (scroll + height - 1) / rowHeight == (lastScroll + height - 1) / rowHeight)
+			{
+				// The same rows are visible, so the tiles only have to be moved
+				for (WWidget child : children)
+				{
+					if (child != scrollBar) child.setLayoutLocation(child.getX(), child.getY() + lastScroll - scroll);
+				}
+			} else
+			{
+				layout();
+			}
+
+			lastScroll = scroll;
+		}
+
+		super.paint(matrices, x, y, mouseX, mouseY);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Grid list panels have a fixed size and don't grow to fit their contents.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return withMinimumSize(0, 0);
+	}
+
+	@Override
+	public void layout()
+	{
+		children.clear();
+		scrollBar.arrange(this.width - 8, 0, 8, this.height);
+
+		int columns = getColumns();
+		int rowHeight = tileHeight + spacing;
+		int dataSize = dataSource.size();
+		int rows = (dataSize + columns - 1) / columns;
+
+		scrollBar.setWindow(this.height);
+		scrollBar.setMaxValue(Math.max(rows * rowHeight - spacing, 0));
+		// Scroll by half a row for each step of the mouse wheel
+		scrollBar.setScrollStep(Math.max(rowHeight / 2, 1));
+		int scroll = scrollBar.getValue();
+
+		int from = Math.min((scroll / rowHeight) * columns, dataSize);
+		int to = Math.min(((scroll + this.height - 1) / rowHeight + 1) * columns, dataSize);
+		dataSource.prefetch(from, to);
+
+		Map<D, W> last = bound;
+		bound = previous;
+		previous = last;
+
+		for (int i = from; i < to; i++)
+		{
+			D d = dataSource.get(i);
+			if (d == null) continue;
+
+			W w = getTile(d);
+			int tileX = (i % columns) * (tileWidth + spacing);
+			int tileY = (i / columns) * rowHeight - scroll;
+
+			if (w.canResize())
+			{
+				w.arrange(tileX, tileY, tileWidth, tileHeight);
+			} else
+			{
+				w.arrange(tileX, tileY, w.getWidth(), w.getHeight());
+			}
+
+			children.add(w);
+		}
+
+		for (W w : previous.values())
+		{
+			w.onHidden();
+			recycled.add(w);
+		}
+
+		previous.clear();
+		children.add(scrollBar);
+	}
+
+	private W getTile(D d)
+	{
+		W w = previous.remove(d);
+
+		if (w == null)
+		{
+			if (recycled.isEmpty())
+			{
+				w = supplier.get();
+				w.setParent(this);
+				// setHost instead of validate since we cannot have independent validations
+				if (host != null) w.setHost(host);
+			} else
+			{
+				w = recycled.remove(recycled.size() - 1);
+				w.onShown();
+			}
+
+			configurator.accept(d, w);
+		}
+
+		bound.put(d, w);
+		return w;
+	}
+
+	@Override
+	public InputResult onMouseScroll(int x, int y, double amount)
+	{
+		return scrollBar.onMouseScroll(0, 0, amount);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o) return true;
+		if (!(o instanceof WGridListPanel<?, ?> that)) return false;
+		if (!super.equals(o)) return false;
+		return tileWidth == that.tileWidth && tileHeight == that.tileHeight && getSpacing() == that.getSpacing() && lastScroll == that.lastScroll && Objects.equals(dataSource, that.dataSource) && Objects.equals(supplier, that.supplier) && Objects.equals(configurator, that.configurator) && Objects.equals(getScrollBar(), that.getScrollBar());
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(super.hashCode(), dataSource, supplier, configurator, getScrollBar(), tileWidth, tileHeight, getSpacing(), lastScroll);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "WGridListPanel{" +
+				"dataSource=" + dataSource +
+				", supplier=" + supplier +
+				", configurator=" + configurator +
+				", tileWidth=" + tileWidth +
+				", tileHeight=" + tileHeight +
+				", spacing=" + spacing +
+				", scrollBar=" + scrollBar +
+				", lastScroll=" + lastScroll +
+				", children=" + children +
+				", parent=" + parent +
+				", x=" + x +
+				", y=" + y +
+				", width=" + width +
+				", height=" + height +
+				", host=" + host +
+				'}';
+	}
+}
@@ -58,7 +58,7 @@ public class WGridPanel extends WPanelWithInsets
 	public void add(WWidget w, int x, int y)
 	{
 		children.add(w);
-		w.parent = this;
+		w.setParent(this);
 		w.setLocation(x * grid + insets.left(), y * grid + insets.top());
 		if (w.canResize())
 		{
@@ -66,6 +66,7 @@ public class WGridPanel extends WPanelWithInsets
 		}
 
 		expandToFit(w, insets);
+		invalidateLayout();
 	}
 
 	/**
@@ -80,7 +81,7 @@ public class WGridPanel extends WPanelWithInsets
 	public void add(WWidget w, int x, int y, int width, int height)
 	{
 		children.add(w);
-		w.parent = this;
+		w.setParent(this);
 		w.setLocation(x * grid + insets.left(), y * grid + insets.top());
 		if (w.canResize())
 		{
@@ -88,6 +89,7 @@ public class WGridPanel extends WPanelWithInsets
 		}
 
 		expandToFit(w, insets);
+		invalidateLayout();
 	}
 
 	@Override
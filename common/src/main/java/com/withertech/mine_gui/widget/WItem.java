@@ -19,8 +19,9 @@
 package com.withertech.mine_gui.widget;
 
 import com.google.common.collect.ImmutableList;
-import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
+import com.withertech.mine_gui.impl.client.ItemRenderBatch;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.Minecraft;
@@ -43,8 +44,9 @@ public class WItem extends WWidget
 {
 	private List<ItemStack> items;
 	private int duration = 25;
-	private int ticks = 0;
 	private int current = 0;
+	private final AnimationScheduler.Animation animation = new AnimationScheduler.Animation(this::advance);
+	private long elapsedNanos = 0;
 
 	public WItem(List<ItemStack> items)
 	{
@@ -82,14 +84,52 @@ public class WItem extends WWidget
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Items are batchable if all of them are {@linkplain ItemRenderBatch#isFlat(ItemStack) flat},
+	 * as other items are drawn with the item renderer.
+	 */
 	@Environment(EnvType.CLIENT)
 	@Override
-	public void tick()
+	public boolean isPaintBatchable()
 	{
-		if (ticks++ >= duration)
+		for (ItemStack stack : items)
 		{
-			ticks = 0;
-			current = (current + 1) % items.size();
+			if (!ItemRenderBatch.isFlat(stack)) return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void onShown()
+	{
+		super.onShown();
+		animation.setHidden(false);
+	}
+
+	@Override
+	public void onHidden()
+	{
+		super.onHidden();
+		animation.setHidden(true);
+	}
+
+	/**
+	 * Cycles the displayed item by the elapsed time of a frame.
+	 *
+	 * @param deltaNanos the elapsed time in nanoseconds
+	 */
+	private void advance(long deltaNanos)
+	{
+		// One screen tick is 50 ms
+		long durationNanos = Math.max(duration, 1) * 50_000_000L;
+		elapsedNanos += deltaNanos;
+		if (elapsedNanos >= durationNanos)
+		{
+			current = (current + (int) (elapsedNanos / durationNanos)) % items.size();
+			elapsedNanos %= durationNanos;
 		}
 	}
 
@@ -97,13 +137,13 @@ public class WItem extends WWidget
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
 	{
-		RenderSystem.enableDepthTest();
-
 		Minecraft mc = Minecraft.getInstance();
 		ItemRenderer renderer = mc.getItemRenderer();
 		renderer.blitOffset = 100f;
-		renderer.renderAndDecorateFakeItem(items.get(current), x + getWidth() / 2 - 9, y + getHeight() / 2 - 9);
+		ItemRenderBatch.render(matrices, items.get(current), x + getWidth() / 2 - 9, y + getHeight() / 2 - 9, 16);
 		renderer.blitOffset = 0f;
+
+		if (items.size() > 1) animation.markPainted();
 	}
 
 	/**
@@ -142,7 +182,7 @@ public class WItem extends WWidget
 
 		// Reset the state
 		current = 0;
-		ticks = 0;
+		elapsedNanos = 0;
 
 		return this;
 	}
@@ -153,13 +193,13 @@ public class WItem extends WWidget
 		if (this == o) return true;
 		if (!(o instanceof WItem wItem)) return false;
 		if (!super.equals(o)) return false;
-		return getDuration() == wItem.getDuration() && ticks == wItem.ticks && current == wItem.current && Objects.equals(getItems(), wItem.getItems());
+		return getDuration() == wItem.getDuration() && elapsedNanos == wItem.elapsedNanos && current == wItem.current && Objects.equals(getItems(), wItem.getItems());
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(super.hashCode(), getItems(), getDuration(), ticks, current);
+		return Objects.hash(super.hashCode(), getItems(), getDuration(), elapsedNanos, current);
 	}
 
 	@Override
@@ -168,7 +208,7 @@ public class WItem extends WWidget
 		return "WItem{" +
 				"items=" + items +
 				", duration=" + duration +
-				", ticks=" + ticks +
+				", elapsedNanos=" + elapsedNanos +
 				", current=" + current +
 				", parent=" + parent +
 				", x=" + x +
@@ -38,6 +38,7 @@ import net.minecraft.network.chat.TextComponent;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A single-line label widget.
@@ -122,6 +123,18 @@ public class WLabel extends WWidget
 		ScreenDrawing.drawTextHover(matrices, hoveredTextStyle, x + mouseX, y + mouseY);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Labels are static unless their text has hover events.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintStatic()
+	{
+		return text.visit((style, string) -> style.getHoverEvent() != null ? Optional.of(Boolean.TRUE) : Optional.empty(), Style.EMPTY).isEmpty();
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public InputResult onClick(int x, int y, int button)
@@ -189,6 +202,7 @@ public class WLabel extends WWidget
 	public WLabel setDarkmodeColor(int color)
 	{
 		darkmodeColor = color;
+		invalidatePaint();
 		return this;
 	}
 
@@ -200,6 +214,7 @@ public class WLabel extends WWidget
 	public WLabel disableDarkmode()
 	{
 		this.darkmodeColor = this.color;
+		invalidatePaint();
 		return this;
 	}
 
@@ -222,6 +237,7 @@ public class WLabel extends WWidget
 	public WLabel setColor(int color)
 	{
 		this.color = color;
+		invalidatePaint();
 		return this;
 	}
 
@@ -236,6 +252,7 @@ public class WLabel extends WWidget
 	{
 		this.color = color;
 		this.darkmodeColor = darkmodeColor;
+		invalidatePaint();
 		return this;
 	}
 
@@ -258,6 +275,7 @@ public class WLabel extends WWidget
 	public WLabel setText(Component text)
 	{
 		this.text = text;
+		invalidatePaint();
 		return this;
 	}
 
@@ -281,6 +299,7 @@ public class WLabel extends WWidget
 	public WLabel setHorizontalAlignment(HorizontalAlignment align)
 	{
 		this.horizontalAlignment = align;
+		invalidatePaint();
 		return this;
 	}
 
@@ -304,6 +323,7 @@ public class WLabel extends WWidget
 	public WLabel setVerticalAlignment(VerticalAlignment align)
 	{
 		this.verticalAlignment = align;
+		invalidatePaint();
 		return this;
 	}
 
@@ -21,9 +21,14 @@ package com.withertech.mine_gui.widget;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.widget.data.Axis;
 import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.ListDataSource;
+import com.withertech.mine_gui.widget.data.Size;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.network.chat.TranslatableComponent;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -34,17 +39,29 @@ import java.util.function.Supplier;
 /**
  * Similar to the RecyclerView in Android, this widget represents a scrollable list of items.
  *
- * <p> D is the type of data represented. The data must reside in some ordered backing {@code List<D>}.
- * D's *must* have working equals and hashCode methods to distinguish them from each other!
+ * <p> D is the type of data represented. The data must reside in some ordered backing {@code List<D>}
+ * or {@link ListDataSource}. D's *must* have working equals and hashCode methods to distinguish them from each other!
  * <p> W is the WWidget class that will represent a single D of data.
+ *
+ * <p>Items that a data source hasn't loaded yet are shown as {@linkplain #setPlaceholder(Supplier) placeholder} rows.
  */
 public class WListPanel<D, W extends WWidget> extends WClippedPanel
 {
+	private static final String LOADING_KEY = "widget.mine_gui.list_panel.loading";
+
 	/**
 	 * The list of data that this list represents.
+	 *
+	 * <p>If this list was created with a {@link ListDataSource}, this is a read-only view of it
+	 * that contains {@code null} for items that haven't been loaded yet.
 	 */
 	protected List<D> data;
 
+	/**
+	 * The data source that this list represents.
+	 */
+	protected final ListDataSource<D> dataSource;
+
 	/**
 	 * The supplier of new empty widgets.
 	 */
@@ -56,8 +73,16 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 	 */
 	protected BiConsumer<D, W> configurator;
 
+	/**
+	 * The widgets configured for the visible items.
+	 */
 	protected HashMap<D, W> configured = new HashMap<>();
+	/**
+	 * The widgets that can be configured for newly visible items.
+	 */
 	protected List<W> unconfigured = new ArrayList<>();
+	// The configured widgets of the previous layout while laying out
+	private HashMap<D, W> previouslyConfigured = new HashMap<>();
 
 	/**
 	 * The height of each child cell.
@@ -76,6 +101,8 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 	 */
 	protected WScrollBar scrollBar = new WScrollBar(Axis.VERTICAL);
 	private int lastScroll = -1;
+	private final List<WWidget> placeholders = new ArrayList<>();
+	private Supplier<? extends WWidget> placeholderSupplier = () -> new WLabel(new TranslatableComponent(LOADING_KEY));
 
 	/**
 	 * Constructs a list panel.
@@ -85,22 +112,83 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 	 * @param configurator the widget configurator that configures widgets to display the passed data
 	 */
 	public WListPanel(List<D> data, Supplier<W> supplier, BiConsumer<D, W> configurator)
+	{
+		this(data, ListDataSource.of(data), supplier, configurator);
+	}
+
+	/**
+	 * Constructs a list panel that shows the items of a data source.
+	 *
+	 * @param dataSource   the data source
+	 * @param supplier     the widget supplier that creates unconfigured widgets
+	 * @param configurator the widget configurator that configures widgets to display the passed data
+	 */
+	public WListPanel(ListDataSource<D> dataSource, Supplier<W> supplier, BiConsumer<D, W> configurator)
+	{
+		this(new AbstractList<>()
+		{
+			@Override
+			public D get(int index)
+			{
+				return dataSource.get(index);
+			}
+
+			@Override
+			public int size()
+			{
+				return dataSource.size();
+			}
+		}, dataSource, supplier, configurator);
+	}
+
+	private WListPanel(List<D> data, ListDataSource<D> dataSource, Supplier<W> supplier, BiConsumer<D, W> configurator)
 	{
 		this.data = data;
+		this.dataSource = dataSource;
 		this.supplier = supplier;
 		this.configurator = configurator;
-		scrollBar.setMaxValue(data.size());
+		scrollBar.setMaxValue(dataSource.size() * (cellHeight + margin) + margin);
 		scrollBar.setParent(this);
+		// Lay out again on the next frame to replace loaded placeholders
+		dataSource.addChangeListener(() -> lastScroll = -1);
+	}
+
+	/**
+	 * Sets the supplier of placeholder rows, which are shown for items that haven't been loaded yet.
+	 * By default, placeholder rows are labels with a loading text.
+	 *
+	 * @param placeholderSupplier the placeholder supplier
+	 * @return this list
+	 */
+	public WListPanel<D, W> setPlaceholder(Supplier<? extends WWidget> placeholderSupplier)
+	{
+		this.placeholderSupplier = Objects.requireNonNull(placeholderSupplier, "placeholderSupplier");
+		placeholders.clear();
+		lastScroll = -1;
+		return this;
 	}
 
 	@Environment(EnvType.CLIENT)
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
 	{
-		if (scrollBar.getValue() != lastScroll)
+		int scroll = scrollBar.getValue();
+		if (scroll != lastScroll)
 		{
-			layout();
-			lastScroll = scrollBar.getValue();
+			int rowHeight = cellHeight + margin;
+			if (lastScroll >= 0 && scroll / rowHeight == lastScroll / rowHeight && getPresentCells(scroll) == getPresentCells(lastScroll))
+			{
+				// The same cells are visible, so they only have to be moved
+				for (WWidget child : children)
+				{
+					if (child != scrollBar) child.setLayoutLocation(child.getX(), child.getY() + lastScroll - scroll);
+				}
+			} else
+			{
+				layout();
+			}
+
+			lastScroll = scroll;
 		}
 
 		super.paint(matrices, x, y, mouseX, mouseY);
@@ -120,7 +208,11 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 
 	private W createChild()
 	{
-		W child = supplier.get();
+		return setUpChild(supplier.get());
+	}
+
+	private <T extends WWidget> T setUpChild(T child)
+	{
 		child.setParent(this);
 		// Set up the widget's host
 		if (host != null)
@@ -132,14 +224,24 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 		return child;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>List panels have a fixed size and don't grow to fit their contents.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return withMinimumSize(0, 0);
+	}
+
 	@Override
 	public void layout()
 	{
 
 		this.children.clear();
 		this.children.add(scrollBar);
-		scrollBar.setLocation(this.width - scrollBar.getWidth(), 0);
-		scrollBar.setSize(8, this.height);
+		scrollBar.arrange(this.width - 8, 0, 8, this.height);
 
 		//super.layout();
 
@@ -168,9 +270,6 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 		}
 		if (cellHeight < 4) cellHeight = 4;
 
-		int layoutHeight = this.getHeight() - (margin * 2);
-		int cellsHigh = Math.max(layoutHeight / cellHeight, 1); // At least one cell is always visible
-
 		//System.out.println("Adding children...");
 
 		//this.children.clear();
@@ -178,50 +277,94 @@ public class WListPanel<D, W extends WWidget> extends WClippedPanel
 		//scrollBar.setLocation(this.width-scrollBar.getWidth(), 0);
 		//scrollBar.setSize(8, this.height);
 
-		//Fix up the scrollbar handle and track metrics
-		scrollBar.setWindow(cellsHigh);
-		scrollBar.setMaxValue(data.size());
-		int scrollOffset = scrollBar.getValue();
+		//Fix up the scrollbar handle and track metrics, the values are pixels
+		int rowHeight = cellHeight + margin;
+		int dataSize = dataSource.size();
+		scrollBar.setWindow(this.height);
+		scrollBar.setMaxValue(dataSize * rowHeight + margin);
+		scrollBar.setScrollStep(rowHeight);
+		int scroll = scrollBar.getValue();
+		int scrollOffset = scroll / rowHeight;
+		int pixelOffset = scroll % rowHeight;
 		//System.out.println(scrollOffset);
 
-		int presentCells = Math.min(data.size() - scrollOffset, cellsHigh);
+		int presentCells = Math.min(dataSize - scrollOffset, getPresentCells(scroll));
+		dataSource.prefetch(Math.max(scrollOffset, 0), Math.min(scrollOffset + presentCells, dataSize));
+
+		HashMap<D, W> last = configured;
+		configured = previouslyConfigured;
+		previouslyConfigured = last;
 
 		if (presentCells > 0)
 		{
-			for (int i = 0; i < presentCells + 1; i++)
+			for (int i = 0; i < presentCells; i++)
 			{
 				int index = i + scrollOffset;
-				if (index >= data.size()) break;
+				if (index >= dataSize) break;
 				if (index < 0) continue; //THIS IS A THING THAT IS HAPPENING >:(
-				D d = data.get(index);
-				W w = configured.get(d);
-				if (w == null)
-				{
-					if (unconfigured.isEmpty())
-					{
-						w = createChild();
-					} else
-					{
-						w = unconfigured.remove(0);
-					}
-					configurator.accept(d, w);
-					configured.put(d, w);
-				}
-
-				//At this point, w is nonnull and configured by d
+				D d = dataSource.get(index);
+				WWidget w = d != null ? getConfiguredChild(d) : getPlaceholder(i);
+				//At this point, w is nonnull and either configured by d or a placeholder
+				int cellY = margin + (rowHeight * i) - pixelOffset;
 				if (w.canResize())
 				{
-					w.setSize(this.width - (margin * 2) - scrollBar.getWidth(), cellHeight);
+					w.arrange(margin, cellY, this.width - (margin * 2) - scrollBar.getWidth(), cellHeight);
+				} else
+				{
+					w.arrange(margin, cellY, w.getWidth(), w.getHeight());
 				}
-				w.x = margin;
-				w.y = margin + ((cellHeight + margin) * i);
 				this.children.add(w);
 			}
 		}
 
+		// Recycle the widgets of items that are no longer visible, so that they don't keep the items alive
+		unconfigured.addAll(previouslyConfigured.values());
+		previouslyConfigured.clear();
+
 		//System.out.println("Children: "+children.size());
 	}
 
+	/**
+	 * Gets the number of cells that are at least partially visible at a scroll position, ignoring the data size.
+	 */
+	private int getPresentCells(int scroll)
+	{
+		int rowHeight = cellHeight + margin;
+		return (this.height + scroll % rowHeight) / rowHeight + 1;
+	}
+
+	private W getConfiguredChild(D d)
+	{
+		W w = configured.get(d);
+		if (w != null) return w;
+
+		w = previouslyConfigured.remove(d);
+		if (w == null)
+		{
+			if (unconfigured.isEmpty())
+			{
+				w = createChild();
+			} else
+			{
+				w = unconfigured.remove(unconfigured.size() - 1);
+			}
+			configurator.accept(d, w);
+		}
+
+		configured.put(d, w);
+		return w;
+	}
+
+	private WWidget getPlaceholder(int cell)
+	{
+		while (placeholders.size() <= cell)
+		{
+			placeholders.add(setUpChild(placeholderSupplier.get()));
+		}
+
+		return placeholders.get(cell);
+	}
+
 	/**
 	 * Sets the height of this list's items to a constant value.
 	 *
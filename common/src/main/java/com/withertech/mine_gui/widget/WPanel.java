@@ -21,7 +21,14 @@ package com.withertech.mine_gui.widget;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.GuiDescription;
 import com.withertech.mine_gui.client.BackgroundPainter;
+import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.impl.client.GuiProfiler;
+import com.withertech.mine_gui.impl.client.PanelPaintCache;
+import com.withertech.mine_gui.impl.client.QuadBatch;
 import com.withertech.mine_gui.widget.data.Insets;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.PaintCacheMode;
+import com.withertech.mine_gui.widget.data.Size;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import org.jetbrains.annotations.Nullable;
@@ -46,6 +53,33 @@ public abstract class WPanel extends WWidget
 	protected final List<WWidget> children = new WidgetList(this, new ArrayList<>());
 	@Environment(EnvType.CLIENT)
 	private BackgroundPainter backgroundPainter = null;
+	private PaintCacheMode paintCacheMode = PaintCacheMode.NONE;
+	@Environment(EnvType.CLIENT)
+	@Nullable
+	private PanelPaintCache paintCache = null;
+	// Whether recordPaint of a panel class covers its paint, see recordPaint
+	private static final ClassValue<Boolean> RECORDS_OWN_PAINT = new ClassValue<>()
+	{
+		@Override
+		protected Boolean computeValue(Class<?> type)
+		{
+			Class<?> paintOwner = findDeclaringClass(type, "paint", PoseStack.class, int.class, int.class, int.class, int.class);
+			Class<?> recordOwner = findDeclaringClass(type, "recordPaint", PoseStack.class, int.class, int.class, List.class);
+			return paintOwner.isAssignableFrom(recordOwner);
+		}
+	};
+	// Whether a panel class paints with the default paint, see isPaintBatchable
+	private static final ClassValue<Boolean> PAINTS_CHILDREN = new ClassValue<>()
+	{
+		@Override
+		protected Boolean computeValue(Class<?> type)
+		{
+			return findDeclaringClass(type, "paint", PoseStack.class, int.class, int.class, int.class, int.class) == WPanel.class;
+		}
+	};
+	// The size last set with setSize outside of a layout, see withMinimumSize
+	private int minWidth = 0;
+	private int minHeight = 0;
 
 	/**
 	 * Removes the widget from this panel.
@@ -55,6 +89,25 @@ public abstract class WPanel extends WWidget
 	public void remove(WWidget w)
 	{
 		children.remove(w);
+		invalidateLayout();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The size set with this method is the minimum size of this panel:
+	 * layouts shrink the panel to fit its children, but not below this size.
+	 */
+	@Override
+	public void setSize(int x, int y)
+	{
+		if (!isArranging())
+		{
+			minWidth = x;
+			minHeight = y;
+		}
+
+		super.setSize(x, y);
 	}
 
 	@Override
@@ -84,19 +137,123 @@ public abstract class WPanel extends WWidget
 	public WPanel setBackgroundPainter(BackgroundPainter painter)
 	{
 		this.backgroundPainter = painter;
+		invalidatePaint();
 		return this;
 	}
 
+	/**
+	 * Gets the paint cache mode of this panel.
+	 *
+	 * @return the paint cache mode
+	 */
+	public PaintCacheMode getPaintCacheMode()
+	{
+		return paintCacheMode;
+	}
+
+	/**
+	 * Sets how this panel retains its painted output between frames.
+	 *
+	 * <p>When caching is enabled, the background of this panel and every {@linkplain WWidget#isPaintStatic() static}
+	 * widget in its subtree are recorded on the first frame and replayed on later frames.
+	 * Other widgets, such as buttons and bars, are painted live in between, in their paint order.
+	 * The cache is discarded when the panel is resized, when the theme changes and when a widget
+	 * in the subtree {@linkplain WWidget#invalidatePaint() invalidates} its painting,
+	 * which happens automatically when widgets are moved, resized, added or removed.
+	 *
+	 * <p>Background painters of cached panels must only draw through
+	 * {@link com.withertech.mine_gui.client.ScreenDrawing ScreenDrawing}.
+	 *
+	 * @param paintCacheMode the new paint cache mode
+	 * @return this panel
+	 */
+	public WPanel setPaintCacheMode(PaintCacheMode paintCacheMode)
+	{
+		this.paintCacheMode = Objects.requireNonNull(paintCacheMode, "paintCacheMode");
+		invalidatePaint();
+		return this;
+	}
+
+	@Override
+	void invalidateAbsolutePosition()
+	{
+		if (!hasAbsolutePosition()) return;
+
+		super.invalidateAbsolutePosition();
+		for (WWidget child : children)
+		{
+			child.invalidateAbsolutePosition();
+		}
+	}
+
 	/**
 	 * Uses this Panel's layout rules to reposition and resize components to fit nicely in the panel.
+	 *
+	 * <p>Layouts are normally run when the panel is {@linkplain #arrange(int, int, int, int) arranged}:
+	 * validating the root panel measures and arranges the whole widget tree. Calling this method directly
+	 * lays out the children within the current bounds of this panel.
+	 *
+	 * <p>The default implementation arranges each child at its current location with its measured size.
 	 */
 	public void layout()
 	{
 		for (WWidget child : children)
 		{
-			if (child instanceof WPanel) ((WPanel) child).layout();
-			expandToFit(child);
+			Size size = child.measure(LayoutConstraints.UNBOUNDED);
+			child.arrange(child.getX(), child.getY(), size.width(), size.height());
+		}
+	}
+
+	@Override
+	public void arrange(int x, int y, int width, int height)
+	{
+		super.arrange(x, y, width, height);
+		layout();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation fits the children at their current locations.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return fitChildren(Insets.NONE);
+	}
+
+	/**
+	 * Computes the size needed to contain the children at their current locations with their measured sizes.
+	 *
+	 * @param insets the layout insets
+	 * @return the size, but at least the {@linkplain #withMinimumSize(int, int) minimum size}
+	 */
+	protected Size fitChildren(Insets insets)
+	{
+		int width = 0;
+		int height = 0;
+
+		for (WWidget child : children)
+		{
+			Size size = child.measure(LayoutConstraints.UNBOUNDED);
+			width = Math.max(width, child.getX() + size.width() + insets.right());
+			height = Math.max(height, child.getY() + size.height() + insets.bottom());
 		}
+
+		return withMinimumSize(width, height);
+	}
+
+	/**
+	 * Grows a size to the minimum size of this panel, which is the size last set with
+	 * {@link #setSize(int, int)} outside of a layout.
+	 *
+	 * @param width  the width
+	 * @param height the height
+	 * @return the size, but at least the minimum size
+	 */
+	protected final Size withMinimumSize(int width, int height)
+	{
+		return new Size(Math.max(width, minWidth), Math.max(height, minHeight));
 	}
 
 	/**
@@ -120,7 +277,7 @@ public abstract class WPanel extends WWidget
 	{
 		int pushRight = w.getX() + w.getWidth() + insets.right();
 		int pushDown = w.getY() + w.getHeight() + insets.bottom();
-		this.setSize(Math.max(this.getWidth(), pushRight), Math.max(this.getHeight(), pushDown));
+		setLayoutSize(Math.max(this.getWidth(), pushRight), Math.max(this.getHeight(), pushDown));
 	}
 
 	/**
@@ -147,7 +304,8 @@ public abstract class WPanel extends WWidget
 	/**
 	 * {@inheritDoc}
 	 *
-	 * <p>Subclasses should call {@code super.validate(c)} to ensure that children are validated.
+	 * <p>Validating a root panel measures and arranges the whole widget tree.
+	 * Subclasses should call {@code super.validate(c)} to ensure that children are validated.
 	 *
 	 * @param c the host GUI description
 	 */
@@ -155,23 +313,192 @@ public abstract class WPanel extends WWidget
 	public void validate(GuiDescription c)
 	{
 		super.validate(c);
-		layout();
+		validateLayout();
 		for (WWidget child : children)
 		{
 			child.validate(c);
 		}
 	}
 
+	/**
+	 * Measures and arranges this panel if it is the root panel, or arranges it
+	 * within its current bounds if its layout has been invalidated.
+	 */
+	void validateLayout()
+	{
+		if (getParent() == null)
+		{
+			Size size = measure(LayoutConstraints.UNBOUNDED);
+			arrange(getX(), getY(), size.width(), size.height());
+		} else if (!isArranged())
+		{
+			arrange(getX(), getY(), getWidth(), getHeight());
+		}
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
 	{
+		if (paintCacheMode != PaintCacheMode.NONE && ScreenDrawing.getBackend().supportsRetainedDrawing())
+		{
+			paintCached(matrices, x, y, mouseX, mouseY);
+			return;
+		}
+
 		if (backgroundPainter != null) backgroundPainter.paintBackground(matrices, x, y, this);
 
+		boolean batching = false;
+		try
+		{
+			for (WWidget child : children)
+			{
+				batching = updateBatch(child, batching);
+				paintChild(child, matrices, x + child.getX(), y + child.getY(), mouseX - child.getX(), mouseY - child.getY());
+			}
+		} finally
+		{
+			if (batching) QuadBatch.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Panels are batchable if they don't override {@link #paint(PoseStack, int, int, int, int) paint()},
+	 * don't {@linkplain #setPaintCacheMode(PaintCacheMode) cache their paint} and only have batchable children.
+	 * Their background painter is then painted in the batch as well, so it must only draw through
+	 * {@link ScreenDrawing}, like the built-in painters.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintBatchable()
+	{
+		if (paintCacheMode != PaintCacheMode.NONE || !PAINTS_CHILDREN.get(getClass())) return false;
+
 		for (WWidget child : children)
 		{
-			child.paint(matrices, x + child.getX(), y + child.getY(), mouseX - child.getX(), mouseY - child.getY());
+			if (!child.isPaintBatchable()) return false;
 		}
+
+		return true;
+	}
+
+	/**
+	 * Starts a quad batch before a batchable child or ends it before any other child.
+	 *
+	 * @param child    the child that is painted next
+	 * @param batching whether a batch was started for the previous child
+	 * @return whether a batch is active for the child
+	 */
+	@Environment(EnvType.CLIENT)
+	static boolean updateBatch(WWidget child, boolean batching)
+	{
+		if (child.isPaintBatchable()) return batching || QuadBatch.begin();
+
+		if (batching) QuadBatch.end();
+		return false;
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static void paintChild(WWidget child, PoseStack matrices, int x, int y, int mouseX, int mouseY)
+	{
+		if (GuiProfiler.isEnabled())
+		{
+			GuiProfiler.beginPaint();
+			child.paint(matrices, x, y, mouseX, mouseY);
+			GuiProfiler.endPaint(child);
+		} else
+		{
+			child.paint(matrices, x, y, mouseX, mouseY);
+		}
+	}
+
+	@Environment(EnvType.CLIENT)
+	private void paintCached(PoseStack matrices, int x, int y, int mouseX, int mouseY)
+	{
+		if (paintCache == null) paintCache = new PanelPaintCache();
+
+		if (!paintCache.isValidFor(this, getPaintGeneration()))
+		{
+			paintCache.record(this, getPaintGeneration(), (recordMatrices, liveWidgets) -> recordPaint(recordMatrices, 0, 0, liveWidgets));
+		}
+
+		List<WWidget> liveWidgets = paintCache.getLiveWidgets();
+		// Cached panels aren't batchable, so an active batch can only have been started by this panel
+		boolean outerBatch = QuadBatch.isActive();
+		try
+		{
+			paintCache.replay(matrices, x, y, paintCacheMode, index ->
+			{
+				WWidget widget = liveWidgets.get(index);
+				int offsetX = 0;
+				int offsetY = 0;
+
+				for (WWidget current = widget; current != this && current != null; current = current.getParent())
+				{
+					offsetX += current.getX();
+					offsetY += current.getY();
+				}
+
+				if (!outerBatch) updateBatch(widget, QuadBatch.isActive());
+				paintChild(widget, matrices, x + offsetX, y + offsetY, mouseX - offsetX, mouseY - offsetY);
+			});
+		} finally
+		{
+			if (!outerBatch && QuadBatch.isActive()) QuadBatch.end();
+		}
+	}
+
+	/**
+	 * Records the static parts of this panel into the retained paint cache of this panel or one of its parents.
+	 *
+	 * <p>The default implementation paints the background and the {@linkplain WWidget#isPaintStatic() static}
+	 * children of this panel, recurses into child panels and adds the remaining children to {@code liveWidgets}.
+	 * Child panels that override {@link #paint(PoseStack, int, int, int, int) paint()} without also overriding
+	 * this method are added to {@code liveWidgets} as a whole, so that their custom painting is kept.
+	 *
+	 * @param matrices    the rendering matrix stack
+	 * @param x           this panel's X coordinate relative to the recorded origin
+	 * @param y           this panel's Y coordinate relative to the recorded origin
+	 * @param liveWidgets the list of widgets that have to be painted live every frame
+	 */
+	@Environment(EnvType.CLIENT)
+	protected void recordPaint(PoseStack matrices, int x, int y, List<WWidget> liveWidgets)
+	{
+		if (backgroundPainter != null) backgroundPainter.paintBackground(matrices, x, y, this);
+
+		for (WWidget child : children)
+		{
+			if (child instanceof WPanel panel && RECORDS_OWN_PAINT.get(panel.getClass()))
+			{
+				panel.recordPaint(matrices, x + child.getX(), y + child.getY(), liveWidgets);
+			} else if (child.isPaintStatic())
+			{
+				paintChild(child, matrices, x + child.getX(), y + child.getY(), -1, -1);
+			} else
+			{
+				liveWidgets.add(child);
+			}
+		}
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static Class<?> findDeclaringClass(Class<?> type, String name, Class<?>... parameterTypes)
+	{
+		for (Class<?> current = type; current != null; current = current.getSuperclass())
+		{
+			try
+			{
+				current.getDeclaredMethod(name, parameterTypes);
+				return current;
+			} catch (NoSuchMethodException e)
+			{
+				// Declared in a superclass
+			}
+		}
+
+		throw new IllegalArgumentException(type + " doesn't declare " + name);
 	}
 
 	/**
@@ -393,6 +720,8 @@ public abstract class WPanel extends WWidget
 		public WWidget set(int index, WWidget element)
 		{
 			checkWidget(element);
+			owner.invalidatePaint();
+			element.invalidateAbsolutePosition();
 			return backing.set(index, element);
 		}
 
@@ -400,12 +729,16 @@ public abstract class WPanel extends WWidget
 		public void add(int index, WWidget element)
 		{
 			checkWidget(element);
+			owner.invalidatePaint();
+			// The widget may have been detached while its parents moved
+			element.invalidateAbsolutePosition();
 			backing.add(index, element);
 		}
 
 		@Override
 		public WWidget remove(int index)
 		{
+			owner.invalidatePaint();
 			return backing.remove(index);
 		}
 
@@ -421,13 +754,13 @@ public abstract class WPanel extends WWidget
 			if (this == o) return true;
 			if (!(o instanceof WidgetList wWidgets)) return false;
 			if (!super.equals(o)) return false;
-			return Objects.equals(owner, wWidgets.owner) && Objects.equals(backing, wWidgets.backing);
+			return Objects.equals(backing, wWidgets.backing);
 		}
 
 		@Override
 		public int hashCode()
 		{
-			return Objects.hash(super.hashCode(), owner, backing);
+			return Objects.hash(super.hashCode(), backing);
 		}
 
 		@Override
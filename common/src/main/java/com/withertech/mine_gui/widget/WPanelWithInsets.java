@@ -19,6 +19,8 @@
 package com.withertech.mine_gui.widget;
 
 import com.withertech.mine_gui.widget.data.Insets;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
 
 import java.util.Objects;
 
@@ -51,7 +53,7 @@ public abstract class WPanelWithInsets extends WPanel
 	 * (such as {@link WGridPanel}).
 	 *
 	 * <p>If there are already widgets in this panel when the insets are modified,
-	 * the panel is resized and the widgets are moved according to the insets.
+	 * the widgets are moved according to the insets and the panel is measured again in the next layout.
 	 *
 	 * @param insets the insets, should not be null
 	 * @return this panel
@@ -61,7 +63,7 @@ public abstract class WPanelWithInsets extends WPanel
 		Insets old = this.insets;
 		this.insets = Objects.requireNonNull(insets, "insets");
 
-		setSize(getWidth() - old.left() - old.right(), getHeight() - old.top() - old.bottom());
+		setLayoutSize(getWidth() - old.left() - old.right(), getHeight() - old.top() - old.bottom());
 
 		for (WWidget child : children)
 		{
@@ -69,9 +71,21 @@ public abstract class WPanelWithInsets extends WPanel
 			expandToFit(child, insets);
 		}
 
+		invalidateLayout();
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation fits the children at their current locations, including the insets.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return fitChildren(insets);
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
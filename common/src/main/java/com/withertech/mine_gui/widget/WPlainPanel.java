@@ -38,7 +38,7 @@ public class WPlainPanel extends WPanelWithInsets
 	public void add(WWidget w, int x, int y)
 	{
 		children.add(w);
-		w.parent = this;
+		w.setParent(this);
 		w.setLocation(insets.left() + x, insets.top() + y);
 		if (w.canResize())
 		{
@@ -46,6 +46,7 @@ public class WPlainPanel extends WPanelWithInsets
 		}
 
 		expandToFit(w, insets);
+		invalidateLayout();
 		//valid = false;
 	}
 
@@ -61,7 +62,7 @@ public class WPlainPanel extends WPanelWithInsets
 	public void add(WWidget w, int x, int y, int width, int height)
 	{
 		children.add(w);
-		w.parent = this;
+		w.setParent(this);
 		w.setLocation(insets.left() + x, insets.top() + y);
 		if (w.canResize())
 		{
@@ -69,6 +70,7 @@ public class WPlainPanel extends WPanelWithInsets
 		}
 
 		expandToFit(w, insets);
+		invalidateLayout();
 		//valid = false;
 	}
 
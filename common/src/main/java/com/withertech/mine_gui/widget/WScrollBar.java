@@ -22,6 +22,7 @@ import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.MineGui;
 import com.withertech.mine_gui.client.ScreenDrawing;
 import com.withertech.mine_gui.impl.client.NarrationMessages;
+import com.withertech.mine_gui.impl.client.ScrollAnimator;
 import com.withertech.mine_gui.widget.data.Axis;
 import com.withertech.mine_gui.widget.data.InputResult;
 import net.fabricmc.api.EnvType;
@@ -43,6 +44,7 @@ public class WScrollBar extends WWidget
 	protected int anchor = -1;
 	protected int anchorValue = -1;
 	protected boolean sliding = false;
+	private int scrollStep = SCROLLING_SPEED;
 
 	/**
 	 * Constructs a horizontal scroll bar.
@@ -284,10 +286,33 @@ public class WScrollBar extends WWidget
 	@Override
 	public InputResult onMouseScroll(int x, int y, double amount)
 	{
-		setValue(getValue() + (int) -amount * SCROLLING_SPEED);
+		ScrollAnimator.fling(this, -amount * scrollStep);
 		return InputResult.PROCESSED;
 	}
 
+	/**
+	 * Gets the distance that this scroll bar scrolls for each step of the mouse wheel.
+	 *
+	 * @return the scroll step in values
+	 */
+	public int getScrollStep()
+	{
+		return scrollStep;
+	}
+
+	/**
+	 * Sets the distance that this scroll bar scrolls for each step of the mouse wheel.
+	 * Mouse wheel scrolling is animated with inertia.
+	 *
+	 * @param scrollStep the scroll step in values
+	 * @return this scroll bar
+	 */
+	public WScrollBar setScrollStep(int scrollStep)
+	{
+		this.scrollStep = scrollStep;
+		return this;
+	}
+
 	public int getValue()
 	{
 		return value;
@@ -23,6 +23,8 @@ import com.withertech.mine_gui.GuiDescription;
 import com.withertech.mine_gui.util.TriState;
 import com.withertech.mine_gui.widget.data.Axis;
 import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 
@@ -119,7 +121,10 @@ public class WScrollPanel extends WClippedPanel
 	{
 		if (verticalScrollBar.getValue() != lastVerticalScroll || horizontalScrollBar.getValue() != lastHorizontalScroll)
 		{
-			layout();
+			// Scrolling only moves the contents, they don't have to be laid out again
+			int contentX = hasHorizontalScrollbar() ? -horizontalScrollBar.getValue() : 0;
+			int contentY = hasVerticalScrollbar() ? -verticalScrollBar.getValue() : 0;
+			widget.setLayoutLocation(contentX, contentY);
 			lastHorizontalScroll = horizontalScrollBar.getValue();
 			lastVerticalScroll = verticalScrollBar.getValue();
 		}
@@ -127,6 +132,17 @@ public class WScrollPanel extends WClippedPanel
 		super.paint(matrices, x, y, mouseX, mouseY);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Scroll panels have a fixed size and don't grow to fit their contents.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return withMinimumSize(0, 0);
+	}
+
 	@Override
 	public void layout()
 	{
@@ -136,16 +152,14 @@ public class WScrollPanel extends WClippedPanel
 		boolean vertical = hasVerticalScrollbar();
 
 		int offset = (horizontal && vertical) ? SCROLL_BAR_SIZE : 0;
-		verticalScrollBar.setSize(SCROLL_BAR_SIZE, this.height - offset);
-		verticalScrollBar.setLocation(this.width - verticalScrollBar.getWidth(), 0);
-		horizontalScrollBar.setSize(this.width - offset, SCROLL_BAR_SIZE);
-		horizontalScrollBar.setLocation(0, this.height - horizontalScrollBar.getHeight());
+		verticalScrollBar.arrange(this.width - SCROLL_BAR_SIZE, 0, SCROLL_BAR_SIZE, this.height - offset);
+		horizontalScrollBar.arrange(0, this.height - SCROLL_BAR_SIZE, this.width - offset, SCROLL_BAR_SIZE);
 
-		if (widget instanceof WPanel) ((WPanel) widget).layout();
+		Size size = widget.measure(LayoutConstraints.UNBOUNDED);
 		children.add(widget);
 		int x = horizontal ? -horizontalScrollBar.getValue() : 0;
 		int y = vertical ? -verticalScrollBar.getValue() : 0;
-		widget.setLocation(x, y);
+		widget.arrange(x, y, size.width(), size.height());
 
 		verticalScrollBar.setWindow(this.height - (horizontal ? SCROLL_BAR_SIZE : 0));
 		verticalScrollBar.setMaxValue(widget.getHeight());
@@ -19,7 +19,9 @@
 package com.withertech.mine_gui.widget;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.client.GuiTextureAtlas;
 import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
 import com.withertech.mine_gui.widget.data.Texture;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -34,9 +36,11 @@ public class WSprite extends WWidget
 	protected long currentFrameTime = 0;
 	protected Texture[] frames;
 	protected int frameTime;
-	protected long lastFrame;
 	protected boolean singleImage = false;
+	protected boolean spriteSheet = false;
 	protected int tint = 0xFFFFFFFF;
+	private final AnimationScheduler.Animation animation = new AnimationScheduler.Animation(this::advance);
+	private long frameNanos = 0;
 
 	/**
 	 * Create a new sprite with a single image.
@@ -107,6 +111,22 @@ public class WSprite extends WWidget
 		if (frames.length == 1) this.singleImage = true;
 	}
 
+	/**
+	 * Create a new sprite-sheet animation.
+	 *
+	 * @param frameTime  How long in milliseconds to display each frame for. (1 tick = 50 ms)
+	 * @param sheet      The sprite sheet containing all frames.
+	 * @param columns    The number of frame columns in the sheet.
+	 * @param rows       The number of frame rows in the sheet.
+	 * @param frameCount The number of frames, at most {@code columns * rows}.
+	 * @see #setSpriteSheet(Texture, int, int, int)
+	 */
+	public WSprite(int frameTime, Texture sheet, int columns, int rows, int frameCount)
+	{
+		this.frameTime = frameTime;
+		setSpriteSheet(sheet, columns, rows, frameCount);
+	}
+
 	/**
 	 * Sets the image of this sprite.
 	 *
@@ -145,8 +165,11 @@ public class WSprite extends WWidget
 	{
 		this.frames = new Texture[]{image};
 		this.singleImage = true;
+		this.spriteSheet = false;
 		this.currentFrame = 0;
 		this.currentFrameTime = 0;
+		this.frameNanos = 0;
+		invalidatePaint();
 		return this;
 	}
 
@@ -160,15 +183,75 @@ public class WSprite extends WWidget
 	public WSprite setFrames(Texture... frames)
 	{
 		this.frames = frames;
-		if (frames.length == 1) singleImage = true;
+		this.singleImage = frames.length == 1;
+		this.spriteSheet = false;
 		if (currentFrame >= frames.length)
 		{
 			currentFrame = 0;
 			currentFrameTime = 0;
+			frameNanos = 0;
+		}
+		invalidatePaint();
+		return this;
+	}
+
+	/**
+	 * Animates this sprite from a sprite sheet.
+	 *
+	 * <p>The frames are laid out in a grid over the sheet texture, left to right and then top to bottom,
+	 * and are drawn as UV sub-regions of the sheet. As every frame uses the same texture, or the same entry of the
+	 * {@link GuiTextureAtlas} which the sheet is registered to, animated sprites don't change the texture binding
+	 * between frames and the sprites painted next to each other are drawn in a single batch.
+	 *
+	 * <p>The current frame is selected from the shared animation clock, so all sprite-sheet
+	 * animations with the same frame time run in step.
+	 *
+	 * @param sheet      the sprite sheet, whose UVs can select a region of a larger texture
+	 * @param columns    the number of frame columns in the sheet
+	 * @param rows       the number of frame rows in the sheet
+	 * @param frameCount the number of frames, at most {@code columns * rows}
+	 * @return this sprite
+	 * @throws IllegalArgumentException if the grid is empty or the frame count doesn't fit into it
+	 */
+	public WSprite setSpriteSheet(Texture sheet, int columns, int rows, int frameCount)
+	{
+		if (columns <= 0 || rows <= 0)
+			throw new IllegalArgumentException("Sprite sheet grid must not be empty: " + columns + "x" + rows);
+		if (frameCount <= 0 || frameCount > columns * rows)
+			throw new IllegalArgumentException("Frame count " + frameCount + " doesn't fit into a " + columns + "x" + rows + " sprite sheet");
+
+		float frameWidth = (sheet.u2() - sheet.u1()) / columns;
+		float frameHeight = (sheet.v2() - sheet.v1()) / rows;
+		Texture[] sheetFrames = new Texture[frameCount];
+		for (int i = 0; i < frameCount; i++)
+		{
+			float u = sheet.u1() + (i % columns) * frameWidth;
+			float v = sheet.v1() + (i / columns) * frameHeight;
+			sheetFrames[i] = sheet.withUv(u, v, u + frameWidth, v + frameHeight);
 		}
+
+		GuiTextureAtlas.register(sheet);
+		this.frames = sheetFrames;
+		this.singleImage = frameCount == 1;
+		this.spriteSheet = true;
+		this.currentFrame = 0;
+		this.currentFrameTime = 0;
+		this.frameNanos = 0;
+		invalidatePaint();
 		return this;
 	}
 
+	/**
+	 * Tests whether this sprite is animated from a sprite sheet.
+	 *
+	 * @return true if this sprite is animated from a sprite sheet, false otherwise
+	 * @see #setSpriteSheet(Texture, int, int, int)
+	 */
+	public boolean isSpriteSheet()
+	{
+		return spriteSheet;
+	}
+
 	/**
 	 * Sets the tint for this sprite to the following color-with-alpha. If you don't want to specify
 	 * alpha, use {@link #setOpaqueTint(int)} instead.
@@ -179,6 +262,7 @@ public class WSprite extends WWidget
 	public WSprite setTint(int tint)
 	{
 		this.tint = tint;
+		invalidatePaint();
 		return this;
 	}
 
@@ -191,6 +275,7 @@ public class WSprite extends WWidget
 	public WSprite setOpaqueTint(int tint)
 	{
 		this.tint = tint | 0xFF000000;
+		invalidatePaint();
 		return this;
 	}
 
@@ -221,6 +306,31 @@ public class WSprite extends WWidget
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Sprites are static unless they are animated.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintStatic()
+	{
+		return singleImage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Sprites are always batchable. Subclasses that override {@link #paintFrame(PoseStack, int, int, Texture) paintFrame()}
+	 * to draw without {@link ScreenDrawing} must override this method to return false.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintBatchable()
+	{
+		return true;
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
@@ -230,33 +340,67 @@ public class WSprite extends WWidget
 			paintFrame(matrices, x, y, frames[0]);
 		} else
 		{
-			//grab the system time at the very start of the frame.
-			long now = System.nanoTime() / 1_000_000L;
+			if (spriteSheet && frameTime > 0)
+			{
+				//sprite sheets select their frame from the shared animation clock
+				long elapsed = AnimationScheduler.getFrameNanos() / 1_000_000L;
+				currentFrame = (int) (elapsed / frameTime % frames.length);
+				currentFrameTime = elapsed % frameTime;
+			}
 
 			//check bounds so the ResourceLocation isn't passed a bad number
 			boolean inBounds = (currentFrame >= 0) && (currentFrame < frames.length);
 			if (!inBounds) currentFrame = 0;
-			//assemble and draw the frame calculated last iteration.
-			Texture currentFrameTex = frames[currentFrame];
-			paintFrame(matrices, x, y, currentFrameTex);
-
-			//calculate how much time has elapsed since the last animation change, and change the frame if necessary.
-			long elapsed = now - lastFrame;
-			currentFrameTime += elapsed;
-			if (currentFrameTime >= frameTime)
+			paintFrame(matrices, x, y, frames[currentFrame]);
+
+			//the frames are advanced by the shared animation clock while this sprite is painted
+			animation.markPainted();
+		}
+	}
+
+	@Override
+	public void onShown()
+	{
+		super.onShown();
+		animation.setHidden(false);
+	}
+
+	@Override
+	public void onHidden()
+	{
+		super.onHidden();
+		animation.setHidden(true);
+	}
+
+	/**
+	 * Advances the animation by the elapsed time of a frame.
+	 *
+	 * @param deltaNanos the elapsed time in nanoseconds
+	 */
+	private void advance(long deltaNanos)
+	{
+		if (singleImage || spriteSheet) return;
+
+		long frameTimeNanos = frameTime * 1_000_000L;
+		frameNanos += deltaNanos;
+		//a long frame can skip several animation frames
+		while (frameNanos >= frameTimeNanos)
+		{
+			currentFrame++;
+			//if we've hit the end of the animation, go back to the beginning
+			if (currentFrame >= frames.length)
 			{
-				currentFrame++;
-				//if we've hit the end of the animation, go back to the beginning
-				if (currentFrame >= frames.length - 1)
-				{
-					currentFrame = 0;
-				}
-				currentFrameTime = 0;
+				currentFrame = 0;
 			}
 
-			//frame is over; this frame is becoming the last frame so write the time to lastFrame
-			this.lastFrame = now;
+			if (frameTimeNanos <= 0)
+			{
+				frameNanos = 0;
+				break;
+			}
+			frameNanos -= frameTimeNanos;
 		}
+		currentFrameTime = frameNanos / 1_000_000L;
 	}
 
 	/**
@@ -279,13 +423,13 @@ public class WSprite extends WWidget
 		if (this == o) return true;
 		if (!(o instanceof WSprite wSprite)) return false;
 		if (!super.equals(o)) return false;
-		return currentFrame == wSprite.currentFrame && currentFrameTime == wSprite.currentFrameTime && frameTime == wSprite.frameTime && lastFrame == wSprite.lastFrame && singleImage == wSprite.singleImage && tint == wSprite.tint && Arrays.equals(frames, wSprite.frames);
+		return currentFrame == wSprite.currentFrame && currentFrameTime == wSprite.currentFrameTime && frameTime == wSprite.frameTime && singleImage == wSprite.singleImage && spriteSheet == wSprite.spriteSheet && tint == wSprite.tint && Arrays.equals(frames, wSprite.frames);
 	}
 
 	@Override
 	public int hashCode()
 	{
-		int result = Objects.hash(super.hashCode(), currentFrame, currentFrameTime, frameTime, lastFrame, singleImage, tint);
+		int result = Objects.hash(super.hashCode(), currentFrame, currentFrameTime, frameTime, singleImage, spriteSheet, tint);
 		result = 31 * result + Arrays.hashCode(frames);
 		return result;
 	}
@@ -298,8 +442,8 @@ public class WSprite extends WWidget
 				", currentFrameTime=" + currentFrameTime +
 				", frames=" + Arrays.toString(frames) +
 				", frameTime=" + frameTime +
-				", lastFrame=" + lastFrame +
 				", singleImage=" + singleImage +
+				", spriteSheet=" + spriteSheet +
 				", tint=" + tint +
 				", parent=" + parent +
 				", x=" + x +
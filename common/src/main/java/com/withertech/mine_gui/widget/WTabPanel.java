@@ -26,6 +26,8 @@ import com.withertech.mine_gui.impl.client.NarrationMessages;
 import com.withertech.mine_gui.widget.data.Axis;
 import com.withertech.mine_gui.widget.data.HorizontalAlignment;
 import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
 import com.withertech.mine_gui.widget.icon.Icon;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -75,6 +77,7 @@ public class WTabPanel extends WPanel
 		widget.setParent(this);
 		widget.setLocation(x, y);
 		expandToFit(widget);
+		invalidateLayout();
 	}
 
 	/**
@@ -109,11 +112,25 @@ public class WTabPanel extends WPanel
 		add(builder.build());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Tab panels are as wide as the wider of the tab ribbon and the largest tab,
+	 * and as high as the largest tab below the ribbon.
+	 */
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		Size ribbon = tabRibbon.measure(LayoutConstraints.UNBOUNDED);
+		Size main = mainPanel.measure(LayoutConstraints.UNBOUNDED);
+		return withMinimumSize(Math.max(ribbon.width(), main.width()), TAB_HEIGHT + main.height());
+	}
+
 	@Override
-	public void setSize(int x, int y)
+	public void layout()
 	{
-		super.setSize(x, y);
-		tabRibbon.setSize(x, TAB_HEIGHT);
+		tabRibbon.arrange(0, 0, getWidth(), tabRibbon.measure(LayoutConstraints.UNBOUNDED).height());
+		mainPanel.arrange(0, TAB_HEIGHT, getWidth(), getHeight() - TAB_HEIGHT);
 	}
 
 	@Environment(EnvType.CLIENT)
@@ -37,6 +37,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A multiline label widget.
@@ -140,6 +141,18 @@ public class WText extends WWidget
 		ScreenDrawing.drawTextHover(matrices, hoveredTextStyle, x + mouseX, y + mouseY);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Text widgets are static unless their text has hover events.
+	 */
+	@Environment(EnvType.CLIENT)
+	@Override
+	public boolean isPaintStatic()
+	{
+		return text.visit((style, string) -> style.getHoverEvent() != null ? Optional.of(Boolean.TRUE) : Optional.empty(), Style.EMPTY).isEmpty();
+	}
+
 	@Environment(EnvType.CLIENT)
 	@Override
 	public InputResult onClick(int x, int y, int button)
@@ -178,6 +191,7 @@ public class WText extends WWidget
 		this.text = text;
 		wrappingScheduled = true;
 
+		invalidatePaint();
 		return this;
 	}
 
@@ -200,6 +214,7 @@ public class WText extends WWidget
 	public WText setColor(int color)
 	{
 		this.color = color;
+		invalidatePaint();
 		return this;
 	}
 
@@ -223,6 +238,7 @@ public class WText extends WWidget
 	public WText setDarkmodeColor(int darkmodeColor)
 	{
 		this.darkmodeColor = darkmodeColor;
+		invalidatePaint();
 		return this;
 	}
 
@@ -248,6 +264,7 @@ public class WText extends WWidget
 	public WText disableDarkmode()
 	{
 		this.darkmodeColor = this.color;
+		invalidatePaint();
 		return this;
 	}
 
@@ -272,6 +289,7 @@ public class WText extends WWidget
 	public WText setHorizontalAlignment(HorizontalAlignment horizontalAlignment)
 	{
 		this.horizontalAlignment = horizontalAlignment;
+		invalidatePaint();
 		return this;
 	}
 
@@ -296,6 +314,7 @@ public class WText extends WWidget
 	public WText setVerticalAlignment(VerticalAlignment verticalAlignment)
 	{
 		this.verticalAlignment = verticalAlignment;
+		invalidatePaint();
 		return this;
 	}
 
@@ -24,6 +24,7 @@ import com.mojang.blaze3d.vertex.*;
 import com.mojang.math.Matrix4f;
 import com.withertech.mine_gui.client.BackgroundPainter;
 import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
 import com.withertech.mine_gui.impl.client.NarrationMessages;
 import com.withertech.mine_gui.widget.data.InputResult;
 import net.fabricmc.api.EnvType;
@@ -55,12 +56,15 @@ public class WTextField extends WWidget
 	private static final int BORDER_COLOR_SELECTED = 0xFFFFFFA0;
 	private static final int BORDER_COLOR_UNSELECTED = 0xFFA0A0A0;
 	private static final int CURSOR_COLOR = 0xFFD0D0D0;
+	// The cursor blinks on and off every 300 ms
+	private static final long CURSOR_BLINK_NANOS = 300_000_000L;
 	@Environment(EnvType.CLIENT)
 	private Font font;
 	private String text = "";
 	private int maxLength = 16;
 	private boolean editable = true;
-	private int tickCount = 0;
+	private long cursorNanos = 0;
+	private final AnimationScheduler.Animation cursorAnimation = new AnimationScheduler.Animation(delta -> cursorNanos += delta);
 	private int disabledColor = 0x707070;
 	private int enabledColor = 0xE0E0E0;
 	private int suggestionColor = 0x808080;
@@ -124,13 +128,6 @@ public class WTextField extends WWidget
 		return true;
 	}
 
-	@Override
-	public void tick()
-	{
-		super.tick();
-		this.tickCount++;
-	}
-
 	@Override
 	public void setSize(int x, int y)
 	{
@@ -226,7 +223,9 @@ public class WTextField extends WWidget
 	@Environment(EnvType.CLIENT)
 	protected void renderCursor(PoseStack matrices, int x, int y, String visibleText)
 	{
-		if (this.tickCount / 6 % 2 == 0) return;
+		// The cursor only blinks while it is painted
+		cursorAnimation.markPainted();
+		if (this.cursorNanos / CURSOR_BLINK_NANOS % 2 != 0) return;
 		if (this.cursor < this.scrollOffset) return;
 		if (this.cursor > this.scrollOffset + visibleText.length()) return;
 		int cursorOffset = this.font.width(visibleText.substring(0, this.cursor - this.scrollOffset));
@@ -365,6 +364,8 @@ public class WTextField extends WWidget
 	@Override
 	public void onFocusGained()
 	{
+		// Show the cursor right away
+		cursorNanos = 0;
 	}
 
 	@Environment(EnvType.CLIENT)
@@ -582,13 +583,13 @@ public class WTextField extends WWidget
 		if (this == o) return true;
 		if (!(o instanceof WTextField that)) return false;
 		if (!super.equals(o)) return false;
-		return getMaxLength() == that.getMaxLength() && isEditable() == that.isEditable() && tickCount == that.tickCount && disabledColor == that.disabledColor && enabledColor == that.enabledColor && suggestionColor == that.suggestionColor && scrollOffset == that.scrollOffset && getCursor() == that.getCursor() && select == that.select && Objects.equals(font, that.font) && Objects.equals(getText(), that.getText()) && Objects.equals(getSuggestion(), that.getSuggestion()) && Objects.equals(onChanged, that.onChanged) && Objects.equals(textPredicate, that.textPredicate) && Objects.equals(backgroundPainter, that.backgroundPainter);
+		return getMaxLength() == that.getMaxLength() && isEditable() == that.isEditable() && cursorNanos == that.cursorNanos && disabledColor == that.disabledColor && enabledColor == that.enabledColor && suggestionColor == that.suggestionColor && scrollOffset == that.scrollOffset && getCursor() == that.getCursor() && select == that.select && Objects.equals(font, that.font) && Objects.equals(getText(), that.getText()) && Objects.equals(getSuggestion(), that.getSuggestion()) && Objects.equals(onChanged, that.onChanged) && Objects.equals(textPredicate, that.textPredicate) && Objects.equals(backgroundPainter, that.backgroundPainter);
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(super.hashCode(), font, getText(), getMaxLength(), isEditable(), tickCount, disabledColor, enabledColor, suggestionColor, getSuggestion(), scrollOffset, getCursor(), select, onChanged, textPredicate, backgroundPainter);
+		return Objects.hash(super.hashCode(), font, getText(), getMaxLength(), isEditable(), cursorNanos, disabledColor, enabledColor, suggestionColor, getSuggestion(), scrollOffset, getCursor(), select, onChanged, textPredicate, backgroundPainter);
 	}
 
 	@Override
@@ -599,7 +600,7 @@ public class WTextField extends WWidget
 				", text='" + text + '\'' +
 				", maxLength=" + maxLength +
 				", editable=" + editable +
-				", tickCount=" + tickCount +
+				", cursorNanos=" + cursorNanos +
 				", disabledColor=" + disabledColor +
 				", enabledColor=" + enabledColor +
 				", suggestionColor=" + suggestionColor +
@@ -20,6 +20,8 @@ package com.withertech.mine_gui.widget;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.client.ScreenDrawing;
+import com.withertech.mine_gui.impl.client.QuadBatch;
+import com.withertech.mine_gui.impl.client.RepeatingTextures;
 import com.withertech.mine_gui.widget.data.Texture;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -31,6 +33,10 @@ import java.util.Objects;
 /**
  * A sprite whose texture will be tiled.
  *
+ * <p>Tiles at the right and bottom edges are cut off at the bounds of the sprite.
+ * If a frame covers its whole image, which is not a texture atlas, the tiled area is drawn as a single quad
+ * with a repeating texture. Otherwise the tiles are drawn in a single batch.
+ *
  * @since 2.0.0
  */
 public class WTiledSprite extends WSprite
@@ -108,6 +114,7 @@ public class WTiledSprite extends WSprite
 	{
 		tileWidth = width;
 		tileHeight = height;
+		invalidatePaint();
 	}
 
 	/**
@@ -131,6 +138,7 @@ public class WTiledSprite extends WSprite
 	public WTiledSprite setTileWidth(int tileWidth)
 	{
 		this.tileWidth = tileWidth;
+		invalidatePaint();
 		return this;
 	}
 
@@ -155,6 +163,7 @@ public class WTiledSprite extends WSprite
 	public WTiledSprite setTileHeight(int tileHeight)
 	{
 		this.tileHeight = tileHeight;
+		invalidatePaint();
 		return this;
 	}
 
@@ -162,27 +171,49 @@ public class WTiledSprite extends WSprite
 	@Override
 	public void paintFrame(PoseStack matrices, int x, int y, Texture texture)
 	{
-		// Y Direction (down)
-		for (int tileYOffset = 0; tileYOffset < height; tileYOffset += tileHeight)
+		if (tileWidth <= 0 || tileHeight <= 0 || width <= 0 || height <= 0) return;
+
+		// A repeating texture covers any area with one quad
+		if (isFullImage(texture) && ScreenDrawing.getBackend().supportsRetainedDrawing() && RepeatingTextures.makeRepeating(texture.image()))
+		{
+			ScreenDrawing.texturedRect(matrices, x, y, width, height, texture.image(), 0, 0, (float) width / tileWidth, (float) height / tileHeight, tint);
+			return;
+		}
+
+		float tileU = texture.u2() - texture.u1();
+		float tileV = texture.v2() - texture.v1();
+		boolean batching = QuadBatch.begin();
+		try
 		{
-			// X Direction (right)
-			for (int tileXOffset = 0; tileXOffset < width; tileXOffset += tileWidth)
+			// Y Direction (down)
+			for (int tileYOffset = 0; tileYOffset < height; tileYOffset += tileHeight)
 			{
-				// draw the texture
-				ScreenDrawing.texturedRect(
-						matrices,
-						// at the correct position using tileXOffset and tileYOffset
-						x + tileXOffset, y + tileYOffset,
-						// but using the set tileWidth and tileHeight instead of the full height and
-						// width
-						getTileWidth(), getTileHeight(),
-						// render the current texture
-						texture,
-						tint);
+				// the bottom row is cut off at the bottom edge
+				int drawHeight = Math.min(tileHeight, height - tileYOffset);
+				float v2 = texture.v1() + tileV * drawHeight / tileHeight;
+
+				// X Direction (right)
+				for (int tileXOffset = 0; tileXOffset < width; tileXOffset += tileWidth)
+				{
+					// the right column is cut off at the right edge
+					int drawWidth = Math.min(tileWidth, width - tileXOffset);
+					float u2 = texture.u1() + tileU * drawWidth / tileWidth;
+
+					ScreenDrawing.texturedRect(matrices, x + tileXOffset, y + tileYOffset, drawWidth, drawHeight,
+							texture.image(), texture.u1(), texture.v1(), u2, v2, tint);
+				}
 			}
+		} finally
+		{
+			if (batching) QuadBatch.end();
 		}
 	}
 
+	private static boolean isFullImage(Texture texture)
+	{
+		return texture.u1() == 0 && texture.v1() == 0 && texture.u2() == 1 && texture.v2() == 1;
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
@@ -206,8 +237,8 @@ public class WTiledSprite extends WSprite
 				", currentFrameTime=" + currentFrameTime +
 				", frames=" + Arrays.toString(frames) +
 				", frameTime=" + frameTime +
-				", lastFrame=" + lastFrame +
 				", singleImage=" + singleImage +
+				", spriteSheet=" + spriteSheet +
 				", tint=" + tint +
 				", tileWidth=" + tileWidth +
 				", tileHeight=" + tileHeight +
@@ -0,0 +1,456 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.GuiDescription;
+import com.withertech.mine_gui.MineGui;
+import com.withertech.mine_gui.SyncedGuiDescription;
+import com.withertech.mine_gui.ValidatedSlot;
+import com.withertech.mine_gui.networking.NetworkSide;
+import com.withertech.mine_gui.networking.ScreenNetworking;
+import com.withertech.mine_gui.widget.data.Axis;
+import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
+import com.withertech.mine_gui.widget.data.Size;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A scrollable grid of item slots for very large inventories.
+ *
+ * <p>Unlike a {@link WItemSlot}, which creates a {@linkplain ValidatedSlot peer} for every slot,
+ * a virtual slot grid only creates peers for the visible rows and a number of prefetch rows above and below them.
+ * The peers are rebound to other inventory indices when the grid is scrolled, so the server
+ * only synchronizes the stacks in the visible window and the prefetch rows. The prefetch rows are not
+ * shown or interactable, but they let the client show the next rows immediately when scrolling by a few rows.
+ *
+ * <p>The grid must be created with the same parameters on both sides, which is the case when it's
+ * created in the constructor of a {@link SyncedGuiDescription}. The client tells the server about
+ * scrolling using {@linkplain ScreenNetworking screen messages}.
+ *
+ * <p>Filters, change listeners and modifiability can be configured on the {@linkplain #getItemSlot() item slot}
+ * that contains the visible peers. The indices reported to change listeners are indices in the viewed inventory.
+ */
+public class WVirtualSlotGrid extends WPanel
+{
+	private static final int SCROLL_BAR_WIDTH = 8;
+	private final Container inventory;
+	private final int startIndex;
+	private final int slotCount;
+	private final int slotsWide;
+	private final int slotsHigh;
+	private final SlotWindow window = new SlotWindow();
+	private final WItemSlot itemSlot;
+	private final WScrollBar scrollBar = new WScrollBar(Axis.VERTICAL);
+	private final List<ValidatedSlot> prefetchPeers = new ArrayList<>();
+	private int prefetchRows = 1;
+	private int firstRow = 0;
+	@Nullable
+	private GuiDescription networkingHost = null;
+	@Nullable
+	private ResourceLocation scrollMessage = null;
+
+	/**
+	 * Constructs a virtual slot grid.
+	 *
+	 * @param inventory  the viewed inventory
+	 * @param startIndex the first viewed index in the inventory
+	 * @param slotCount  the number of viewed slots
+	 * @param slotsWide  the number of slot columns
+	 * @param slotsHigh  the number of visible slot rows
+	 * @throws IllegalArgumentException if the slot count is negative, or the grid has no columns or rows
+	 */
+	public WVirtualSlotGrid(Container inventory, int startIndex, int slotCount, int slotsWide, int slotsHigh)
+	{
+		if (slotCount < 0) throw new IllegalArgumentException("Negative slot count: " + slotCount);
+		if (slotsWide <= 0 || slotsHigh <= 0)
+		{
+			throw new IllegalArgumentException("Grid must have at least one column and row, found " + slotsWide + "x" + slotsHigh);
+		}
+
+		this.inventory = Objects.requireNonNull(inventory, "inventory");
+		this.startIndex = startIndex;
+		this.slotCount = slotCount;
+		this.slotsWide = slotsWide;
+		this.slotsHigh = slotsHigh;
+		this.itemSlot = new WItemSlot(window, 0, slotsWide, slotsHigh, false)
+		{
+			@Override
+			protected ValidatedSlot createSlotPeer(Container inventory, int index, int x, int y)
+			{
+				return new WindowSlot(index, x, y);
+			}
+		};
+
+		scrollBar.setMaxValue(getRowCount());
+		scrollBar.setWindow(slotsHigh);
+		scrollBar.setScrollStep(1);
+		children.add(itemSlot);
+		children.add(scrollBar);
+		itemSlot.setParent(this);
+		scrollBar.setParent(this);
+	}
+
+	/**
+	 * Gets the item slot that contains the visible slot peers of this grid.
+	 *
+	 * @return the item slot
+	 */
+	public WItemSlot getItemSlot()
+	{
+		return itemSlot;
+	}
+
+	/**
+	 * Gets the number of rows that are synchronized above and below the visible rows.
+	 *
+	 * @return the number of prefetch rows
+	 */
+	public int getPrefetchRows()
+	{
+		return prefetchRows;
+	}
+
+	/**
+	 * Sets the number of rows that are synchronized above and below the visible rows.
+	 * This must be set before the grid is validated, and it must be the same on both sides.
+	 *
+	 * @param prefetchRows the number of prefetch rows
+	 * @return this grid
+	 * @throws IllegalArgumentException if the number of rows is negative
+	 */
+	public WVirtualSlotGrid setPrefetchRows(int prefetchRows)
+	{
+		if (prefetchRows < 0) throw new IllegalArgumentException("Negative prefetch rows: " + prefetchRows);
+		this.prefetchRows = prefetchRows;
+		return this;
+	}
+
+	/**
+	 * Gets the first visible row of this grid.
+	 *
+	 * @return the first visible row
+	 */
+	public int getFirstRow()
+	{
+		return firstRow;
+	}
+
+	/**
+	 * Scrolls this grid so that the row is the first visible row.
+	 * When called on the client, the server is notified about the new position.
+	 *
+	 * @param row the row
+	 * @return this grid
+	 */
+	public WVirtualSlotGrid setFirstRow(int row)
+	{
+		if (scrollTo(row) && host instanceof SyncedGuiDescription synced && scrollMessage != null)
+		{
+			ScreenNetworking.of(synced, NetworkSide.CLIENT).send(scrollMessage, buf -> buf.writeVarInt(firstRow));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Rebinds the peers so that the row is the first visible row.
+	 *
+	 * @return true if the first visible row changed, false otherwise
+	 */
+	private boolean scrollTo(int row)
+	{
+		int clamped = Math.max(0, Math.min(row, getRowCount() - slotsHigh));
+		if (clamped == firstRow) return false;
+
+		firstRow = clamped;
+		scrollBar.setValue(clamped);
+		return true;
+	}
+
+	/**
+	 * Gets the number of rows of the viewed slots.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRowCount()
+	{
+		return (slotCount + slotsWide - 1) / slotsWide;
+	}
+
+	/**
+	 * Converts an index in the peer window to an index in the viewed inventory.
+	 *
+	 * <p>The window starts with the visible slots, followed by the prefetch rows above and below them.
+	 *
+	 * @param windowIndex the window index
+	 * @return the inventory index, or -1 if the window slot is outside the viewed slots
+	 */
+	int toInventoryIndex(int windowIndex)
+	{
+		int visible = slotsWide * slotsHigh;
+		int prefetch = slotsWide * prefetchRows;
+		int index;
+
+		if (windowIndex < visible)
+		{
+			index = firstRow * slotsWide + windowIndex;
+		} else if (windowIndex < visible + prefetch)
+		{
+			index = (firstRow - prefetchRows) * slotsWide + (windowIndex - visible);
+		} else
+		{
+			index = (firstRow + slotsHigh) * slotsWide + (windowIndex - visible - prefetch);
+		}
+
+		return index >= 0 && index < slotCount ? startIndex + index : -1;
+	}
+
+	@Override
+	public boolean canResize()
+	{
+		return false;
+	}
+
+	@Override
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return new Size(slotsWide * 18 + SCROLL_BAR_WIDTH, slotsHigh * 18);
+	}
+
+	@Override
+	public void layout()
+	{
+		itemSlot.arrange(0, 0, slotsWide * 18, slotsHigh * 18);
+		scrollBar.arrange(slotsWide * 18, 0, SCROLL_BAR_WIDTH, slotsHigh * 18);
+	}
+
+	@Override
+	public void validate(GuiDescription c)
+	{
+		// The menu index of the first peer is the same on both sides, which makes it a unique message ID for this grid.
+		int firstPeerIndex = c instanceof SyncedGuiDescription synced ? synced.slots.size() : 0;
+		super.validate(c);
+
+		prefetchPeers.clear();
+		int visible = slotsWide * slotsHigh;
+		for (int i = 0; i < 2 * prefetchRows * slotsWide; i++)
+		{
+			// Prefetch peers are never shown or interactable, they only synchronize the stacks.
+			ValidatedSlot peer = new WindowSlot(visible + i, getAbsoluteX() + 1, getAbsoluteY() + 1);
+			peer.setVisible(false);
+			peer.setInsertingAllowed(false);
+			peer.setTakingAllowed(false);
+			prefetchPeers.add(peer);
+			c.addSlotPeer(peer);
+		}
+
+		if (networkingHost != c && c instanceof SyncedGuiDescription synced)
+		{
+			networkingHost = c;
+			scrollMessage = new ResourceLocation(MineGui.MOD_ID, "virtual_slot_grid/" + firstPeerIndex);
+			ScreenNetworking.of(synced, NetworkSide.SERVER).receive(scrollMessage, buf ->
+			{
+				if (scrollTo(buf.readVarInt()))
+				{
+					// The client has rebound its peers already, resend the stacks of the window so that both sides agree.
+					synced.sendAllDataToRemote();
+				}
+			});
+		}
+	}
+
+	@Environment(EnvType.CLIENT)
+	@Override
+	public void paint(PoseStack matrices, int x, int y, int mouseX, int mouseY)
+	{
+		if (scrollBar.getValue() != firstRow)
+		{
+			setFirstRow(scrollBar.getValue());
+		}
+
+		super.paint(matrices, x, y, mouseX, mouseY);
+	}
+
+	@Environment(EnvType.CLIENT)
+	@Override
+	protected void recordPaint(PoseStack matrices, int x, int y, List<WWidget> liveWidgets)
+	{
+		liveWidgets.add(this);
+	}
+
+	@Override
+	public InputResult onMouseScroll(int x, int y, double amount)
+	{
+		return scrollBar.onMouseScroll(0, 0, amount);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o) return true;
+		if (!(o instanceof WVirtualSlotGrid that)) return false;
+		if (!super.equals(o)) return false;
+		return startIndex == that.startIndex && slotCount == that.slotCount && slotsWide == that.slotsWide && slotsHigh == that.slotsHigh && getPrefetchRows() == that.getPrefetchRows() && getFirstRow() == that.getFirstRow() && Objects.equals(inventory, that.inventory) && Objects.equals(itemSlot, that.itemSlot) && Objects.equals(scrollBar, that.scrollBar);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(super.hashCode(), inventory, startIndex, slotCount, slotsWide, slotsHigh, itemSlot, scrollBar, getPrefetchRows(), getFirstRow());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "WVirtualSlotGrid{" +
+				"inventory=" + inventory +
+				", startIndex=" + startIndex +
+				", slotCount=" + slotCount +
+				", slotsWide=" + slotsWide +
+				", slotsHigh=" + slotsHigh +
+				", prefetchRows=" + prefetchRows +
+				", firstRow=" + firstRow +
+				", parent=" + parent +
+				", x=" + x +
+				", y=" + y +
+				", width=" + width +
+				", height=" + height +
+				", host=" + host +
+				'}';
+	}
+
+	/**
+	 * A slot peer that shows the stack bound to its window index.
+	 */
+	private final class WindowSlot extends ValidatedSlot
+	{
+		private WindowSlot(int windowIndex, int x, int y)
+		{
+			super(window, windowIndex, x, y);
+		}
+
+		@Override
+		public Container getInventory()
+		{
+			return inventory;
+		}
+
+		@Override
+		public int getInventoryIndex()
+		{
+			return toInventoryIndex(getContainerSlot());
+		}
+	}
+
+	/**
+	 * A container view that maps window indices to the currently bound inventory indices.
+	 */
+	private final class SlotWindow implements Container
+	{
+		@Override
+		public int getContainerSize()
+		{
+			return slotsWide * (slotsHigh + 2 * prefetchRows);
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			for (int i = 0; i < getContainerSize(); i++)
+			{
+				if (!getItem(i).isEmpty()) return false;
+			}
+
+			return true;
+		}
+
+		@Override
+		public ItemStack getItem(int slot)
+		{
+			int index = toInventoryIndex(slot);
+			return index >= 0 ? inventory.getItem(index) : ItemStack.EMPTY;
+		}
+
+		@Override
+		public ItemStack removeItem(int slot, int amount)
+		{
+			int index = toInventoryIndex(slot);
+			return index >= 0 ? inventory.removeItem(index, amount) : ItemStack.EMPTY;
+		}
+
+		@Override
+		public ItemStack removeItemNoUpdate(int slot)
+		{
+			int index = toInventoryIndex(slot);
+			return index >= 0 ? inventory.removeItemNoUpdate(index) : ItemStack.EMPTY;
+		}
+
+		@Override
+		public void setItem(int slot, ItemStack stack)
+		{
+			int index = toInventoryIndex(slot);
+			if (index >= 0) inventory.setItem(index, stack);
+		}
+
+		@Override
+		public int getMaxStackSize()
+		{
+			return inventory.getMaxStackSize();
+		}
+
+		@Override
+		public void setChanged()
+		{
+			inventory.setChanged();
+		}
+
+		@Override
+		public boolean stillValid(Player player)
+		{
+			return inventory.stillValid(player);
+		}
+
+		@Override
+		public boolean canPlaceItem(int slot, ItemStack stack)
+		{
+			int index = toInventoryIndex(slot);
+			return index >= 0 && inventory.canPlaceItem(index, stack);
+		}
+
+		@Override
+		public void clearContent()
+		{
+			for (int i = 0; i < getContainerSize(); i++)
+			{
+				setItem(i, ItemStack.EMPTY);
+			}
+		}
+	}
+}
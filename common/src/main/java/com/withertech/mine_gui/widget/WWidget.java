@@ -22,7 +22,9 @@ import com.mojang.blaze3d.vertex.PoseStack;
 import com.withertech.mine_gui.GuiDescription;
 import com.withertech.mine_gui.impl.VisualLogger;
 import com.withertech.mine_gui.widget.data.InputResult;
+import com.withertech.mine_gui.widget.data.LayoutConstraints;
 import com.withertech.mine_gui.widget.data.ObservableProperty;
+import com.withertech.mine_gui.widget.data.Size;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.Minecraft;
@@ -46,15 +48,18 @@ public class WWidget
 	/**
 	 * The containing panel of this widget.
 	 * Can be null if this widget is the root panel or a HUD widget.
+	 * Use {@link #setParent(WPanel)} to change it, so that cached absolute coordinates are updated.
 	 */
 	@Nullable
 	protected WPanel parent;
 	/**
 	 * The X coordinate of this widget relative to its parent.
+	 * Use {@link #setLocation(int, int)} to change it, so that cached absolute coordinates are updated.
 	 */
 	protected int x = 0;
 	/**
 	 * The Y coordinate of this widget relative to its parent.
+	 * Use {@link #setLocation(int, int)} to change it, so that cached absolute coordinates are updated.
 	 */
 	protected int y = 0;
 	/**
@@ -71,6 +76,18 @@ public class WWidget
 	 */
 	@Nullable
 	protected GuiDescription host;
+	private int paintGeneration = 0;
+	// Cached by getAbsoluteX/Y. If an attached widget has a valid absolute position, so do all of its parents.
+	private int absoluteX;
+	private int absoluteY;
+	private boolean absolutePositionValid = false;
+	// Layout state, see measure and arrange
+	@Nullable
+	private Size measuredSize = null;
+	@Nullable
+	private LayoutConstraints measuredConstraints = null;
+	private boolean arranged = false;
+	private boolean arranging = false;
 
 	/**
 	 * Tests if the provided key code is an activation key for widgets.
@@ -95,8 +112,13 @@ public class WWidget
 	 */
 	public void setLocation(int x, int y)
 	{
+		if (this.x == x && this.y == y) return;
+
 		this.x = x;
 		this.y = y;
+		invalidateAbsolutePosition();
+		if (!arranging && parent != null) parent.invalidateLayout();
+		if (parent != null) parent.invalidatePaint();
 	}
 
 	/**
@@ -110,8 +132,12 @@ public class WWidget
 	 */
 	public void setSize(int x, int y)
 	{
+		if (this.width == x && this.height == y) return;
+
 		this.width = x;
 		this.height = y;
+		if (!arranging) invalidateLayout();
+		invalidatePaint();
 	}
 
 	/**
@@ -137,32 +163,188 @@ public class WWidget
 	/**
 	 * Gets the absolute X coordinate of this widget.
 	 *
+	 * <p>The absolute position is cached until this widget or one of its parents is moved.
+	 *
 	 * @return the absolute X coordinate
 	 */
 	public int getAbsoluteX()
 	{
-		if (parent == null)
-		{
-			return getX();
-		} else
-		{
-			return getX() + parent.getAbsoluteX();
-		}
+		if (!absolutePositionValid) updateAbsolutePosition();
+		return absoluteX;
 	}
 
 	/**
 	 * Gets the absolute Y coordinate of this widget.
 	 *
+	 * <p>The absolute position is cached until this widget or one of its parents is moved.
+	 *
 	 * @return the absolute Y coordinate
 	 */
 	public int getAbsoluteY()
+	{
+		if (!absolutePositionValid) updateAbsolutePosition();
+		return absoluteY;
+	}
+
+	private void updateAbsolutePosition()
 	{
 		if (parent == null)
 		{
-			return getY();
+			absoluteX = getX();
+			absoluteY = getY();
 		} else
 		{
-			return getY() + parent.getAbsoluteY();
+			absoluteX = getX() + parent.getAbsoluteX();
+			absoluteY = getY() + parent.getAbsoluteY();
+		}
+
+		absolutePositionValid = true;
+	}
+
+	/**
+	 * Invalidates the cached absolute position of this widget. Panels also invalidate their children.
+	 *
+	 * <p>Widgets that are temporarily detached from the children of their parent, such as unselected cards
+	 * or recycled list rows, are not reached by their parent, so they are invalidated when they are added back.
+	 */
+	void invalidateAbsolutePosition()
+	{
+		absolutePositionValid = false;
+	}
+
+	/**
+	 * Tests whether this widget has a cached absolute position.
+	 * If it doesn't, none of its attached children have one either.
+	 */
+	boolean hasAbsolutePosition()
+	{
+		return absolutePositionValid;
+	}
+
+	/**
+	 * Measures the size that this widget wants to have. This is the first pass of a layout,
+	 * followed by {@link #arrange(int, int, int, int)}.
+	 *
+	 * <p>The result is cached until the layout of this widget is {@linkplain #invalidateLayout() invalidated},
+	 * so a widget is measured at most once per layout pass. Override {@link #computeSize(LayoutConstraints)}
+	 * to change the measured size.
+	 *
+	 * @param constraints the maximum size
+	 * @return the measured size, within the constraints
+	 */
+	public final Size measure(LayoutConstraints constraints)
+	{
+		if (measuredSize == null || !constraints.equals(measuredConstraints))
+		{
+			measuredSize = constraints.constrain(computeSize(constraints));
+			measuredConstraints = constraints;
+		}
+
+		return measuredSize;
+	}
+
+	/**
+	 * Computes the size that this widget wants to have for {@link #measure(LayoutConstraints)}.
+	 *
+	 * <p>The default implementation returns the current size, which is the size set with
+	 * {@link #setSize(int, int)} for most widgets. Panels compute their size from their children.
+	 *
+	 * @param constraints the maximum size
+	 * @return the wanted size, which is limited to the constraints by {@link #measure(LayoutConstraints)}
+	 */
+	protected Size computeSize(LayoutConstraints constraints)
+	{
+		return new Size(getWidth(), getHeight());
+	}
+
+	/**
+	 * Places this widget at its final bounds. This is the second pass of a layout, usually called by
+	 * the parent panel with the {@linkplain #measure(LayoutConstraints) measured} size of this widget.
+	 *
+	 * <p>Moving and resizing a widget with this method doesn't invalidate the layout. Panels also
+	 * {@linkplain WPanel#layout() lay out} their children.
+	 *
+	 * @param x      the X coordinate relative to the parent
+	 * @param y      the Y coordinate relative to the parent
+	 * @param width  the width
+	 * @param height the height
+	 */
+	public void arrange(int x, int y, int width, int height)
+	{
+		arranging = true;
+
+		try
+		{
+			setLocation(x, y);
+			setSize(width, height);
+		} finally
+		{
+			arranging = false;
+		}
+
+		arranged = true;
+	}
+
+	/**
+	 * Invalidates the measured size of this widget and its parents, so that they are measured and arranged again
+	 * in the next layout pass. This is called automatically when the widget is moved or resized outside of a layout.
+	 */
+	public void invalidateLayout()
+	{
+		if (measuredSize == null && !arranged) return;
+
+		measuredSize = null;
+		measuredConstraints = null;
+		arranged = false;
+		if (parent != null) parent.invalidateLayout();
+	}
+
+	/**
+	 * Tests whether this widget has been arranged since its layout was last invalidated.
+	 */
+	boolean isArranged()
+	{
+		return arranged;
+	}
+
+	/**
+	 * Tests whether this widget is being moved or resized by {@link #arrange(int, int, int, int)}
+	 * or {@link #setLayoutSize(int, int)}.
+	 */
+	boolean isArranging()
+	{
+		return arranging;
+	}
+
+	/**
+	 * Moves this widget as a part of a layout, without invalidating the layout.
+	 */
+	void setLayoutLocation(int x, int y)
+	{
+		arranging = true;
+
+		try
+		{
+			setLocation(x, y);
+		} finally
+		{
+			arranging = false;
+		}
+	}
+
+	/**
+	 * Resizes this widget as a part of a layout, without invalidating the layout.
+	 */
+	void setLayoutSize(int width, int height)
+	{
+		arranging = true;
+
+		try
+		{
+			setSize(width, height);
+		} finally
+		{
+			arranging = false;
 		}
 	}
 
@@ -205,7 +387,10 @@ public class WWidget
 	 */
 	public void setParent(WPanel parent)
 	{
+		invalidatePaint();
 		this.parent = parent;
+		invalidateAbsolutePosition();
+		invalidatePaint();
 	}
 
 	/**
@@ -403,6 +588,63 @@ public class WWidget
 	{
 	}
 
+	/**
+	 * Tests whether the painted output of this widget only depends on its own state, size and the current theme.
+	 *
+	 * <p>Static widgets can be recorded into the retained paint cache of a
+	 * {@linkplain WPanel#setPaintCacheMode(com.withertech.mine_gui.widget.data.PaintCacheMode) cached panel}.
+	 * They must only draw through {@link com.withertech.mine_gui.client.ScreenDrawing ScreenDrawing} without
+	 * {@linkplain com.withertech.mine_gui.client.Scissors scissors}, must not depend on the mouse position or time, and must call {@link #invalidatePaint()} whenever
+	 * something that affects their painting changes. Other widgets are painted live every frame.
+	 *
+	 * <p>The default implementation returns false.
+	 *
+	 * @return true if this widget can be recorded, false otherwise
+	 */
+	@Environment(EnvType.CLIENT)
+	public boolean isPaintStatic()
+	{
+		return false;
+	}
+
+	/**
+	 * Tests whether this widget only draws quads and text through {@link com.withertech.mine_gui.client.ScreenDrawing ScreenDrawing}.
+	 *
+	 * <p>Panels paint consecutive batchable children in a batch, where quads that share a texture
+	 * are submitted in a single draw. Batchable widgets must not draw with OpenGL or the item renderer
+	 * directly, as those draws could end up below the quads that are still waiting in the batch.
+	 *
+	 * <p>The default implementation returns {@link #isPaintStatic()}.
+	 *
+	 * @return true if this widget can be painted in a batch, false otherwise
+	 */
+	@Environment(EnvType.CLIENT)
+	public boolean isPaintBatchable()
+	{
+		return isPaintStatic();
+	}
+
+	/**
+	 * Notifies the panels containing this widget that its painted output has changed.
+	 * Any retained paint caches containing this widget are discarded and recorded again on the next frame.
+	 */
+	public void invalidatePaint()
+	{
+		paintGeneration++;
+		if (parent != null) parent.invalidatePaint();
+	}
+
+	/**
+	 * Gets the paint generation of this widget. The paint generation changes whenever
+	 * the painted output of this widget or one of its children is {@linkplain #invalidatePaint() invalidated}.
+	 *
+	 * @return the paint generation
+	 */
+	public int getPaintGeneration()
+	{
+		return paintGeneration;
+	}
+
 	/**
 	 * Checks whether a location is within this widget's bounds.
 	 *
@@ -654,13 +896,13 @@ public class WWidget
 	{
 		if (this == o) return true;
 		if (!(o instanceof WWidget wWidget)) return false;
-		return getX() == wWidget.getX() && getY() == wWidget.getY() && getWidth() == wWidget.getWidth() && getHeight() == wWidget.getHeight() && Objects.equals(isHovered(), wWidget.isHovered()) && Objects.equals(getParent(), wWidget.getParent()) && Objects.equals(getHost(), wWidget.getHost());
+		return getX() == wWidget.getX() && getY() == wWidget.getY() && getWidth() == wWidget.getWidth() && getHeight() == wWidget.getHeight() && Objects.equals(isHovered(), wWidget.isHovered());
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(isHovered(), getParent(), getX(), getY(), getWidth(), getHeight(), getHost());
+		return Objects.hash(isHovered(), getX(), getY(), getWidth(), getHeight());
 	}
 
 	@Override
@@ -0,0 +1,262 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget.data;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A filtered and sorted view of a {@link ListDataSource} that updates incrementally.
+ *
+ * <p>The view keeps the order of the source items as an array of indices, which is only sorted again
+ * when the {@linkplain #setSorting(Comparator) sorting} changes or the view is {@linkplain #refresh() refreshed}.
+ * Filtering walks that array and keeps the matching indices in a second array, so the matches stay sorted
+ * without sorting them again. When a filter only removes matches, {@link #narrowFilter(Predicate)}
+ * only tests the current matches. For example, a search field can narrow the filter while the query grows:
+ *
+ * <pre>
+ * {@code
+ * FilteredListView<Item> view = new FilteredListView<>(ListDataSource.of(items));
+ * WListPanel<Item, WItem> list = new WListPanel<>(view, WItem::new, (item, widget) -> ...);
+ *
+ * searchField.setChangedListener(query -> {
+ *     Predicate<Item> filter = item -> item.getName().contains(query);
+ *     if (query.contains(lastQuery)) {
+ *         view.narrowFilter(filter);
+ *     } else {
+ *         view.setFilter(filter);
+ *     }
+ *     lastQuery = query;
+ * });
+ * }
+ * </pre>
+ *
+ * <p>The source should have all of its items loaded. Items that the source returns as {@code null}
+ * never match a filter and are sorted last.
+ *
+ * @param <D> the item type
+ */
+public final class FilteredListView<D> implements ListDataSource<D>
+{
+	private static final int[] EMPTY = new int[0];
+	private final ListDataSource<D> source;
+	private final List<Runnable> listeners = new ArrayList<>();
+	private Predicate<? super D> filter = item -> true;
+	@Nullable
+	private Comparator<? super D> sorting = null;
+	// The source indices in sorted order
+	private int[] order = EMPTY;
+	// The matching source indices in sorted order, the first matchCount elements are used
+	private int[] matches = EMPTY;
+	private int matchCount = 0;
+
+	/**
+	 * Constructs a view that shows all items of the source in their original order.
+	 *
+	 * @param source the source
+	 */
+	public FilteredListView(ListDataSource<D> source)
+	{
+		this.source = Objects.requireNonNull(source, "source");
+		source.addChangeListener(this::refresh);
+		refresh();
+	}
+
+	/**
+	 * Gets the current filter of this view.
+	 *
+	 * @return the filter
+	 */
+	public Predicate<? super D> getFilter()
+	{
+		return filter;
+	}
+
+	/**
+	 * Sets the filter of this view and tests every item with it.
+	 *
+	 * @param filter the new filter
+	 * @return this view
+	 */
+	public FilteredListView<D> setFilter(Predicate<? super D> filter)
+	{
+		this.filter = Objects.requireNonNull(filter, "filter");
+		matchCount = 0;
+
+		for (int index : order)
+		{
+			if (test(index)) matches[matchCount++] = index;
+		}
+
+		fireChanged();
+		return this;
+	}
+
+	/**
+	 * Sets a filter that only matches a subset of the current matches, and only tests the current matches with it.
+	 * This is the case when a filter is combined with a stricter condition, like a search query that has grown.
+	 *
+	 * @param filter the new filter, which must not match items that the current filter doesn't match
+	 * @return this view
+	 */
+	public FilteredListView<D> narrowFilter(Predicate<? super D> filter)
+	{
+		this.filter = Objects.requireNonNull(filter, "filter");
+		int count = 0;
+
+		for (int i = 0; i < matchCount; i++)
+		{
+			int index = matches[i];
+			if (test(index)) matches[count++] = index;
+		}
+
+		matchCount = count;
+		fireChanged();
+		return this;
+	}
+
+	/**
+	 * Gets the current sorting of this view.
+	 *
+	 * @return the comparator, or null if the items are in the source order
+	 */
+	@Nullable
+	public Comparator<? super D> getSorting()
+	{
+		return sorting;
+	}
+
+	/**
+	 * Sets the sorting of this view. The sort is stable.
+	 *
+	 * @param sorting the comparator, or null to show the items in the source order
+	 * @return this view
+	 */
+	public FilteredListView<D> setSorting(@Nullable Comparator<? super D> sorting)
+	{
+		this.sorting = sorting;
+		sortOrder();
+		return setFilter(filter);
+	}
+
+	/**
+	 * Rebuilds this view after the items of the source have changed.
+	 * This is called automatically when the source notifies its change listeners.
+	 */
+	public void refresh()
+	{
+		int size = source.size();
+
+		if (order.length != size)
+		{
+			order = new int[size];
+			matches = new int[size];
+		}
+
+		sortOrder();
+		setFilter(filter);
+	}
+
+	/**
+	 * Converts an index in this view to an index in the source.
+	 *
+	 * @param index the index in this view
+	 * @return the index in the source
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public int getSourceIndex(int index)
+	{
+		Objects.checkIndex(index, matchCount);
+		return matches[index];
+	}
+
+	@Override
+	public int size()
+	{
+		return matchCount;
+	}
+
+	@Nullable
+	@Override
+	public D get(int index)
+	{
+		return source.get(getSourceIndex(index));
+	}
+
+	@Override
+	public void prefetch(int fromIndex, int toIndex)
+	{
+		if (sorting == null && fromIndex < toIndex && toIndex <= matchCount)
+		{
+			// Without sorting, the matches are in source order
+			source.prefetch(matches[fromIndex], matches[toIndex - 1] + 1);
+		}
+	}
+
+	@Override
+	public void addChangeListener(Runnable listener)
+	{
+		listeners.add(Objects.requireNonNull(listener, "listener"));
+	}
+
+	private boolean test(int index)
+	{
+		D item = source.get(index);
+		return item != null && filter.test(item);
+	}
+
+	private void sortOrder()
+	{
+		for (int i = 0; i < order.length; i++)
+		{
+			order[i] = i;
+		}
+
+		if (sorting == null) return;
+
+		// Merge sort is stable, so equal items stay in source order
+		Comparator<D> comparator = Comparator.nullsLast(sorting);
+		IntArrays.mergeSort(order, 0, order.length, (a, b) -> comparator.compare(source.get(a), source.get(b)));
+	}
+
+	private void fireChanged()
+	{
+		for (Runnable listener : listeners)
+		{
+			listener.run();
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FilteredListView{" +
+				"source=" + source +
+				", filter=" + filter +
+				", sorting=" + sorting +
+				", size=" + matchCount +
+				'}';
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget.data;
+
+/**
+ * The maximum size that a widget can be {@linkplain com.withertech.mine_gui.widget.WWidget#measure measured} at.
+ *
+ * @param maxWidth  the maximum width, or {@link Integer#MAX_VALUE} if unbounded
+ * @param maxHeight the maximum height, or {@link Integer#MAX_VALUE} if unbounded
+ */
+public record LayoutConstraints(int maxWidth, int maxHeight)
+{
+	/**
+	 * Constraints that don't limit the size.
+	 */
+	public static final LayoutConstraints UNBOUNDED = new LayoutConstraints(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+	/**
+	 * Constructs layout constraints.
+	 *
+	 * @param maxWidth  the maximum width, or {@link Integer#MAX_VALUE} if unbounded
+	 * @param maxHeight the maximum height, or {@link Integer#MAX_VALUE} if unbounded
+	 * @throws IllegalArgumentException if a maximum is negative
+	 */
+	public LayoutConstraints
+	{
+		if (maxWidth < 0 || maxHeight < 0)
+		{
+			throw new IllegalArgumentException("Negative maximum size: " + maxWidth + "x" + maxHeight);
+		}
+	}
+
+	/**
+	 * Limits a size to these constraints.
+	 *
+	 * @param size the size
+	 * @return the limited size
+	 */
+	public Size constrain(Size size)
+	{
+		if (size.width() <= maxWidth && size.height() <= maxHeight) return size;
+		return new Size(Math.min(size.width(), maxWidth), Math.min(size.height(), maxHeight));
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget.data;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The data shown by a {@link com.withertech.mine_gui.widget.WListPanel WListPanel}.
+ *
+ * <p>Data sources don't have to hold all items at once. An item that hasn't been loaded yet
+ * is returned as {@code null}, and the list panel shows a placeholder row for it until
+ * the data source notifies its {@linkplain #addChangeListener(Runnable) change listeners}.
+ *
+ * @param <D> the item type
+ * @see com.withertech.mine_gui.networking.PagedListDataSource
+ */
+public interface ListDataSource<D>
+{
+	/**
+	 * Creates a data source that shows the items of a list.
+	 * Changes to the list are visible in the data source.
+	 *
+	 * @param list the list
+	 * @param <D>  the item type
+	 * @return the data source
+	 */
+	static <D> ListDataSource<D> of(List<D> list)
+	{
+		Objects.requireNonNull(list, "list");
+
+		return new ListDataSource<>()
+		{
+			@Override
+			public int size()
+			{
+				return list.size();
+			}
+
+			@Override
+			public D get(int index)
+			{
+				return list.get(index);
+			}
+		};
+	}
+
+	/**
+	 * Gets the number of items, including the ones that haven't been loaded yet.
+	 *
+	 * @return the number of items
+	 */
+	int size();
+
+	/**
+	 * Gets an item.
+	 *
+	 * @param index the index of the item
+	 * @return the item, or null if it hasn't been loaded yet
+	 */
+	@Nullable
+	D get(int index);
+
+	/**
+	 * Hints that the items in a range are about to be shown.
+	 * Data sources that load their items can start loading them and their neighbours.
+	 *
+	 * @param fromIndex the first shown index
+	 * @param toIndex   the index after the last shown index
+	 */
+	default void prefetch(int fromIndex, int toIndex)
+	{
+	}
+
+	/**
+	 * Adds a listener that is called when items are loaded or the data changes.
+	 *
+	 * <p>The default implementation does nothing, which is fine for data sources that don't load their items.
+	 *
+	 * @param listener the listener
+	 */
+	default void addChangeListener(Runnable listener)
+	{
+	}
+}
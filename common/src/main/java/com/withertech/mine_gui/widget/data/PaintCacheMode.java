@@ -0,0 +1,46 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.widget.data;
+
+/**
+ * Specifies how a {@linkplain com.withertech.mine_gui.widget.WPanel panel} retains its painted output between frames.
+ *
+ * @see com.withertech.mine_gui.widget.WPanel#setPaintCacheMode(PaintCacheMode)
+ */
+public enum PaintCacheMode
+{
+	/**
+	 * The panel is painted from scratch every frame. The default value.
+	 */
+	NONE,
+	/**
+	 * The static parts of the panel are recorded into a draw list on the first frame
+	 * and replayed on later frames until the panel is invalidated.
+	 */
+	DRAW_LIST,
+	/**
+	 * Like {@link #DRAW_LIST}, but the recorded contents are rendered into an offscreen render target
+	 * that is composited as a single textured quad on later frames.
+	 *
+	 * <p>Offscreen targets share a pixel budget across all open screens.
+	 * When the budget is exceeded, the least recently used targets are released
+	 * and their panels fall back to replaying the draw list until a target is available again.
+	 */
+	FRAMEBUFFER
+}
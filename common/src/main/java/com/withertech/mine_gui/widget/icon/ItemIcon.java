@@ -18,12 +18,10 @@
 
 package com.withertech.mine_gui.widget.icon;
 
-import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.impl.client.ItemRenderBatch;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.entity.ItemRenderer;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
@@ -65,20 +63,7 @@ public class ItemIcon implements Icon
 	@Override
 	public void paint(PoseStack matrices, int x, int y, int size)
 	{
-		// TODO: Make this not ignore the actual matrices
-		Minecraft client = Minecraft.getInstance();
-		ItemRenderer renderer = client.getItemRenderer();
-		PoseStack modelViewMatrices = RenderSystem.getModelViewStack();
-
-		float scale = size != 16 ? ((float) size / 16f) : 1f;
-
-		modelViewMatrices.pushPose();
-		modelViewMatrices.translate(x, y, 0);
-		modelViewMatrices.scale(scale, scale, 1);
-		RenderSystem.applyModelViewMatrix();
-		renderer.renderAndDecorateFakeItem(stack, 0, 0);
-		modelViewMatrices.popPose();
-		RenderSystem.applyModelViewMatrix();
+		ItemRenderBatch.render(matrices, stack, x, y, size);
 	}
 
 	@Override
@@ -19,6 +19,7 @@
 package com.withertech.mine_gui.widget.icon;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.client.GuiTextureAtlas;
 import com.withertech.mine_gui.client.ScreenDrawing;
 import com.withertech.mine_gui.widget.data.Texture;
 import net.fabricmc.api.EnvType;
@@ -57,6 +58,7 @@ public class TextureIcon implements Icon
 	public TextureIcon(Texture texture)
 	{
 		this.texture = texture;
+		GuiTextureAtlas.register(texture);
 	}
 
 	/**
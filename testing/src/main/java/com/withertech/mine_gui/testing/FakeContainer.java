@@ -0,0 +1,166 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.Container;
+import net.minecraft.world.ContainerHelper;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * A simple {@link Container} for headless tests that counts how it is accessed.
+ *
+ * <p>The counters make it possible to assert that a GUI doesn't read or modify its inventory
+ * more often than expected, for example per simulated frame.
+ */
+public class FakeContainer implements Container
+{
+	private final NonNullList<ItemStack> items;
+	private int reads = 0;
+	private int writes = 0;
+	private int changes = 0;
+
+	/**
+	 * Constructs an empty fake container.
+	 *
+	 * @param size the number of slots
+	 */
+	public FakeContainer(int size)
+	{
+		this.items = NonNullList.withSize(size, ItemStack.EMPTY);
+	}
+
+	/**
+	 * Constructs a fake container with the specified contents.
+	 *
+	 * @param stacks the stacks in the slots
+	 */
+	public FakeContainer(ItemStack... stacks)
+	{
+		this.items = NonNullList.of(ItemStack.EMPTY, stacks);
+	}
+
+	@Override
+	public int getContainerSize()
+	{
+		return items.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return items.stream().allMatch(ItemStack::isEmpty);
+	}
+
+	@Override
+	public ItemStack getItem(int slot)
+	{
+		reads++;
+		return items.get(slot);
+	}
+
+	@Override
+	public ItemStack removeItem(int slot, int amount)
+	{
+		writes++;
+		ItemStack result = ContainerHelper.removeItem(items, slot, amount);
+		if (!result.isEmpty()) setChanged();
+		return result;
+	}
+
+	@Override
+	public ItemStack removeItemNoUpdate(int slot)
+	{
+		writes++;
+		return ContainerHelper.takeItem(items, slot);
+	}
+
+	@Override
+	public void setItem(int slot, ItemStack stack)
+	{
+		writes++;
+		items.set(slot, stack);
+		setChanged();
+	}
+
+	@Override
+	public void setChanged()
+	{
+		changes++;
+	}
+
+	@Override
+	public boolean stillValid(Player player)
+	{
+		return true;
+	}
+
+	@Override
+	public void clearContent()
+	{
+		items.clear();
+		setChanged();
+	}
+
+	/**
+	 * {@return the number of {@link #getItem(int)} calls}
+	 */
+	public int getReads()
+	{
+		return reads;
+	}
+
+	/**
+	 * {@return the number of calls that set or removed items}
+	 */
+	public int getWrites()
+	{
+		return writes;
+	}
+
+	/**
+	 * {@return the number of {@link #setChanged()} calls}
+	 */
+	public int getChanges()
+	{
+		return changes;
+	}
+
+	/**
+	 * Resets all access counters.
+	 */
+	public void resetCounters()
+	{
+		reads = 0;
+		writes = 0;
+		changes = 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FakeContainer{" +
+				"items=" + items +
+				", reads=" + reads +
+				", writes=" + writes +
+				", changes=" + changes +
+				'}';
+	}
+}
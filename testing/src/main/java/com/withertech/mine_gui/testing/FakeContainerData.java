@@ -0,0 +1,109 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import net.minecraft.world.inventory.ContainerData;
+
+import java.util.Arrays;
+
+/**
+ * A simple {@link ContainerData} for headless tests that counts how it is accessed.
+ */
+public class FakeContainerData implements ContainerData
+{
+	private final int[] values;
+	private int reads = 0;
+	private int writes = 0;
+
+	/**
+	 * Constructs fake container data with the specified initial values.
+	 *
+	 * @param values the initial values
+	 */
+	public FakeContainerData(int... values)
+	{
+		this.values = values.clone();
+	}
+
+	/**
+	 * Constructs fake container data filled with zeros.
+	 *
+	 * @param count the number of values
+	 * @return the created data
+	 */
+	public static FakeContainerData ofSize(int count)
+	{
+		return new FakeContainerData(new int[count]);
+	}
+
+	@Override
+	public int get(int index)
+	{
+		reads++;
+		return values[index];
+	}
+
+	@Override
+	public void set(int index, int value)
+	{
+		writes++;
+		values[index] = value;
+	}
+
+	@Override
+	public int getCount()
+	{
+		return values.length;
+	}
+
+	/**
+	 * {@return the number of {@link #get(int)} calls}
+	 */
+	public int getReads()
+	{
+		return reads;
+	}
+
+	/**
+	 * {@return the number of {@link #set(int, int)} calls}
+	 */
+	public int getWrites()
+	{
+		return writes;
+	}
+
+	/**
+	 * Resets all access counters.
+	 */
+	public void resetCounters()
+	{
+		reads = 0;
+		writes = 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FakeContainerData{" +
+				"values=" + Arrays.toString(values) +
+				", reads=" + reads +
+				", writes=" + writes +
+				'}';
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * A player inventory without a player, for constructing
+ * {@link com.withertech.mine_gui.SyncedGuiDescription SyncedGuiDescription}s in headless tests.
+ *
+ * <p>Descriptions created with a fake inventory have no world. Methods that need the player,
+ * such as {@link #stillValid(Player)}, always succeed.
+ */
+public class FakeInventory extends Inventory
+{
+	/**
+	 * Constructs an empty fake inventory.
+	 */
+	public FakeInventory()
+	{
+		super(null);
+	}
+
+	/**
+	 * Constructs a fake inventory with the specified main inventory contents.
+	 *
+	 * @param stacks the stacks in the first slots, starting with the hotbar
+	 */
+	public FakeInventory(ItemStack... stacks)
+	{
+		this();
+
+		for (int i = 0; i < stacks.length; i++)
+		{
+			items.set(i, stacks[i]);
+		}
+	}
+
+	@Override
+	public boolean stillValid(Player player)
+	{
+		return true;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+/**
+ * The cost of simulated frames, measured by {@link GuiTestHarness#measureFrames(int, int)}.
+ *
+ * @param frames                the number of measured frames
+ * @param averageNanos          the average time per frame in nanoseconds
+ * @param maxNanos              the maximum time of a single frame in nanoseconds
+ * @param averageAllocatedBytes the average number of bytes allocated per frame,
+ *                              or -1 if the JVM can't measure allocations
+ * @param maxAllocatedBytes     the maximum number of bytes allocated in a single frame,
+ *                              or -1 if the JVM can't measure allocations
+ */
+public record FrameStats(int frames, long averageNanos, long maxNanos, long averageAllocatedBytes, long maxAllocatedBytes)
+{
+	/**
+	 * Asserts that the average frame stays within a budget.
+	 *
+	 * <p>Averages are compared instead of maximums because single frames can be slowed down
+	 * by garbage collection or JIT compilation. The allocation budget is ignored if allocations can't be measured.
+	 *
+	 * @param maxAverageNanos          the maximum average time per frame in nanoseconds
+	 * @param maxAverageAllocatedBytes the maximum average number of bytes allocated per frame
+	 * @return these stats
+	 * @throws AssertionError if the budget is exceeded
+	 */
+	public FrameStats assertWithin(long maxAverageNanos, long maxAverageAllocatedBytes)
+	{
+		if (averageNanos > maxAverageNanos)
+		{
+			throw new AssertionError("Average frame time " + averageNanos + " ns exceeds the budget of " + maxAverageNanos + " ns: " + this);
+		}
+
+		return assertAllocationsWithin(maxAverageAllocatedBytes);
+	}
+
+	/**
+	 * Asserts that the average frame stays within an allocation budget.
+	 *
+	 * <p>Unlike frame times, allocations don't depend on the speed or load of the machine,
+	 * so this is the assertion to use in tests that run on shared build machines.
+	 * The budget is ignored if allocations can't be measured.
+	 *
+	 * @param maxAverageAllocatedBytes the maximum average number of bytes allocated per frame
+	 * @return these stats
+	 * @throws AssertionError if the budget is exceeded
+	 */
+	public FrameStats assertAllocationsWithin(long maxAverageAllocatedBytes)
+	{
+		if (averageAllocatedBytes > maxAverageAllocatedBytes)
+		{
+			throw new AssertionError("Average frame allocation " + averageAllocatedBytes + " bytes exceeds the budget of " + maxAverageAllocatedBytes + " bytes: " + this);
+		}
+
+		return this;
+	}
+}
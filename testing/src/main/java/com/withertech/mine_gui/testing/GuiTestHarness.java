@@ -0,0 +1,583 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.GuiDescription;
+import com.withertech.mine_gui.client.RecordingDrawBackend;
+import com.withertech.mine_gui.impl.client.AnimationScheduler;
+import com.withertech.mine_gui.impl.client.MouseInputHandler;
+import com.withertech.mine_gui.widget.WPanel;
+import com.withertech.mine_gui.widget.WWidget;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * Drives a GUI description without a Minecraft client, for unit tests of widget trees and
+ * {@link com.withertech.mine_gui.SyncedGuiDescription SyncedGuiDescription}s.
+ *
+ * <p>The harness validates the root panel, replays mouse and keyboard input through the same input logic
+ * as the GUI screens and simulates frames. All coordinates are relative to the root panel, like
+ * {@linkplain WWidget#getAbsoluteX() absolute widget coordinates}. The input methods return the harness,
+ * so input can be scripted as a chain:
+ * <pre>{@code
+ * GuiTestHarness harness = GuiTestHarness.of(new MyDescription(new FakeInventory(), new FakeContainer(9)));
+ * harness.click(20, 30).typeText("abc").tick();
+ * harness.assertFocused(textField);
+ * harness.measureFrames(100, 1000).assertWithin(50_000, 0);
+ * }</pre>
+ *
+ * <p>Frames advance the {@linkplain AnimationScheduler animation clock} by a {@linkplain #setFrameTime(long) fixed frame time},
+ * which drives scroll and widget animations, then tick the root panel and hit test the mouse position.
+ * Widget animations only advance while their widget is painted. If {@linkplain #setPainting(boolean) painting}
+ * is enabled, they also paint the root panel into a {@link RecordingDrawBackend}. Widgets that play sounds,
+ * measure text or render items need a running client and can't be painted or clicked headlessly.
+ */
+public final class GuiTestHarness
+{
+	private static final int DEFAULT_SCREEN_WIDTH = 427;
+	private static final int DEFAULT_SCREEN_HEIGHT = 240;
+	// 60 frames per second
+	private static final long DEFAULT_FRAME_NANOS = 16_666_667L;
+	private static boolean bootstrapped = false;
+
+	private final GuiDescription description;
+	private final HeadlessScreen screen;
+	private final MouseInputHandler<HeadlessScreen> mouseInputHandler;
+	private final RecordingDrawBackend recording = new RecordingDrawBackend();
+	private final PoseStack matrices = new PoseStack();
+	private final Runnable paintRoot = this::paintRoot;
+	private boolean painting = false;
+	private long frameNanos = DEFAULT_FRAME_NANOS;
+	private int mouseX = -1;
+	private int mouseY = -1;
+
+	private GuiTestHarness(GuiDescription description)
+	{
+		this.description = description;
+		this.screen = new HeadlessScreen(description);
+		this.mouseInputHandler = new MouseInputHandler<>(screen);
+		validate();
+	}
+
+	/**
+	 * Creates a harness for a GUI description, {@linkplain #bootstrap() bootstrapping} the game registries if needed.
+	 *
+	 * @param description the GUI description
+	 * @return the created harness
+	 */
+	public static GuiTestHarness of(GuiDescription description)
+	{
+		Objects.requireNonNull(description, "description");
+		bootstrap();
+		return new GuiTestHarness(description);
+	}
+
+	/**
+	 * Bootstraps the game registries, which is needed for creating item stacks. Only the first call has an effect.
+	 */
+	public static synchronized void bootstrap()
+	{
+		if (!bootstrapped)
+		{
+			SharedConstants.tryDetectVersion();
+			Bootstrap.bootStrap();
+			bootstrapped = true;
+		}
+	}
+
+	/**
+	 * {@return the GUI description driven by this harness}
+	 */
+	public GuiDescription getDescription()
+	{
+		return description;
+	}
+
+	/**
+	 * {@return the draw backend that frames are painted into}
+	 *
+	 * <p>The backend is cleared at the start of every painted frame, so it contains the draws of the last frame.
+	 */
+	public RecordingDrawBackend getRecording()
+	{
+		return recording;
+	}
+
+	/**
+	 * Sets whether simulated frames paint the root panel.
+	 *
+	 * @param painting true if frames should paint, false otherwise
+	 * @return this harness
+	 */
+	public GuiTestHarness setPainting(boolean painting)
+	{
+		this.painting = painting;
+		return this;
+	}
+
+	/**
+	 * Sets the time that the animation clock advances by on each simulated frame. The default is a sixtieth of a second.
+	 *
+	 * @param frameNanos the frame time in nanoseconds
+	 * @return this harness
+	 * @throws IllegalArgumentException if {@code frameNanos} is negative
+	 */
+	public GuiTestHarness setFrameTime(long frameNanos)
+	{
+		if (frameNanos < 0) throw new IllegalArgumentException("frameNanos must not be negative, was " + frameNanos);
+		this.frameNanos = frameNanos;
+		return this;
+	}
+
+	/**
+	 * Validates the root panel again, which lays out the widget tree.
+	 *
+	 * @return this harness
+	 */
+	public GuiTestHarness validate()
+	{
+		WPanel root = description.getRootPanel();
+		root.validate(description);
+		screen.width = Math.max(DEFAULT_SCREEN_WIDTH, root.getWidth());
+		screen.height = Math.max(DEFAULT_SCREEN_HEIGHT, root.getHeight());
+		return this;
+	}
+
+	// Mouse input
+
+	/**
+	 * Moves the mouse.
+	 *
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @return this harness
+	 */
+	public GuiTestHarness mouseMove(int x, int y)
+	{
+		mouseX = x;
+		mouseY = y;
+		mouseInputHandler.onMouseMove(x, y);
+		return this;
+	}
+
+	/**
+	 * Presses a mouse button. Like the GUI screens, this releases the focus if the focused widget is not pressed.
+	 *
+	 * @param x      the X coordinate
+	 * @param y      the Y coordinate
+	 * @param button the mouse button, 0 for left, 1 for right and 2 for middle
+	 * @return this harness
+	 */
+	public GuiTestHarness press(int x, int y, int button)
+	{
+		mouseMove(x, y);
+
+		WWidget focus = description.getFocus();
+		if (focus != null && !focus.isWithinBounds(x - focus.getAbsoluteX(), y - focus.getAbsoluteY()))
+		{
+			description.releaseFocus(focus);
+		}
+
+		if (x >= 0 && y >= 0 && x < screen.width && y < screen.height)
+		{
+			mouseInputHandler.onMouseDown(x, y, button);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Releases a mouse button.
+	 *
+	 * @param x      the X coordinate
+	 * @param y      the Y coordinate
+	 * @param button the mouse button
+	 * @return this harness
+	 */
+	public GuiTestHarness release(int x, int y, int button)
+	{
+		mouseMove(x, y);
+		mouseInputHandler.onMouseUp(x, y, button);
+		return this;
+	}
+
+	/**
+	 * Clicks the left mouse button.
+	 *
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @return this harness
+	 */
+	public GuiTestHarness click(int x, int y)
+	{
+		return click(x, y, 0);
+	}
+
+	/**
+	 * Clicks a mouse button.
+	 *
+	 * @param x      the X coordinate
+	 * @param y      the Y coordinate
+	 * @param button the mouse button
+	 * @return this harness
+	 */
+	public GuiTestHarness click(int x, int y, int button)
+	{
+		return press(x, y, button).release(x, y, button);
+	}
+
+	/**
+	 * Drags the mouse with a pressed button from the current mouse position.
+	 *
+	 * @param x      the target X coordinate
+	 * @param y      the target Y coordinate
+	 * @param button the pressed mouse button
+	 * @return this harness
+	 */
+	public GuiTestHarness drag(int x, int y, int button)
+	{
+		int deltaX = x - mouseX;
+		int deltaY = y - mouseY;
+		mouseX = x;
+		mouseY = y;
+		mouseInputHandler.onMouseDrag(x, y, button, deltaX, deltaY);
+		return this;
+	}
+
+	/**
+	 * Scrolls the mouse wheel. Scrolling is animated, so the scrolled widgets only move on the following {@linkplain #frame() frames}.
+	 *
+	 * @param x      the X coordinate
+	 * @param y      the Y coordinate
+	 * @param amount the scrolled amount, positive for scrolling up
+	 * @return this harness
+	 */
+	public GuiTestHarness scroll(int x, int y, double amount)
+	{
+		mouseMove(x, y);
+		mouseInputHandler.onMouseScroll(x, y, amount);
+		return this;
+	}
+
+	// Keyboard input
+
+	/**
+	 * Types a character into the focused widget.
+	 *
+	 * @param ch the character
+	 * @return this harness
+	 */
+	public GuiTestHarness typeChar(char ch)
+	{
+		WWidget focus = description.getFocus();
+		if (focus != null) focus.onCharTyped(ch);
+		return this;
+	}
+
+	/**
+	 * Types a string into the focused widget, one character at a time.
+	 *
+	 * @param text the string
+	 * @return this harness
+	 */
+	public GuiTestHarness typeText(String text)
+	{
+		for (int i = 0; i < text.length(); i++)
+		{
+			typeChar(text.charAt(i));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Presses and releases a key on the focused widget.
+	 *
+	 * @param key       the GLFW key code
+	 * @param scanCode  the key scan code
+	 * @param modifiers the GLFW modifier flags
+	 * @return this harness
+	 */
+	public GuiTestHarness key(int key, int scanCode, int modifiers)
+	{
+		WWidget focus = description.getFocus();
+
+		if (focus != null)
+		{
+			focus.onKeyPressed(key, scanCode, modifiers);
+			focus.onKeyReleased(key, scanCode, modifiers);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Moves the focus to the next or previous focusable widget.
+	 *
+	 * @param lookForwards true to move forwards, false to move backwards
+	 * @return this harness
+	 */
+	public GuiTestHarness cycleFocus(boolean lookForwards)
+	{
+		description.cycleFocus(lookForwards);
+		return this;
+	}
+
+	// Time
+
+	/**
+	 * Ticks the root panel once.
+	 *
+	 * @return this harness
+	 */
+	public GuiTestHarness tick()
+	{
+		description.getRootPanel().tick();
+		return this;
+	}
+
+	/**
+	 * Ticks the root panel.
+	 *
+	 * @param ticks the number of ticks
+	 * @return this harness
+	 */
+	public GuiTestHarness tick(int ticks)
+	{
+		for (int i = 0; i < ticks; i++)
+		{
+			tick();
+		}
+
+		return this;
+	}
+
+	/**
+	 * Simulates a frame: advances the animation clock, ticks the root panel, hit tests the mouse position
+	 * and, if enabled, paints the root panel.
+	 *
+	 * @return this harness
+	 */
+	public GuiTestHarness frame()
+	{
+		AnimationScheduler.advanceFrame(frameNanos);
+		WPanel root = description.getRootPanel();
+		root.tick();
+		root.hit(mouseX, mouseY);
+
+		if (painting)
+		{
+			recording.clear();
+			recording.record(paintRoot);
+		}
+
+		return this;
+	}
+
+	private void paintRoot()
+	{
+		description.getRootPanel().paint(matrices, 0, 0, mouseX, mouseY);
+	}
+
+	/**
+	 * Simulates and measures frames.
+	 *
+	 * @param warmupFrames   the number of unmeasured frames to simulate first, for example to let the JIT compile the GUI
+	 * @param measuredFrames the number of measured frames
+	 * @return the measured frame costs
+	 */
+	public FrameStats measureFrames(int warmupFrames, int measuredFrames)
+	{
+		if (measuredFrames <= 0) throw new IllegalArgumentException("measuredFrames must be positive, was " + measuredFrames);
+
+		for (int i = 0; i < warmupFrames; i++)
+		{
+			frame();
+		}
+
+		@Nullable
+		com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+				&& bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+		long threadId = Thread.currentThread().getId();
+		long totalNanos = 0;
+		long maxNanos = 0;
+		long totalBytes = 0;
+		long maxBytes = 0;
+
+		for (int i = 0; i < measuredFrames; i++)
+		{
+			long bytesBefore = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+			long start = System.nanoTime();
+			frame();
+			long nanos = System.nanoTime() - start;
+			long bytes = threads != null ? threads.getThreadAllocatedBytes(threadId) - bytesBefore : 0;
+
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+			totalBytes += bytes;
+			maxBytes = Math.max(maxBytes, bytes);
+		}
+
+		return threads != null
+				? new FrameStats(measuredFrames, totalNanos / measuredFrames, maxNanos, totalBytes / measuredFrames, maxBytes)
+				: new FrameStats(measuredFrames, totalNanos / measuredFrames, maxNanos, -1, -1);
+	}
+
+	// Assertions
+
+	/**
+	 * Asserts that a widget is focused.
+	 *
+	 * @param widget the widget
+	 * @return this harness
+	 */
+	public GuiTestHarness assertFocused(WWidget widget)
+	{
+		if (description.getFocus() != widget)
+		{
+			throw new AssertionError("Expected " + describe(widget) + " to be focused, but the focus was " + describe(description.getFocus()));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts that no widget is focused.
+	 *
+	 * @return this harness
+	 */
+	public GuiTestHarness assertNothingFocused()
+	{
+		if (description.getFocus() != null)
+		{
+			throw new AssertionError("Expected no focus, but the focus was " + describe(description.getFocus()));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts that a widget is hovered.
+	 *
+	 * @param widget the widget
+	 * @return this harness
+	 */
+	public GuiTestHarness assertHovered(WWidget widget)
+	{
+		if (!widget.isHovered())
+		{
+			throw new AssertionError("Expected " + describe(widget) + " to be hovered at (" + mouseX + ", " + mouseY + ")");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts that a widget is not hovered.
+	 *
+	 * @param widget the widget
+	 * @return this harness
+	 */
+	public GuiTestHarness assertNotHovered(WWidget widget)
+	{
+		if (widget.isHovered())
+		{
+			throw new AssertionError("Expected " + describe(widget) + " not to be hovered at (" + mouseX + ", " + mouseY + ")");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts the layout bounds of a widget.
+	 *
+	 * @param widget the widget
+	 * @param x      the expected absolute X coordinate
+	 * @param y      the expected absolute Y coordinate
+	 * @param width  the expected width
+	 * @param height the expected height
+	 * @return this harness
+	 */
+	public GuiTestHarness assertBounds(WWidget widget, int x, int y, int width, int height)
+	{
+		int actualX = widget.getAbsoluteX();
+		int actualY = widget.getAbsoluteY();
+
+		if (actualX != x || actualY != y || widget.getWidth() != width || widget.getHeight() != height)
+		{
+			throw new AssertionError("Expected " + describe(widget) + " at (" + x + ", " + y + ") with size " + width + "x" + height
+					+ ", but it was at (" + actualX + ", " + actualY + ") with size " + widget.getWidth() + "x" + widget.getHeight());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts the contents of a container slot.
+	 *
+	 * @param container the container
+	 * @param slot      the slot index in the container
+	 * @param item      the expected item
+	 * @param count     the expected stack size
+	 * @return this harness
+	 */
+	public GuiTestHarness assertSlot(Container container, int slot, Item item, int count)
+	{
+		ItemStack stack = container.getItem(slot);
+
+		if (!stack.is(item) || stack.getCount() != count)
+		{
+			throw new AssertionError("Expected " + count + " " + item + " in slot " + slot + ", but it contained " + stack);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Asserts that a container slot is empty.
+	 *
+	 * @param container the container
+	 * @param slot      the slot index in the container
+	 * @return this harness
+	 */
+	public GuiTestHarness assertSlotEmpty(Container container, int slot)
+	{
+		ItemStack stack = container.getItem(slot);
+
+		if (!stack.isEmpty())
+		{
+			throw new AssertionError("Expected slot " + slot + " to be empty, but it contained " + stack);
+		}
+
+		return this;
+	}
+
+	private static String describe(@Nullable WWidget widget)
+	{
+		return widget != null ? widget.getClass().getSimpleName() + '@' + Integer.toHexString(System.identityHashCode(widget)) : "null";
+	}
+}
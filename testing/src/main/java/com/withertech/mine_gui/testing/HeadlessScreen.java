@@ -0,0 +1,69 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.withertech.mine_gui.GuiDescription;
+import com.withertech.mine_gui.impl.client.MineGuiScreenImpl;
+import com.withertech.mine_gui.widget.WWidget;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Style;
+import net.minecraft.network.chat.TextComponent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A screen that is never opened, used to drive the mouse input logic of {@link GuiTestHarness}.
+ */
+final class HeadlessScreen extends Screen implements MineGuiScreenImpl
+{
+	private final GuiDescription description;
+	@Nullable
+	private WWidget lastResponder = null;
+
+	HeadlessScreen(GuiDescription description)
+	{
+		super(TextComponent.EMPTY);
+		this.description = description;
+	}
+
+	@Override
+	public GuiDescription getDescription()
+	{
+		return description;
+	}
+
+	@Nullable
+	@Override
+	public WWidget getLastResponder()
+	{
+		return lastResponder;
+	}
+
+	@Override
+	public void setLastResponder(@Nullable WWidget lastResponder)
+	{
+		this.lastResponder = lastResponder;
+	}
+
+	@Override
+	public void renderTextHover(PoseStack matrices, @Nullable Style textStyle, int x, int y)
+	{
+		// Text hover effects need a client
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Mine GUI
+ * Copyright (C) 2022 WitherTech
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.withertech.mine_gui.testing;
+
+import com.withertech.mine_gui.SyncedGuiDescription;
+import com.withertech.mine_gui.client.LightweightGuiDescription;
+import com.withertech.mine_gui.widget.WItemSlot;
+import com.withertech.mine_gui.widget.WPlainPanel;
+import com.withertech.mine_gui.widget.WScrollBar;
+import com.withertech.mine_gui.widget.WWidget;
+import com.withertech.mine_gui.widget.data.Axis;
+import com.withertech.mine_gui.widget.data.InputResult;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Smoke tests that drive GUI descriptions through the {@link GuiTestHarness} without a Minecraft client.
+ */
+class GuiTestHarnessTest
+{
+	@BeforeAll
+	static void bootstrap()
+	{
+		GuiTestHarness.bootstrap();
+	}
+
+	@Test
+	void fakeInventoryHoldsStacks()
+	{
+		FakeInventory inventory = new FakeInventory(new ItemStack(Items.DIAMOND, 3));
+
+		assertEquals(Items.DIAMOND, inventory.getItem(0).getItem());
+		assertEquals(3, inventory.getItem(0).getCount());
+		assertTrue(inventory.getItem(1).isEmpty());
+	}
+
+	@Test
+	void clickReachesWidget()
+	{
+		ClickCounter counter = new ClickCounter();
+		WPlainPanel root = new WPlainPanel();
+		root.add(counter, 10, 10, 18, 18);
+		LightweightGuiDescription description = new LightweightGuiDescription();
+		description.setRootPanel(root);
+
+		GuiTestHarness harness = GuiTestHarness.of(description)
+				.click(15, 15)
+				.click(50, 50);
+
+		assertEquals(1, counter.clicks);
+		harness.assertBounds(counter, 10, 10, 18, 18);
+	}
+
+	@Test
+	void scrollingAnimatesOverFrames()
+	{
+		WScrollBar scrollBar = new WScrollBar(Axis.VERTICAL);
+		scrollBar.setMaxValue(1000);
+		scrollBar.setWindow(50);
+		WPlainPanel root = new WPlainPanel();
+		root.add(scrollBar, 0, 0, 8, 50);
+		LightweightGuiDescription description = new LightweightGuiDescription();
+		description.setRootPanel(root);
+
+		GuiTestHarness harness = GuiTestHarness.of(description).scroll(4, 10, -1);
+		assertEquals(0, scrollBar.getValue(), "Scrolling should only move on the following frames");
+
+		harness.frame();
+		int afterOneFrame = scrollBar.getValue();
+		for (int i = 0; i < 60; i++) harness.frame();
+
+		assertTrue(afterOneFrame > 0, "The first frame should start scrolling");
+		assertTrue(scrollBar.getValue() > afterOneFrame, "Scrolling should continue on later frames");
+	}
+
+	@Test
+	void syncedDescriptionCreatesSlotPeers()
+	{
+		FakeContainer container = new FakeContainer(new ItemStack(Items.STONE, 5), ItemStack.EMPTY, ItemStack.EMPTY);
+		SyncedGuiDescription description = new SyncedGuiDescription(null, 0, new FakeInventory(), container, null);
+		WPlainPanel root = new WPlainPanel();
+		root.add(WItemSlot.of(container, 0, 3, 1), 0, 0);
+		description.setRootPanel(root);
+
+		GuiTestHarness harness = GuiTestHarness.of(description);
+
+		assertEquals(3, description.slots.size());
+		harness.assertSlot(container, 0, Items.STONE, 5);
+		harness.assertSlotEmpty(container, 1);
+	}
+
+	@Test
+	void framesStayWithinAllocationBudget()
+	{
+		WPlainPanel root = new WPlainPanel();
+		for (int i = 0; i < 50; i++)
+		{
+			root.add(new ClickCounter(), (i % 10) * 20, (i / 10) * 20, 18, 18);
+		}
+		LightweightGuiDescription description = new LightweightGuiDescription();
+		description.setRootPanel(root);
+
+		// Frame times depend on the build machine, so only the allocations are checked
+		GuiTestHarness.of(description)
+				.mouseMove(45, 45)
+				.measureFrames(1000, 1000)
+				.assertAllocationsWithin(4096);
+	}
+
+	private static final class ClickCounter extends WWidget
+	{
+		private int clicks = 0;
+
+		@Override
+		public boolean canResize()
+		{
+			return true;
+		}
+
+		@Override
+		public InputResult onClick(int x, int y, int button)
+		{
+			clicks++;
+			return InputResult.PROCESSED;
+		}
+	}
+}